@@ -0,0 +1,21 @@
+package com.course.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效消息总线，在实例之间广播本地缓存的失效
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * 广播失效消息，不能抛出异常影响业务操作
+     * @param message 失效消息
+     */
+    void publish(CacheInvalidationMessage message);
+
+    /**
+     * 订阅失效消息
+     * @param listener 消息处理器
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
@@ -0,0 +1,26 @@
+package com.course.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 缓存失效消息
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    /**
+     * 发出消息的实例ID，实例忽略自己发出的消息
+     */
+    private String origin;
+
+    private String cacheName;
+
+    /**
+     * 缓存键，为 null 表示清空整个缓存
+     */
+    private String key;
+}
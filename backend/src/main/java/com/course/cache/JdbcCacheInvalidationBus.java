@@ -0,0 +1,165 @@
+package com.course.cache;
+
+import com.course.entity.CacheInvalidation;
+import com.course.mapper.CacheInvalidationMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 基于数据库轮询的消息总线，不需要额外的中间件
+ * <p>
+ * 发布时只放入内存队列，由轮询线程批量写入 cache_invalidation 表，避免在业务事务（或事务完成回调）中写库；
+ * 轮询线程同时读取其他实例写入的消息。事务回滚时消息仍会发出，只会多失效一次缓存。
+ */
+@Slf4j
+public class JdbcCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final CacheInvalidationMapper cacheInvalidationMapper;
+    private final long lookbackMillis;
+    private final long retentionMillis;
+    private final int batchSize;
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<CacheInvalidationMessage> outbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 时间窗口内已处理的消息ID -> 处理时间，只由轮询线程访问
+     */
+    private final Map<Long, Long> processed = new LinkedHashMap<>();
+
+    public JdbcCacheInvalidationBus(CacheInvalidationMapper cacheInvalidationMapper,
+                                    long lookbackMillis, long retentionMillis, int batchSize) {
+        this.cacheInvalidationMapper = cacheInvalidationMapper;
+        this.lookbackMillis = lookbackMillis;
+        this.retentionMillis = retentionMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void publish(CacheInvalidationMessage message) {
+        if (message.getKey() != null && message.getKey().length() > MAX_KEY_LENGTH) {
+            // 键过长时改为清空整个缓存
+            message = new CacheInvalidationMessage(message.getOrigin(), message.getCacheName(), null);
+        }
+        outbox.add(message);
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 写出待发送的消息并读取新消息
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.poll-interval:1000}")
+    public synchronized void poll() {
+        try {
+            flushOutbox();
+            receive();
+        } catch (Exception e) {
+            log.error("缓存失效消息同步失败，将在下次轮询时重试", e);
+        }
+    }
+
+    /**
+     * 定时删除过期消息
+     */
+    @Scheduled(fixedDelayString = "${app.cache.invalidation.cleanup-interval:60000}")
+    public void cleanup() {
+        try {
+            int deleted;
+            do {
+                deleted = cacheInvalidationMapper.deleteExpired(retentionMillis, CLEANUP_BATCH_SIZE);
+            } while (deleted == CLEANUP_BATCH_SIZE);
+        } catch (Exception e) {
+            log.warn("清理过期缓存失效消息失败", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        try {
+            flushOutbox();
+        } catch (Exception e) {
+            log.warn("应用关闭时写出缓存失效消息失败", e);
+        }
+    }
+
+    private void flushOutbox() {
+        // 同一批次中重复的消息只写一次
+        Set<CacheInvalidationMessage> pending = new LinkedHashSet<>();
+        CacheInvalidationMessage message;
+        while ((message = outbox.peek()) != null && pending.size() < batchSize) {
+            pending.add(message);
+            outbox.poll();
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            cacheInvalidationMapper.insertBatch(new ArrayList<>(pending));
+        } catch (RuntimeException e) {
+            // 写库失败时放回队列，下次重试
+            outbox.addAll(pending);
+            throw e;
+        }
+        log.debug("写出缓存失效消息: {} 条", pending.size());
+        if (!outbox.isEmpty()) {
+            flushOutbox();
+        }
+    }
+
+    private void receive() {
+        long now = System.currentTimeMillis();
+        pruneProcessed(now);
+        long afterId = 0;
+        List<CacheInvalidation> rows;
+        do {
+            rows = cacheInvalidationMapper.findRecent(lookbackMillis, afterId, batchSize);
+            for (CacheInvalidation row : rows) {
+                afterId = row.getId();
+                if (processed.putIfAbsent(row.getId(), now) != null) {
+                    continue;
+                }
+                dispatch(new CacheInvalidationMessage(row.getOrigin(), row.getCacheName(), row.getCacheKey()));
+            }
+        } while (rows.size() == batchSize);
+    }
+
+    private void dispatch(CacheInvalidationMessage message) {
+        for (Consumer<CacheInvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (Exception e) {
+                log.warn("处理缓存失效消息失败: {}", message, e);
+            }
+        }
+    }
+
+    private void pruneProcessed(long now) {
+        // 超出时间窗口的消息不会再被查询到
+        Iterator<Map.Entry<Long, Long>> iterator = processed.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() <= lookbackMillis * 2) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+}
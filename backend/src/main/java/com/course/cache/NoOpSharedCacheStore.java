@@ -0,0 +1,28 @@
+package com.course.cache;
+
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+
+/**
+ * 不存储任何数据的共享缓存，只使用本地缓存时的默认实现
+ */
+public class NoOpSharedCacheStore implements SharedCacheStore {
+
+    @Override
+    public Cache.ValueWrapper get(String cacheName, Object key) {
+        return null;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+    }
+
+    @Override
+    public void clear(String cacheName) {
+    }
+}
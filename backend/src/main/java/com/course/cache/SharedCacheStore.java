@@ -0,0 +1,35 @@
+package com.course.cache;
+
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+
+/**
+ * 共享缓存存储（远端缓存），多个实例共用
+ * <p>
+ * 本地 Caffeine 缓存未命中时先查询共享存储，再回源数据库。
+ * 默认实现 {@link NoOpSharedCacheStore} 不存储任何数据，接入 Redis 等存储时注册该接口的 Bean 即可。
+ */
+public interface SharedCacheStore {
+
+    /**
+     * 查询缓存
+     * @param cacheName 缓存名称
+     * @param key 缓存键
+     * @return 缓存值，未命中时返回 null
+     */
+    Cache.ValueWrapper get(String cacheName, Object key);
+
+    /**
+     * 写入缓存
+     * @param cacheName 缓存名称
+     * @param key 缓存键
+     * @param value 缓存值，可能为 null
+     * @param ttl 过期时间，为 null 时不过期
+     */
+    void put(String cacheName, Object key, Object value, Duration ttl);
+
+    void evict(String cacheName, Object key);
+
+    void clear(String cacheName);
+}
@@ -0,0 +1,141 @@
+package com.course.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 两级缓存：本地 Caffeine 缓存 + 共享缓存存储
+ * <p>
+ * 读取时依次查询本地缓存、共享存储，最后回源并写入两级缓存；
+ * 失效时删除两级缓存，并通过 {@link CacheInvalidationBus} 通知其他实例删除本地缓存。
+ * 跨实例失效按 {@code String.valueOf(key)} 匹配，缓存键应使用字符串。
+ * 不缓存 null：写入 null 时忽略，回源结果为 null 时不写入任何一级缓存。
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private final CaffeineCache local;
+    private final SharedCacheStore sharedStore;
+    private final CacheInvalidationBus invalidationBus;
+    private final String nodeId;
+    private final Duration sharedTtl;
+
+    public TwoTierCache(CaffeineCache local, SharedCacheStore sharedStore,
+                        CacheInvalidationBus invalidationBus, String nodeId, Duration sharedTtl) {
+        this.local = local;
+        this.sharedStore = sharedStore;
+        this.invalidationBus = invalidationBus;
+        this.nodeId = nodeId;
+        this.sharedTtl = sharedTtl;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper shared = sharedStore.get(getName(), key);
+        if (shared == null || shared.get() == null) {
+            return null;
+        }
+        local.put(key, shared.get());
+        return shared;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不匹配, 期望 " + type.getName() + ": " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // 直接使用 Caffeine 的原子加载：回源结果为 null 时不建立映射，下次读取会重新回源
+        return (T) local.getNativeCache().get(key, k -> load(k, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        sharedStore.put(getName(), key, value, sharedTtl);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedStore.evict(getName(), key);
+        local.evict(key);
+        publish(String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        sharedStore.clear(getName());
+        local.clear();
+        publish(null);
+    }
+
+    /**
+     * 处理其他实例发来的失效消息，只删除本地缓存
+     * @param message 失效消息
+     */
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        if (message.getKey() == null) {
+            local.clear();
+        } else {
+            local.evict(message.getKey());
+        }
+        log.debug("收到缓存失效消息, 缓存: {}, 键: {}, 来源: {}", getName(), message.getKey(), message.getOrigin());
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        ValueWrapper shared = sharedStore.get(getName(), key);
+        if (shared != null && shared.get() != null) {
+            return shared.get();
+        }
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            sharedStore.put(getName(), key, value, sharedTtl);
+        }
+        return value;
+    }
+
+    private void publish(String key) {
+        try {
+            invalidationBus.publish(new CacheInvalidationMessage(nodeId, getName(), key));
+        } catch (Exception e) {
+            log.warn("广播缓存失效消息失败, 缓存: {}, 键: {}", getName(), key, e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.course.common.bulkhead;
+
+import com.course.common.api.ApiResult;
+import com.course.config.BulkheadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 请求隔离：上传、下载等请求在进入业务处理（包括读取请求体）之前获取所属隔离舱的许可
+ * <p>
+ * 隔离舱已满时立即返回 503，避免这类请求占满容器线程和数据库连接，使普通 JSON 接口不受影响。
+ * <p>
+ * 被拒绝的请求不再读取剩余的请求体（见 {@link BulkheadTomcatCustomizer}），客户端看到的是：
+ * 状态码 503、响应头 Retry-After: 1 和 Connection: close、JSON 格式的错误信息，随后连接被服务端关闭。
+ * 边发送边读响应的客户端（Expect: 100-continue，或浏览器在发送过程中读到响应）能拿到 503；
+ * 把请求体发完才读响应的客户端（如 HttpURLConnection）会在写请求体时遇到连接重置，应按可重试的错误处理。
+ * 其他请求不受影响，仍由 Tomcat 读完未读的请求体后复用连接。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    /**
+     * 请求被隔离舱拒绝时设置的请求属性
+     */
+    public static final String REJECTED_ATTRIBUTE = BulkheadFilter.class.getName() + ".REJECTED";
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final BulkheadProperties properties;
+    private final BulkheadRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        Bulkhead bulkhead = registry.find(request.getMethod(),
+            contextPath.isEmpty() ? uri : uri.substring(contextPath.length()));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("隔离舱已满，拒绝请求: {} {}, 隔离舱: {}, 处理中: {}", request.getMethod(), uri,
+                bulkhead.getName(), bulkhead.getActive());
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        request.setAttribute(REJECTED_ATTRIBUTE, Boolean.TRUE);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        // 请求体不会被读完，连接不能复用
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(),
+            ApiResult.error(HttpStatus.SERVICE_UNAVAILABLE.value(), "服务器繁忙，请稍后重试"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.course.common.bulkhead;
+
+import com.course.config.BulkheadProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按配置创建隔离舱，并根据请求方法和路径找到所属的隔离舱
+ */
+@Slf4j
+@Component
+public class BulkheadRegistry {
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final List<Route> routes = new ArrayList<>();
+
+    public BulkheadRegistry(BulkheadProperties properties) {
+        PathPatternParser parser = new PathPatternParser();
+        for (Map.Entry<String, BulkheadProperties.Compartment> entry : properties.getCompartments().entrySet()) {
+            BulkheadProperties.Compartment compartment = entry.getValue();
+            Bulkhead bulkhead = new Bulkhead(entry.getKey(), compartment.getMaxConcurrent(),
+                compartment.getMaxWaiting(), compartment.getMaxWait().toNanos());
+            bulkheads.put(entry.getKey(), bulkhead);
+            for (String pattern : compartment.getPatterns()) {
+                String value = pattern.trim();
+                int space = value.indexOf(' ');
+                String method = space < 0 ? null : value.substring(0, space).toUpperCase(Locale.ROOT);
+                String path = space < 0 ? value : value.substring(space + 1).trim();
+                routes.add(new Route(method, parser.parse(path), bulkhead));
+            }
+            log.info("隔离舱: {}, 最大并发: {}, 最大排队: {}, 接口: {}", entry.getKey(), compartment.getMaxConcurrent(),
+                compartment.getMaxWaiting(), compartment.getPatterns());
+        }
+    }
+
+    /**
+     * @param method 请求方法
+     * @param path 去掉 context-path 之后的路径
+     * @return 所属隔离舱，不属于任何隔离舱时为 null
+     */
+    public Bulkhead find(String method, String path) {
+        if (routes.isEmpty()) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if ((route.method == null || route.method.equals(method)) && route.pattern.matches(container)) {
+                return route.bulkhead;
+            }
+        }
+        return null;
+    }
+
+    public Collection<Bulkhead> getAll() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    private static final class Route {
+        private final String method;
+        private final PathPattern pattern;
+        private final Bulkhead bulkhead;
+
+        private Route(String method, PathPattern pattern, Bulkhead bulkhead) {
+            this.method = method;
+            this.pattern = pattern;
+            this.bulkhead = bulkhead;
+        }
+    }
+}
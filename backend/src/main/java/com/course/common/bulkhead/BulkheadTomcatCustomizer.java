@@ -0,0 +1,43 @@
+package com.course.common.bulkhead;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * 被隔离舱拒绝的请求不读取剩余的请求体
+ * <p>
+ * Tomcat 默认在响应结束后继续读完未读的请求体（最多 server.tomcat.max-swallow-size，默认 2MB），
+ * 网速慢的客户端在收到 503 之后仍会占住容器线程，隔离舱形同虚设。这里只对被拒绝的请求关闭该行为，
+ * 连接在响应发送后关闭；其他请求保持 Tomcat 的默认处理。
+ */
+@Component
+public class BulkheadTomcatCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addContextValves(new RejectedRequestValve());
+    }
+
+    static class RejectedRequestValve extends ValveBase {
+
+        RejectedRequestValve() {
+            super(true);
+        }
+
+        @Override
+        public void invoke(Request request, Response response) throws IOException, ServletException {
+            getNext().invoke(request, response);
+            if (request.getAttribute(BulkheadFilter.REJECTED_ATTRIBUTE) != null) {
+                request.getCoyoteRequest().action(ActionCode.DISABLE_SWALLOW_INPUT, null);
+            }
+        }
+    }
+}
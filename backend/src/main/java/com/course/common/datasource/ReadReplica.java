@@ -0,0 +1,20 @@
+package com.course.common.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记方法中的查询可以读从库
+ * <p>
+ * 读从库只能通过此注解开启：方法不在事务中或在只读事务中时读从库，在读写事务中无效；
+ * 只有 {@code @Transactional(readOnly = true)} 而没有此注解的查询仍读主库。
+ * 从库数据可能有几秒延迟，不要用于写入后立即读取或回源写缓存的查询。
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+}
@@ -0,0 +1,28 @@
+package com.course.common.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 在 {@link ReadReplica} 方法执行期间标记当前线程可以读从库
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadReplicaAspect {
+
+    @Around("@annotation(com.course.common.datasource.ReadReplica) "
+        + "|| @within(com.course.common.datasource.ReadReplica)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReplicaRoutingContext.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.exit();
+        }
+    }
+}
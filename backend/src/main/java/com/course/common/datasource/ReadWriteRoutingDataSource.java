@@ -0,0 +1,87 @@
+package com.course.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离数据源
+ * <p>
+ * 只有 {@link ReadReplica} 方法中的查询使用从库，并且不能处在读写事务内（不在事务中或在只读事务中）；
+ * 其余一律使用主库，只读事务本身不会切到从库，读后回源写缓存之类的查询因此不会读到延迟的数据。
+ * 从库被 {@link ReplicaHealthChecker} 判定不可用或延迟过大、或获取连接失败时回退到主库。
+ * 需要包在 {@code LazyConnectionDataSourceProxy} 中使用，使事务的只读标记在第一次执行语句时已经生效。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealthChecker healthChecker;
+
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong replicaConnections = new AtomicLong();
+    private final AtomicLong fallbackConnections = new AtomicLong();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthChecker healthChecker) {
+        this.primary = primary;
+        this.replica = replica;
+        this.healthChecker = healthChecker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            primaryConnections.incrementAndGet();
+            return primary.getConnection();
+        }
+        if (!healthChecker.isAvailable()) {
+            fallbackConnections.incrementAndGet();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.incrementAndGet();
+            return connection;
+        } catch (SQLException e) {
+            log.warn("获取从库连接失败，回退到主库: {}", e.getMessage());
+            healthChecker.markUnavailable();
+            fallbackConnections.incrementAndGet();
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * 指定用户名和密码时总是使用主库，从库的账号与主库不一定相同
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryConnections.incrementAndGet();
+        return primary.getConnection(username, password);
+    }
+
+    private static boolean routeToReplica() {
+        if (!ReplicaRoutingContext.isReplicaPreferred()) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.get();
+    }
+
+    public long getFallbackConnections() {
+        return fallbackConnections.get();
+    }
+}
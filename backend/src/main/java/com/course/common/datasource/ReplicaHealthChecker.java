@@ -0,0 +1,105 @@
+package com.course.common.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定时检查从库是否可用以及复制延迟
+ * <p>
+ * 通过 SHOW SLAVE STATUS 读取 Seconds_Behind_Master（需要 REPLICATION CLIENT 权限）：
+ * 结果为空说明不是复制节点（如本地用作从库的独立库），视为无延迟；复制中断（值为 NULL）、延迟超限或查询失败时视为不可用。
+ * 启动后第一次检查完成前视为不可用。
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean available;
+    /** 最近一次检查到的复制延迟（秒），无法获取时为 -1 */
+    private volatile long lagSeconds = -1;
+
+    public ReplicaHealthChecker(DataSource replica, Duration maxLag, Duration checkInterval) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.getSeconds();
+        this.checkInterval = checkInterval;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    /**
+     * 获取连接失败时立即标记不可用，等下一次检查恢复
+     */
+    public void markUnavailable() {
+        available = false;
+    }
+
+    void check() {
+        boolean wasAvailable = available;
+        try (Connection connection = replica.getConnection()) {
+            lagSeconds = readLagSeconds(connection);
+            available = lagSeconds >= 0 && lagSeconds <= maxLagSeconds;
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            available = false;
+            if (wasAvailable) {
+                log.warn("从库检查失败: {}", e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = -1;
+            available = false;
+            log.error("从库检查异常", e);
+        }
+        if (available != wasAvailable) {
+            log.info("从库状态变化: {}, 复制延迟: {} 秒", available ? "可用" : "不可用，读请求回退到主库", lagSeconds);
+        }
+    }
+
+    /**
+     * 读取复制延迟，其他数据库或复制方式（如 MySQL 8 的 SHOW REPLICA STATUS）可以覆盖此方法
+     * @return 延迟秒数，复制中断时返回 -1
+     */
+    protected long readLagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW SLAVE STATUS")) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            long lag = resultSet.getLong("Seconds_Behind_Master");
+            return resultSet.wasNull() ? -1 : lag;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.course.common.datasource;
+
+/**
+ * 当前线程是否处于 {@link ReadReplica} 方法中，支持嵌套
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReplicaRoutingContext() {
+    }
+
+    static void enter() {
+        DEPTH.get()[0]++;
+    }
+
+    static void exit() {
+        int[] depth = DEPTH.get();
+        if (--depth[0] <= 0) {
+            DEPTH.remove();
+        }
+    }
+
+    public static boolean isReplicaPreferred() {
+        return DEPTH.get()[0] > 0;
+    }
+}
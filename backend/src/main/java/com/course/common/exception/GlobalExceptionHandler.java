@@ -4,7 +4,9 @@ import com.course.common.api.ApiResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -113,6 +115,17 @@ public class GlobalExceptionHandler {
         return ApiResult.error(401, e.getMessage());
     }
 
+    /**
+     * 处理请求过于频繁异常，不记录堆栈，避免攻击时日志暴涨
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResult<Void>> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过于频繁: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResult.error(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage()));
+    }
+
     /**
      * 处理权限不足异常
      */
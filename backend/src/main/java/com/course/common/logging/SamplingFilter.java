@@ -0,0 +1,105 @@
+package com.course.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 日志采样过滤器：指定前缀的日志分类中 DEBUG 及以下级别的日志每 rate 条只保留一条
+ * <p>
+ * 用于 SQL 和安全过滤器的跟踪日志，INFO 及以上级别不受影响。每个日志分类单独计数，
+ * 调用频繁的语句不会挤掉调用少的语句。MyBatis 的一条语句会输出 Preparing、Parameters、Total 等多行，
+ * 按语句而不是按行采样：在 Preparing 行决定是否保留，同一线程随后的各行沿用该决定。
+ * <p>
+ * 作为 TurboFilter 在分发到各个输出之前执行，控制台和文件保留的是同一批日志。在 logback-spring.xml 中配置：
+ * <pre>
+ * &lt;turboFilter class="com.course.common.logging.SamplingFilter"&gt;
+ *     &lt;prefix&gt;com.course.mapper&lt;/prefix&gt;
+ *     &lt;rate&gt;10&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingFilter extends TurboFilter {
+
+    /**
+     * MyBatis 语句日志行以 ==&gt; 或 &lt;== 开头（嵌套查询时等号更多），其后是 Preparing、Parameters、Total 等
+     */
+    private static final String STATEMENT_START = "Preparing:";
+
+    private final List<String> prefixes = new ArrayList<>();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程中各日志分类正在输出的语句是否保留
+     */
+    private final ThreadLocal<Map<String, Boolean>> statementDecisions = ThreadLocal.withInitial(HashMap::new);
+
+    private int rate = 1;
+
+    public void addPrefix(String prefix) {
+        prefixes.add(prefix.trim());
+    }
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format 为空时是 isDebugEnabled() 之类的级别判断，不计数
+        if (rate == 1 || format == null || level.isGreaterOrEqual(Level.INFO) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        String loggerName = logger.getName();
+        int body = statementBodyStart(format);
+        if (body > 0) {
+            if (format.startsWith(STATEMENT_START, body)) {
+                boolean keep = sample(loggerName);
+                statementDecisions.get().put(loggerName, keep);
+                return keep ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+            Boolean keep = statementDecisions.get().get(loggerName);
+            if (keep != null) {
+                return keep ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return sample(loggerName) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * @return MyBatis 语句日志行去掉箭头前缀后的起始位置，不是语句日志行时返回 0
+     */
+    private static int statementBodyStart(String format) {
+        if (!format.startsWith("==") && !format.startsWith("<==")) {
+            return 0;
+        }
+        int i = 0;
+        while (i < format.length() && "=<> ".indexOf(format.charAt(i)) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean sample(String loggerName) {
+        return counters.computeIfAbsent(loggerName, name -> new AtomicLong()).getAndIncrement() % rate == 0;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : prefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 请求隔离舱配置：按接口把上传、下载等阻塞型请求划分到独立的并发配额中
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 隔离舱名称 -> 配置；未匹配任何隔离舱的请求不受限制
+     */
+    private Map<String, Compartment> compartments = new LinkedHashMap<>();
+
+    @Data
+    public static class Compartment {
+
+        /**
+         * 同时处理的最大请求数
+         */
+        private int maxConcurrent = 20;
+
+        /**
+         * 最多排队等待的请求数，超出时立即拒绝
+         */
+        private int maxWaiting = 0;
+
+        /**
+         * 排队的最长等待时间
+         */
+        private Duration maxWait = Duration.ofMillis(500);
+
+        /**
+         * 匹配的接口，格式为 "方法 路径" 或只写路径（匹配任意方法），路径不含 context-path，支持 * 和 **
+         */
+        private List<String> patterns = new ArrayList<>();
+    }
+}
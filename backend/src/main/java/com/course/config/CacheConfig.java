@@ -1,39 +1,151 @@
 package com.course.config;
 
+import com.course.cache.CacheInvalidationBus;
+import com.course.cache.JdbcCacheInvalidationBus;
+import com.course.cache.LoopbackCacheInvalidationBus;
+import com.course.cache.NoOpSharedCacheStore;
+import com.course.cache.SharedCacheStore;
+import com.course.cache.TwoTierCache;
+import com.course.mapper.CacheInvalidationMapper;
+import com.course.service.support.CacheKeys;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
-import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * 缓存配置：每个缓存按 app.cache 中的配置单独构建
+ * <p>
+ * 每个缓存都是本地 Caffeine + 共享存储的两级缓存，本地缓存的失效通过消息总线广播到其他实例。
+ * 缓存不保存 null，查询结果为空（如记录不存在）时不会被缓存。
+ */
+@Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.MINUTES)
-                .initialCapacity(100)
-                .maximumSize(1000)
-                .recordStats();
+    @ConditionalOnMissingBean(SharedCacheStore.class)
+    public SharedCacheStore sharedCacheStore() {
+        return new NoOpSharedCacheStore();
     }
 
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(caffeine);
-        cacheManager.setCacheNames(Arrays.asList(
-            "userDetails",           // 用户详情缓存
-            "resourceCache",         // 资源缓存
-            "courseCache",           // 课程缓存
-            "assignmentCache",       // 作业缓存
-            "submissionCache"        // 提交缓存
-        ));
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "transport", havingValue = "jdbc")
+    public CacheInvalidationBus jdbcCacheInvalidationBus(CacheInvalidationMapper cacheInvalidationMapper,
+                                                         CacheProperties cacheProperties) {
+        CacheProperties.Invalidation invalidation = cacheProperties.getInvalidation();
+        return new JdbcCacheInvalidationBus(cacheInvalidationMapper, invalidation.getLookback(),
+            invalidation.getRetention(), invalidation.getBatchSize());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache.invalidation", name = "transport", havingValue = "loopback",
+        matchIfMissing = true)
+    public CacheInvalidationBus loopbackCacheInvalidationBus() {
+        return new LoopbackCacheInvalidationBus();
+    }
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties,
+                                     ObjectProvider<CacheRefreshLoader> refreshLoaders,
+                                     SharedCacheStore sharedCacheStore,
+                                     CacheInvalidationBus cacheInvalidationBus) {
+        String nodeId = StringUtils.hasText(cacheProperties.getInvalidation().getNodeId())
+            ? cacheProperties.getInvalidation().getNodeId()
+            : UUID.randomUUID().toString().replace("-", "");
+
+        Map<String, CacheRefreshLoader> loaders = refreshLoaders.orderedStream()
+            .collect(Collectors.toMap(CacheRefreshLoader::getCacheName, Function.identity()));
+
+        Set<String> cacheNames = new LinkedHashSet<>(CacheKeys.ALL_CACHES);
+        cacheNames.addAll(cacheProperties.getSpecs().keySet());
+
+        List<TwoTierCache> caches = new ArrayList<>(cacheNames.size());
+        for (String cacheName : cacheNames) {
+            CacheProperties.Spec spec = cacheProperties.resolve(cacheName);
+            Caffeine<Object, Object> builder = newBuilder(spec);
+            CacheRefreshLoader loader = loaders.get(cacheName);
+            CaffeineCache local;
+            if (loader != null) {
+                if (spec.getRefreshAfterWrite() != null) {
+                    builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+                }
+                LoadingCache<Object, Object> cache = builder.build(loader::load);
+                local = new CaffeineCache(cacheName, cache, false);
+            } else {
+                if (spec.getRefreshAfterWrite() != null) {
+                    log.warn("缓存 {} 未注册加载器，忽略 refreshAfterWrite 配置", cacheName);
+                }
+                local = new CaffeineCache(cacheName, builder.build(), false);
+            }
+            caches.add(new TwoTierCache(local, sharedCacheStore, cacheInvalidationBus, nodeId,
+                spec.getExpireAfterWrite()));
+            log.info("初始化缓存: {}, 配置: {}", cacheName, spec);
+        }
+
+        Map<String, TwoTierCache> cacheMap = caches.stream()
+            .collect(Collectors.toMap(Cache::getName, Function.identity()));
+        cacheInvalidationBus.subscribe(message -> {
+            TwoTierCache cache = cacheMap.get(message.getCacheName());
+            if (cache != null) {
+                cache.onInvalidation(message);
+            }
+        });
+        log.info("缓存实例ID: {}, 失效广播方式: {}", nodeId, cacheProperties.getInvalidation().getTransport());
+        // 只允许使用已配置的缓存
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
         return cacheManager;
     }
+
+    private Caffeine<Object, Object> newBuilder(CacheProperties.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (spec.getInitialCapacity() != null) {
+            builder.initialCapacity(spec.getInitialCapacity());
+        }
+        if (spec.getMaximumWeight() != null) {
+            builder.maximumWeight(spec.getMaximumWeight())
+                .weigher((key, value) -> weigh(value));
+        } else if (spec.getMaximumSize() != null) {
+            builder.maximumSize(spec.getMaximumSize());
+        }
+        if (spec.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(spec.getExpireAfterWrite());
+        }
+        if (spec.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(spec.getExpireAfterAccess());
+        }
+        return builder;
+    }
+
+    /**
+     * 列表类缓存值按元素个数计权重，单个对象计 1
+     */
+    private static int weigh(Object value) {
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection<?>) value).size());
+        }
+        return 1;
+    }
 }
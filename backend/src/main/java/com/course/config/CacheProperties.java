@@ -0,0 +1,104 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 缓存配置：每个缓存单独设置容量、过期和刷新策略，未配置的项使用 defaults
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * 默认配置
+     */
+    private Spec defaults = new Spec();
+
+    /**
+     * 按缓存名称的配置
+     */
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    /**
+     * 多实例之间的缓存失效广播
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * 合并缓存自身配置与默认配置
+     * @param cacheName 缓存名称
+     * @return 合并后的配置
+     */
+    public Spec resolve(String cacheName) {
+        Spec spec = specs.get(cacheName);
+        Spec resolved = new Spec();
+        resolved.setInitialCapacity(pick(spec == null ? null : spec.getInitialCapacity(), defaults.getInitialCapacity()));
+        resolved.setMaximumSize(pick(spec == null ? null : spec.getMaximumSize(), defaults.getMaximumSize()));
+        resolved.setMaximumWeight(pick(spec == null ? null : spec.getMaximumWeight(), defaults.getMaximumWeight()));
+        resolved.setExpireAfterWrite(pick(spec == null ? null : spec.getExpireAfterWrite(), defaults.getExpireAfterWrite()));
+        resolved.setExpireAfterAccess(pick(spec == null ? null : spec.getExpireAfterAccess(), defaults.getExpireAfterAccess()));
+        resolved.setRefreshAfterWrite(pick(spec == null ? null : spec.getRefreshAfterWrite(), defaults.getRefreshAfterWrite()));
+        return resolved;
+    }
+
+    private static <T> T pick(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+
+    @Data
+    public static class Invalidation {
+
+        /**
+         * 传输方式：loopback 只在本进程内广播（单实例），jdbc 通过数据库表轮询在实例之间广播
+         */
+        private String transport = "loopback";
+
+        /**
+         * 实例ID，为空时启动时随机生成
+         */
+        private String nodeId;
+
+        /**
+         * 每次轮询重新检查的时间窗口（毫秒），覆盖其他实例并发写入时自增ID的可见延迟
+         */
+        private long lookback = 10000;
+
+        /**
+         * 消息保留时长（毫秒）
+         */
+        private long retention = 600000;
+
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class Spec {
+        private Integer initialCapacity;
+
+        /**
+         * 最大条目数，与 maximumWeight 同时配置时以 maximumWeight 为准
+         */
+        private Long maximumSize;
+
+        /**
+         * 最大权重，集合类缓存值按元素个数计权重
+         */
+        private Long maximumWeight;
+
+        private Duration expireAfterWrite;
+
+        private Duration expireAfterAccess;
+
+        /**
+         * 写入后超过该时长的条目在下次访问时异步刷新，需要该缓存注册了 {@link CacheRefreshLoader}
+         */
+        private Duration refreshAfterWrite;
+    }
+}
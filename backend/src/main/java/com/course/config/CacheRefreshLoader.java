@@ -0,0 +1,21 @@
+package com.course.config;
+
+/**
+ * 缓存加载器，注册后对应缓存支持 refreshAfterWrite 异步刷新
+ * <p>
+ * 缓存未命中时也会先调用加载器，返回 null 表示该键不由加载器处理，继续执行被缓存的方法。
+ */
+public interface CacheRefreshLoader {
+
+    /**
+     * @return 负责的缓存名称
+     */
+    String getCacheName();
+
+    /**
+     * 加载缓存值
+     * @param key 缓存键
+     * @return 缓存值，不处理该键或数据不存在时返回 null
+     */
+    Object load(Object key);
+}
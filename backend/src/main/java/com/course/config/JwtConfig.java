@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "jwt")
@@ -12,4 +16,18 @@ public class JwtConfig {
     private long expiration;
     private String header;
     private String tokenPrefix;
+
+    /**
+     * 不经过 JWT 过滤器的路径（不含 context-path，PathPattern 语法）
+     */
+    private List<String> excludePaths = new ArrayList<>(Arrays.asList(
+            "/auth/login",
+            "/auth/register",
+            "/auth/refresh",
+            "/public/**",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/files/**",
+            "/error"
+    ));
 }
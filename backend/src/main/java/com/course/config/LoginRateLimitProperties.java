@@ -0,0 +1,67 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录限流配置（令牌桶）
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.login-rate-limit")
+public class LoginRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 按客户端 IP 限流；校园网出口 NAT 后整栋楼的用户共用一个 IP，上课前集中登录时也不能触发。
+     * 针对单个账号的猜测由用户名限流负责，IP 限流只约束同一来源对大量账号的撞库
+     */
+    private Bucket ip = new Bucket(600, 300);
+
+    /**
+     * 按用户名限流
+     */
+    private Bucket username = new Bucket(10, 5);
+
+    /**
+     * 每类限流最多保存的桶数，超出时淘汰最久未访问的
+     */
+    private long maxKeys = 100000;
+
+    /**
+     * 桶在该时长内未被访问则删除（此时已补满，删除不影响限流效果）
+     */
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    /**
+     * 应用前面可信反向代理的层数，客户端 IP 取 X-Forwarded-For 从右数第该数个地址；
+     * 0 表示不读取该头，直接使用连接的对端地址。头部左侧的地址由客户端自行填写，不可信
+     */
+    private int trustedProxies = 0;
+
+    @Data
+    public static class Bucket {
+
+        /**
+         * 桶容量（允许的突发次数）
+         */
+        private int capacity;
+
+        /**
+         * 每分钟补充的令牌数
+         */
+        private int refillPerMinute;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.course.config;
+
+import com.course.cache.TwoTierCache;
+import com.course.common.bulkhead.Bulkhead;
+import com.course.common.bulkhead.BulkheadRegistry;
+import com.course.security.LoginRateLimiter;
+import com.course.service.support.extract.ExtractionProgress;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 指标配置
+ * <p>
+ * 服务方法和 Mapper 语句的计时见 {@link com.course.metrics}；Hikari 连接池、JVM 和 HTTP 请求指标由 Spring Boot 自动注册。
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 两级缓存不是 CaffeineCache，需要单独注册，导出其本地 Caffeine 缓存的统计
+     */
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics((Cache<?, ?>) cache.getNativeCache(), cache.getName(), tags);
+    }
+
+    @Bean
+    public MeterBinder loginRateLimiterMetrics(LoginRateLimiter loginRateLimiter) {
+        return registry -> {
+            FunctionCounter.builder("app.login.rate.limit", loginRateLimiter, limiter -> limiter.getStats().getAllowed())
+                .tag("result", "allowed")
+                .register(registry);
+            FunctionCounter.builder("app.login.rate.limit", loginRateLimiter, limiter -> limiter.getStats().getRejectedByIp())
+                .tag("result", "rejected_ip")
+                .register(registry);
+            FunctionCounter.builder("app.login.rate.limit", loginRateLimiter,
+                    limiter -> limiter.getStats().getRejectedByUsername())
+                .tag("result", "rejected_username")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            for (Bulkhead bulkhead : bulkheadRegistry.getAll()) {
+                Gauge.builder("app.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                Gauge.builder("app.bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                Gauge.builder("app.bulkhead.max", bulkhead, Bulkhead::getMaxConcurrent)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+                FunctionCounter.builder("app.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("bulkhead", bulkhead.getName())
+                    .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder extractionMetrics(ExtractionProgress progress) {
+        return registry -> {
+            Gauge.builder("app.extraction.pending", progress.getPendingBacklog(), AtomicLong::get)
+                .description("数据库中待提取的资源数")
+                .register(registry);
+            Gauge.builder("app.extraction.queued", progress, ExtractionProgress::getQueuedTasks)
+                .register(registry);
+            Gauge.builder("app.extraction.active", progress, ExtractionProgress::getActiveWorkers)
+                .register(registry);
+            registerExtractionResult(registry, "completed", progress.getCompleted());
+            registerExtractionResult(registry, "failed", progress.getFailed());
+            registerExtractionResult(registry, "skipped", progress.getSkipped());
+            registerExtractionResult(registry, "rejected", progress.getRejected());
+            FunctionCounter.builder("app.extraction.truncated", progress,
+                    p -> p.getTruncated().get() - p.getTimedOut().get())
+                .tag("reason", "max_chars")
+                .register(registry);
+            FunctionCounter.builder("app.extraction.truncated", progress.getTimedOut(), AtomicLong::get)
+                .tag("reason", "timeout")
+                .register(registry);
+            FunctionCounter.builder("app.extraction.chars", progress.getExtractedChars(), AtomicLong::get)
+                .register(registry);
+            FunctionTimer.builder("app.extraction.duration", progress, ExtractionProgress::getProcessed,
+                    p -> p.getTotalMillis().get(), TimeUnit.MILLISECONDS)
+                .register(registry);
+        };
+    }
+
+    private void registerExtractionResult(MeterRegistry registry, String result, AtomicLong counter) {
+        FunctionCounter.builder("app.extraction.tasks", counter, AtomicLong::get)
+            .tag("result", result)
+            .register(registry);
+    }
+}
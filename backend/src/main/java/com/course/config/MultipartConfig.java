@@ -33,6 +33,9 @@ public class MultipartConfig {
 
     @Bean
     public MultipartResolver multipartResolver() {
-        return new StandardServletMultipartResolver();
+        StandardServletMultipartResolver resolver = new StandardServletMultipartResolver();
+        // 延迟到首次访问文件参数时再解析，流式上传接口可以直接读取原始请求体
+        resolver.setResolveLazily(true);
+        return resolver;
     }
 }
@@ -0,0 +1,43 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.password")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt 强度（log2 轮数），为空时启动时按 targetMillis 校准
+     */
+    private Integer strength;
+
+    /**
+     * 校准目标：单次哈希耗时（毫秒）
+     */
+    private long targetMillis = 100;
+
+    private int minStrength = 10;
+
+    private int maxStrength = 14;
+
+    /**
+     * 哈希计算线程数，为空时等于 CPU 核数
+     */
+    private Integer workers;
+
+    /**
+     * 等待计算的请求数上限，超出时直接拒绝
+     */
+    private int queueCapacity = 200;
+
+    /**
+     * 单次校验最长等待时间（毫秒），包括排队时间
+     */
+    private long timeout = 5000;
+}
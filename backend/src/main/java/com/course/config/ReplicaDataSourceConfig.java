@@ -0,0 +1,93 @@
+package com.course.config;
+
+import com.course.common.datasource.ReadWriteRoutingDataSource;
+import com.course.common.datasource.ReplicaHealthChecker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 读写分离数据源配置，app.datasource.replica.enabled=true 时生效
+ * <p>
+ * 主库沿用 spring.datasource 配置，从库使用 app.datasource.replica 配置；两个连接池都是独立的 Bean，
+ * 连接池指标按池名称分别导出。对外的 DataSource 是包在 LazyConnectionDataSourceProxy 中的路由数据源。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(properties.getUrl());
+        dataSource.setUsername(properties.getUsername());
+        dataSource.setPassword(properties.getPassword());
+        dataSource.setDriverClassName(properties.getDriverClassName());
+        // 从库不可用时不能阻止应用启动
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReplicaHealthChecker replicaHealthChecker(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                                     ReplicaDataSourceProperties properties) {
+        return new ReplicaHealthChecker(replicaDataSource, properties.getMaxLag(), properties.getCheckInterval());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaHealthChecker replicaHealthChecker) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, replicaHealthChecker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public MeterBinder readWriteRoutingMetrics(ReadWriteRoutingDataSource routingDataSource,
+                                               ReplicaHealthChecker replicaHealthChecker) {
+        return registry -> {
+            FunctionCounter.builder("app.datasource.route", routingDataSource,
+                    ReadWriteRoutingDataSource::getPrimaryConnections)
+                .tag("target", "primary")
+                .register(registry);
+            FunctionCounter.builder("app.datasource.route", routingDataSource,
+                    ReadWriteRoutingDataSource::getReplicaConnections)
+                .tag("target", "replica")
+                .register(registry);
+            FunctionCounter.builder("app.datasource.route", routingDataSource,
+                    ReadWriteRoutingDataSource::getFallbackConnections)
+                .tag("target", "fallback")
+                .register(registry);
+            Gauge.builder("app.datasource.replica.available", replicaHealthChecker,
+                    checker -> checker.isAvailable() ? 1 : 0)
+                .register(registry);
+            Gauge.builder("app.datasource.replica.lag", replicaHealthChecker, ReplicaHealthChecker::getLagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        };
+    }
+}
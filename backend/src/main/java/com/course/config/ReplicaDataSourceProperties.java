@@ -0,0 +1,39 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 只读从库配置；连接池参数在 app.datasource.replica.hikari 下配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /**
+     * 是否启用读写分离，关闭时所有查询都使用 spring.datasource 主库
+     */
+    private boolean enabled = false;
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName = "com.mysql.cj.jdbc.Driver";
+
+    /**
+     * 允许的最大复制延迟，超出时读请求回退到主库
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * 从库可用性和复制延迟的检查间隔
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+}
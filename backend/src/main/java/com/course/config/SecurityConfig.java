@@ -1,9 +1,12 @@
 package com.course.config;
 
+import com.course.security.AdaptivePasswordEncoder;
 import com.course.security.JwtAuthenticationFilter;
 import com.course.security.JwtTokenUtil;
+import com.course.security.UserStateCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,8 +18,8 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,6 +28,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -36,10 +40,21 @@ public class SecurityConfig {
     private final CorsConfig corsConfig;
     private final JwtTokenUtil jwtTokenUtil;
     private final ObjectMapper objectMapper;
+    private final UserStateCache userStateCache;
+    private final JwtConfig jwtConfig;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final PasswordHashingProperties passwordHashingProperties;
+
+    /**
+     * 允许不登录抓取 Prometheus 指标的地址（IP 或网段）
+     */
+    @Value("${app.metrics.scrape-allowed-addresses:127.0.0.1,::1}")
+    private List<String> scrapeAllowedAddresses;
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtTokenUtil, userDetailsService, objectMapper);
+        return new JwtAuthenticationFilter(jwtTokenUtil, userDetailsService, objectMapper, userStateCache,
+                jwtConfig.getExcludePaths());
     }
 
     @Bean
@@ -57,6 +72,10 @@ public class SecurityConfig {
                 .antMatchers("/auth/login", "/auth/register").permitAll()
                 .antMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .antMatchers("/files/**").permitAll()
+                // 监控端点
+                .antMatchers("/actuator/health").permitAll()
+                .antMatchers("/actuator/prometheus").access(prometheusAccess())
+                .antMatchers("/actuator/**").hasRole("ADMIN")
                 // 只读接口
                 .antMatchers(HttpMethod.GET, "/courses/**", "/resources/**", "/dashboard/**").permitAll()
                 // 教师接口
@@ -74,6 +93,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private String prometheusAccess() {
+        StringBuilder expression = new StringBuilder("hasRole('ADMIN')");
+        for (String address : scrapeAllowedAddresses) {
+            expression.append(" or hasIpAddress('").append(address.trim()).append("')");
+        }
+        return expression.toString();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -92,6 +119,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // 登录成功后自动升级明文或低强度的密码哈希
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -102,6 +131,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return NoOpPasswordEncoder.getInstance();
+        return new AdaptivePasswordEncoder(passwordHashingProperties);
     }
 }
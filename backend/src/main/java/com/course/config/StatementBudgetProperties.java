@@ -0,0 +1,48 @@
+package com.course.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 单个请求的 SQL 语句预算：语句数、数据库总耗时和单条慢语句阈值
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.statement-budget")
+public class StatementBudgetProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 单个请求的最大语句数，超出时记录警告
+     */
+    private int maxStatements = 50;
+
+    /**
+     * 单个请求的最大数据库总耗时
+     */
+    private Duration maxDbTime = Duration.ofMillis(500);
+
+    /**
+     * 单条语句超过该耗时记为慢语句，无论是否在请求中执行
+     */
+    private Duration slowStatement = Duration.ofMillis(200);
+
+    /**
+     * 同一语句在一个请求中重复执行达到该次数视为 N+1 查询
+     */
+    private int repeatThreshold = 10;
+
+    /**
+     * 超出预算时日志中列出的最慢语句数
+     */
+    private int topStatements = 5;
+
+    /**
+     * 是否在响应头中返回语句数和数据库耗时，只应在开发环境开启
+     */
+    private boolean exposeHeader = false;
+}
@@ -4,18 +4,22 @@ import com.course.common.api.ApiResult;
 import com.course.dto.LoginDTO;
 import com.course.dto.UserDTO;
 import com.course.entity.User;
+import com.course.security.LoginRateLimiter;
 import com.course.service.UserService;
+import com.course.vo.LoginRateLimitStatsVO;
 import com.course.vo.UserVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,11 +31,14 @@ import java.util.Map;
 public class AuthController {
 
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @PostMapping("/login")
     @Operation(summary = "用户登录", description = "用户登录并获取认证token")
-    public ApiResult<Map<String, Object>> login(@Validated @RequestBody LoginDTO loginDTO) {
+    public ApiResult<Map<String, Object>> login(@Validated @RequestBody LoginDTO loginDTO, HttpServletRequest request) {
         log.info("用户登录请求: {}", loginDTO.getUsername());
+        // 限流在访问数据库之前执行，超出时由全局异常处理返回 429
+        loginRateLimiter.acquire(request, loginDTO.getUsername());
         try {
             String token = userService.login(loginDTO);
             User user = userService.findByUsername(loginDTO.getUsername());
@@ -51,6 +58,13 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/rate-limit/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "获取登录限流统计", description = "本实例放行和拒绝的登录请求数")
+    public ApiResult<LoginRateLimitStatsVO> getRateLimitStats() {
+        return ApiResult.success(loginRateLimiter.getStats());
+    }
+
     @PostMapping("/register")
     @Operation(summary = "用户注册", description = "新用户注册")
     public ApiResult<Void> register(@Validated @RequestBody UserDTO userDTO) {
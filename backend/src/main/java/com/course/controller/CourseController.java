@@ -2,12 +2,15 @@ package com.course.controller;
 
 import com.course.common.annotation.RequireRole;
 import com.course.common.api.ApiResult;
+import com.course.dto.BulkEnrollmentDTO;
 import com.course.dto.CourseDTO;
 import com.course.entity.Course;
 import com.course.entity.User;
 import com.course.security.UserDetailsImpl;
 import com.course.service.CourseService;
+import com.course.service.CourseStatsService;
 import com.course.vo.CourseVO;
+import com.course.vo.EnrollmentResultVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -29,6 +32,7 @@ import java.util.stream.Collectors;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseStatsService courseStatsService;
 
     @PostMapping
     @RequireRole("ADMIN")
@@ -189,6 +193,16 @@ public class CourseController {
         return ApiResult.success();
     }
     
+    /**
+     * 按班级批量添加学生到多门课程
+     */
+    @PostMapping("/students/bulk-enroll")
+    @RequireRole("TEACHER")
+    @Operation(summary = "按班级批量选课", description = "把多个班级的学生批量加入多门课程，返回每门课程的新增数和跳过数")
+    public ApiResult<List<EnrollmentResultVO>> enrollClasses(@Validated @RequestBody BulkEnrollmentDTO request) {
+        return ApiResult.success(courseService.enrollClasses(request.getCourseIds(), request.getClassnames()));
+    }
+
     /**
      * 添加单个学生到课程
      */
@@ -249,6 +263,16 @@ public class CourseController {
         return ApiResult.success(courseService.isStudentEnrolledInCourse(studentId, courseId));
     }
     
+    /**
+     * 重建课程统计数据
+     */
+    @PostMapping("/stats/rebuild")
+    @RequireRole("ADMIN")
+    @Operation(summary = "重建课程统计", description = "按选课、资源、作业数据重新计算所有课程的统计数据")
+    public ApiResult<Integer> rebuildCourseStats() {
+        return ApiResult.success(courseStatsService.rebuild());
+    }
+
     // 班级请求参数类
     static class ClassRequest {
         private String classname;
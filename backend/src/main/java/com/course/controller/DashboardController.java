@@ -2,17 +2,24 @@ package com.course.controller;
 
 import com.course.common.api.ApiResult;
 import com.course.service.DashboardService;
+import com.course.service.DashboardStatsService;
 import com.course.vo.AssignmentVO;
+import com.course.vo.DashboardStatsVO;
 import com.course.vo.ResourceVO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -22,7 +29,10 @@ import java.util.Map;
 @Tag(name = "仪表盘接口", description = "获取仪表盘统计数据和最近活动")
 public class DashboardController {
 
+    private static final int DEFAULT_MONTHS = 6;
+
     private final DashboardService dashboardService;
+    private final DashboardStatsService dashboardStatsService;
 
     @GetMapping("/stats")
     @Operation(summary = "获取统计数据", description = "获取课程、资源、作业的统计数据")
@@ -79,15 +89,19 @@ public class DashboardController {
     }
     
     @GetMapping("/dashboard/monthly-stats")
-    @Operation(summary = "获取月度统计数据", description = "获取最近6个月的资源和作业统计数据")
+    @Operation(summary = "获取月度统计数据", description = "获取指定月份区间（yyyy-MM）的资源和作业统计数据，未指定时为最近6个月")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "获取成功"),
         @ApiResponse(responseCode = "401", description = "未授权")
     })
-    public ApiResult<Map<String, List<?>>> getMonthlyStats() {
-        log.debug("Received request for monthly stats");
+    public ApiResult<Map<String, List<?>>> getMonthlyStats(
+            @RequestParam(required = false) @Parameter(description = "起始月份 yyyy-MM") String from,
+            @RequestParam(required = false) @Parameter(description = "结束月份 yyyy-MM") String to) {
+        log.debug("Received request for monthly stats, from: {}, to: {}", from, to);
         try {
-            Map<String, List<?>> monthlyStats = dashboardService.getMonthlyStats();
+            Map<String, List<?>> monthlyStats = from == null && to == null
+                ? dashboardService.getMonthlyStats()
+                : dashboardService.getMonthlyStats(parseFrom(from, to), parseTo(to));
             log.debug("Retrieved monthly stats: {}", monthlyStats);
             return ApiResult.success(monthlyStats);
         } catch (Exception e) {
@@ -95,4 +109,37 @@ public class DashboardController {
             return ApiResult.error(e.getMessage());
         }
     }
+
+    @GetMapping("/dashboard/summary")
+    @Operation(summary = "获取仪表盘统计", description = "一次返回课程、资源、作业总数和指定月份区间（yyyy-MM）的每月新增数，未指定时为最近6个月")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "获取成功"),
+        @ApiResponse(responseCode = "401", description = "未授权")
+    })
+    public ApiResult<DashboardStatsVO> getSummary(
+            @RequestParam(required = false) @Parameter(description = "起始月份 yyyy-MM") String from,
+            @RequestParam(required = false) @Parameter(description = "结束月份 yyyy-MM") String to) {
+        try {
+            return ApiResult.success(dashboardService.getSummary(parseFrom(from, to), parseTo(to)));
+        } catch (Exception e) {
+            log.error("Error getting dashboard summary", e);
+            return ApiResult.error(e.getMessage());
+        }
+    }
+
+    @PostMapping("/dashboard/stats/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建仪表盘统计", description = "按课程、资源、作业数据重新计算统计快照")
+    public ApiResult<Integer> rebuildStats() {
+        log.info("开始重建仪表盘统计");
+        return ApiResult.success(dashboardStatsService.rebuild());
+    }
+
+    private YearMonth parseTo(String to) {
+        return to == null ? YearMonth.now() : YearMonth.parse(to);
+    }
+
+    private YearMonth parseFrom(String from, String to) {
+        return from == null ? parseTo(to).minusMonths(DEFAULT_MONTHS - 1) : YearMonth.parse(from);
+    }
 }
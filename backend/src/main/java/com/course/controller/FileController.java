@@ -1,7 +1,12 @@
 package com.course.controller;
 
 import com.course.common.ApiResult;
+import com.course.service.FileBlobService;
 import com.course.service.FileService;
+import com.course.service.support.MultipartStreamReader;
+import com.course.service.support.StoredFile;
+import com.course.vo.StorageMigrationVO;
+import com.course.vo.StorageStatsVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +20,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
@@ -28,6 +34,8 @@ import java.nio.file.Paths;
 public class FileController {
 
     private final FileService fileService;
+    private final FileBlobService fileBlobService;
+    private final MultipartStreamReader multipartStreamReader;
 
     @PostMapping("/upload")
     @Operation(summary = "上传文件")
@@ -47,6 +55,19 @@ public class FileController {
         }
     }
 
+    @PostMapping("/upload/stream")
+    @Operation(summary = "流式上传文件")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<String> uploadFileStream(HttpServletRequest request) {
+        try {
+            StoredFile storedFile = multipartStreamReader.read(request, "file").getFile();
+            return ApiResult.success(fileService.getFileUrl(storedFile.getFilePath()));
+        } catch (IOException | RuntimeException e) {
+            log.error("文件上传失败", e);
+            return ApiResult.error("文件上传失败：" + e.getMessage());
+        }
+    }
+
     @GetMapping("/download/{filename:.+}")
     @Operation(summary = "下载文件")
     @PreAuthorize("isAuthenticated()")
@@ -68,4 +89,19 @@ public class FileController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/storage/stats")
+    @Operation(summary = "获取存储去重统计")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<StorageStatsVO> getStorageStats() {
+        return ApiResult.success(fileBlobService.getStats());
+    }
+
+    @PostMapping("/storage/migrate")
+    @Operation(summary = "迁移已有文件到内容寻址存储")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResult<StorageMigrationVO> migrateStorage() {
+        log.info("开始迁移已有文件到内容寻址存储");
+        return ApiResult.success(fileBlobService.migrateExistingFiles());
+    }
 }
@@ -3,7 +3,10 @@ package com.course.controller;
 import com.course.common.api.ApiResult;
 import com.course.entity.User;
 import com.course.mapper.UserMapper;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,19 +21,25 @@ public class PasswordController {
 
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidator cacheInvalidator;
 
+    /**
+     * 把仍为明文的密码全部改写为哈希；未登录的用户也会被处理，已是哈希（带 {id} 前缀）的记录跳过
+     */
     @PostMapping("/encrypt-all")
+    @PreAuthorize("hasRole('ADMIN')")
     public ApiResult<String> encryptAllPasswords() {
         List<User> users = userMapper.selectList(null);
+        int encrypted = 0;
         for (User user : users) {
-            // 假设当前密码是明文
             String rawPassword = user.getPassword();
-            // 加密密码
-            String encodedPassword = passwordEncoder.encode(rawPassword);
-            // 更新用户密码
-            user.setPassword(encodedPassword);
-            userMapper.updateById(user);
+            if (rawPassword == null || rawPassword.startsWith("{")) {
+                continue;
+            }
+            userMapper.updatePasswordByUsername(user.getUsername(), passwordEncoder.encode(rawPassword));
+            cacheInvalidator.evict(CacheKeys.USER_DETAILS_CACHE, user.getUsername());
+            encrypted++;
         }
-        return ApiResult.success("所有用户密码已加密");
+        return ApiResult.success("已加密 " + encrypted + " 个明文密码");
     }
 }
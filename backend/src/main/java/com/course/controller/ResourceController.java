@@ -8,14 +8,24 @@ import com.course.common.exception.ResourceNotFoundException;
 import com.course.common.exception.FileOperationException;
 import com.course.common.exception.UnauthorizedException;
 import com.course.dto.ResourceDTO;
+import com.course.dto.ResourceQueryDTO;
 import com.course.entity.Course;
 import com.course.entity.Resource;
 import com.course.entity.User;
 import com.course.security.SecurityUtils;
+import com.course.service.ContentExtractionService;
 import com.course.service.CourseService;
+import com.course.service.FileService;
+import com.course.service.ResourceSearchService;
 import com.course.service.ResourceService;
+import com.course.service.UploadSessionService;
 import com.course.service.UserService;
+import com.course.service.support.MultipartStreamReader;
+import com.course.service.support.RangeFileSender;
+import com.course.service.support.StoredFile;
 import com.course.vo.CourseVO;
+import com.course.vo.CursorPageVO;
+import com.course.vo.ExtractionStatsVO;
 import com.course.vo.ResourceVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -26,15 +36,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.ClientAbortException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.util.StringUtils;
@@ -42,10 +50,9 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -59,7 +66,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 @RequestMapping("/resource")
 @Tag(name = "资源管理", description = "资源管理相关接口")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {
-    RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, 
+    RequestMethod.GET, RequestMethod.HEAD, RequestMethod.POST, RequestMethod.PUT,
     RequestMethod.DELETE, RequestMethod.OPTIONS
 })
 @RequiredArgsConstructor
@@ -70,6 +77,12 @@ public class ResourceController {
     private final CourseService courseService;
     private final UserService userService;
     private final ResourceLoader resourceLoader;
+    private final RangeFileSender rangeFileSender;
+    private final MultipartStreamReader multipartStreamReader;
+    private final FileService fileService;
+    private final UploadSessionService uploadSessionService;
+    private final ResourceSearchService resourceSearchService;
+    private final ContentExtractionService contentExtractionService;
 
     @Value("${file.upload.base-path}")
     private String uploadDir;
@@ -119,17 +132,88 @@ public class ResourceController {
         }
     }
 
+    @PostMapping("/stream")
+    @RequireRole({"TEACHER", "ADMIN", "STUDENT"})
+    @Operation(summary = "流式上传资源", description = "直接解析 multipart 请求体，文件一次写入最终存储位置，同时完成大小限制、类型嗅探和摘要计算")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "上传成功"),
+        @ApiResponse(responseCode = "401", description = "未授权"),
+        @ApiResponse(responseCode = "403", description = "无权限")
+    })
+    public ApiResult<Resource> uploadResourceStream(HttpServletRequest request) {
+        StoredFile storedFile = null;
+        try {
+            Long currentUserId = getCurrentUserId();
+            MultipartStreamReader.StreamingUpload upload = multipartStreamReader.read(request, "file");
+            storedFile = upload.getFile();
+            log.info("流式上传文件已保存: {}, 大小: {}", storedFile.getOriginalFilename(), storedFile.getSize());
+
+            ResourceDTO resourceDTO = new ResourceDTO();
+            resourceDTO.setName(upload.getField("name"));
+            resourceDTO.setDescription(upload.getField("description"));
+            String courseId = upload.getField("courseId");
+            resourceDTO.setCourseId(StringUtils.hasText(courseId) ? Long.valueOf(courseId.trim()) : null);
+
+            Resource resource = resourceService.uploadResource(resourceDTO, storedFile, currentUserId);
+            log.info("资源文件上传成功: {}", resourceDTO.getName());
+            return ApiResult.success(resource);
+        } catch (Exception e) {
+            log.error("资源文件流式上传失败", e);
+            if (storedFile != null) {
+                fileService.deleteFile(storedFile.getFilePath());
+            }
+            return ApiResult.error("资源文件上传失败: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/session/{sessionId}")
+    @RequireRole({"TEACHER", "ADMIN", "STUDENT"})
+    @Operation(summary = "通过分片上传创建资源", description = "合并分片上传会话中的文件并创建资源记录")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "上传成功"),
+        @ApiResponse(responseCode = "401", description = "未授权"),
+        @ApiResponse(responseCode = "403", description = "无权限")
+    })
+    public ApiResult<Resource> uploadResourceFromSession(@PathVariable String sessionId,
+                                                        @RequestParam("name") String name,
+                                                        @RequestParam(value = "description", required = false) String description,
+                                                        @RequestParam("courseId") Long courseId) {
+        StoredFile storedFile = null;
+        try {
+            Long currentUserId = getCurrentUserId();
+            storedFile = uploadSessionService.completeSession(sessionId, currentUserId);
+
+            ResourceDTO resourceDTO = new ResourceDTO();
+            resourceDTO.setName(name);
+            resourceDTO.setDescription(description);
+            resourceDTO.setCourseId(courseId);
+
+            Resource resource = resourceService.uploadResource(resourceDTO, storedFile, currentUserId);
+            log.info("分片上传资源创建成功: {}", name);
+            return ApiResult.success(resource);
+        } catch (Exception e) {
+            log.error("分片上传资源创建失败", e);
+            if (storedFile != null) {
+                fileService.deleteFile(storedFile.getFilePath());
+            }
+            return ApiResult.error("资源文件上传失败: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}/download")
-    @Operation(summary = "下载资源", description = "根据资源ID下载资源文件")
+    @Operation(summary = "下载资源", description = "根据资源ID下载资源文件，支持 Range 断点续传和 ETag 条件请求")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "下载成功"),
+        @ApiResponse(responseCode = "206", description = "返回部分内容"),
+        @ApiResponse(responseCode = "304", description = "文件未修改"),
         @ApiResponse(responseCode = "404", description = "资源不存在"),
+        @ApiResponse(responseCode = "416", description = "请求范围无效"),
         @ApiResponse(responseCode = "500", description = "下载失败")
     })
-    public ResponseEntity<org.springframework.core.io.Resource> downloadResource(@PathVariable Long id) {
+    public void downloadResource(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) {
         try {
             log.info("开始下载资源, 资源ID: {}", id);
-            Resource resource = resourceService.downloadResource(id);
+            Resource resource = resourceService.getResourceById(id);
             if (resource == null) {
                 log.error("资源不存在, 资源ID: {}", id);
                 throw new ResourceNotFoundException("Resource", "id", id);
@@ -142,34 +226,28 @@ public class ResourceController {
                 throw new FileOperationException("资源文件路径为空");
             }
 
-            // 读取文件
             Path path = Paths.get(filePath);
-            if (!Files.exists(path)) {
+            if (!Files.isRegularFile(path)) {
                 log.error("资源文件不存在, 路径: {}", filePath);
                 throw new FileOperationException("资源文件不存在");
             }
 
-            // 创建文件资源
-            org.springframework.core.io.Resource fileResource = new FileSystemResource(filePath);
-
-            // 设置响应头
-            String fileName = resource.getFileName();
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                .replaceAll("\\+", "%20");
-
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .header(HttpHeaders.CONTENT_DISPOSITION, 
-                    "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName)
-                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.CONTENT_DISPOSITION)
-                .body(fileResource);
-
+            String etag = rangeFileSender.buildEtag(String.valueOf(resource.getId()),
+                Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            boolean freshDownload = rangeFileSender.send(request, response, path, resource.getFileName(), etag);
+            // 304、HEAD 以及续传请求不计入下载次数
+            if (freshDownload) {
+                resourceService.incrementDownloadCount(id);
+            }
         } catch (ResourceNotFoundException e) {
             log.error("资源不存在", e);
             throw e;
         } catch (FileOperationException e) {
             log.error("文件操作失败", e);
             throw e;
+        } catch (ClientAbortException e) {
+            // 客户端取消下载或断开连接，响应已提交，不再返回错误
+            log.debug("客户端中断下载, 资源ID: {}", id);
         } catch (Exception e) {
             log.error("下载资源失败", e);
             throw new FileOperationException("下载资源失败: " + e.getMessage());
@@ -243,6 +321,55 @@ public class ResourceController {
         }
     }
 
+    @GetMapping("/page")
+    @RequireRole({"ADMIN", "TEACHER", "STUDENT"})
+    @Operation(summary = "游标分页获取资源列表", description = "按创建时间倒序分页，可按课程、类型、上传者过滤；翻页时传入上一页返回的 nextCursor")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "获取成功"),
+        @ApiResponse(responseCode = "401", description = "未授权")
+    })
+    public ApiResult<CursorPageVO<ResourceVO>> pageResources(ResourceQueryDTO query) {
+        return ApiResult.success(toVOPage(resourceService.pageResources(query)));
+    }
+
+    @GetMapping("/search")
+    @RequireRole({"ADMIN", "TEACHER", "STUDENT"})
+    @Operation(summary = "搜索资源", description = "按名称、文件名、描述和文档内容全文搜索资源，结果按相关度排序分页返回；"
+        + "每页最多 100 条，只能翻到前 1000 条，total 为全部命中数")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "搜索成功"),
+        @ApiResponse(responseCode = "401", description = "未授权")
+    })
+    public ApiResult<IPage<ResourceVO>> searchResources(@RequestParam String keyword,
+                                                        @RequestParam(required = false) Long courseId,
+                                                        @RequestParam(defaultValue = "1") Integer page,
+                                                        @RequestParam(defaultValue = "20") Integer size) {
+        return ApiResult.success(resourceSearchService.search(keyword, courseId, page, size).convert(this::convertToVO));
+    }
+
+    @PostMapping("/search/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "重建资源搜索索引")
+    public ApiResult<Integer> rebuildSearchIndex() {
+        log.info("开始重建资源搜索索引");
+        return ApiResult.success(resourceSearchService.rebuild());
+    }
+
+    @GetMapping("/extraction/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "获取文档文本提取进度")
+    public ApiResult<ExtractionStatsVO> getExtractionStats() {
+        return ApiResult.success(contentExtractionService.getStats());
+    }
+
+    @PostMapping("/extraction/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "为已有资源补提取文档文本")
+    public ApiResult<Integer> backfillExtraction() {
+        log.info("开始补登记待提取文本的资源");
+        return ApiResult.success(contentExtractionService.backfill());
+    }
+
     @GetMapping("/course/{courseId}")
     @RequireRole({"ADMIN", "TEACHER", "STUDENT"})
     @Operation(summary = "获取课程资源列表", description = "获取指定课程ID的资源列表")
@@ -254,6 +381,23 @@ public class ResourceController {
         return ApiResult.success(resourceService.getCourseResources(courseId));
     }
 
+    @GetMapping("/course/{courseId}/page")
+    @RequireRole({"ADMIN", "TEACHER", "STUDENT"})
+    @Operation(summary = "游标分页获取课程资源列表", description = "按创建时间倒序分页获取指定课程的资源")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "获取成功"),
+        @ApiResponse(responseCode = "401", description = "未授权")
+    })
+    public ApiResult<CursorPageVO<ResourceVO>> pageCourseResources(@PathVariable Long courseId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        ResourceQueryDTO query = new ResourceQueryDTO();
+        query.setCourseId(courseId);
+        query.setCursor(cursor);
+        query.setSize(size);
+        return ApiResult.success(toVOPage(resourceService.pageResources(query)));
+    }
+
     @PutMapping("/{id}")
     @RequireRole("TEACHER")
     @CheckResourceOwner
@@ -276,6 +420,11 @@ public class ResourceController {
         }
     }
 
+    private CursorPageVO<ResourceVO> toVOPage(CursorPageVO<Resource> page) {
+        List<ResourceVO> records = page.getRecords().stream().map(this::convertToVO).collect(Collectors.toList());
+        return new CursorPageVO<>(records, page.getNextCursor(), page.isHasMore());
+    }
+
     private ResourceVO convertToVO(Resource resource) {
         if (resource == null) {
             return null;
@@ -26,7 +26,6 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -57,34 +56,8 @@ public class StudentAssignmentController {
             return ApiResult.error("无权查看其他学生的作业");
         }
 
-        List<Assignment> assignments = assignmentService.getAssignmentsByStudentId(studentId);
-        List<AssignmentVO> assignmentVOs = assignments.stream().map(assignment -> {
-            AssignmentVO vo = new AssignmentVO();
-            BeanUtils.copyProperties(assignment, vo);
-            
-            // 确保课程名称被设置
-            if (assignment.getCourseName() == null) {
-                vo.setCourseName(courseService.getCourseById(assignment.getCourseId()).getName());
-            } else {
-                vo.setCourseName(assignment.getCourseName());
-            }
-            
-            // 获取该学生对这个作业的提交记录
-            HomeworkSubmission submission = submissionService.getSubmissionByAssignmentAndStudent(assignment.getId(), studentId);
-            if (submission != null) {
-                vo.setSubmissionStatus(submission.getStatus());
-                vo.setSubmissionId(submission.getId());
-                vo.setSubmissionTime(submission.getSubmitTime());
-                vo.setScore(submission.getScore());
-            } else {
-                vo.setSubmissionStatus(SubmissionStatus.NOT_SUBMITTED);
-                vo.setSubmissionId(null);
-                vo.setSubmissionTime(null);
-                vo.setScore(null);
-            }
-            
-            return vo;
-        }).collect(Collectors.toList());
+        // 作业信息与该学生的最新提交状态由一条查询返回
+        List<AssignmentVO> assignmentVOs = assignmentService.getStudentAssignmentBoard(studentId);
 
         return ApiResult.success(assignmentVOs);
     }
@@ -0,0 +1,87 @@
+package com.course.controller;
+
+import com.course.common.ApiResult;
+import com.course.common.exception.UnauthorizedException;
+import com.course.dto.UploadSessionDTO;
+import com.course.security.SecurityUtils;
+import com.course.service.FileService;
+import com.course.service.UploadSessionService;
+import com.course.service.support.StoredFile;
+import com.course.vo.UploadSessionVO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/upload/sessions")
+@RequiredArgsConstructor
+@Tag(name = "分片上传接口", description = "大文件分片上传、断点续传")
+public class UploadSessionController {
+
+    private final UploadSessionService uploadSessionService;
+    private final FileService fileService;
+
+    @PostMapping
+    @Operation(summary = "创建分片上传会话")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<UploadSessionVO> createSession(@Validated @RequestBody UploadSessionDTO sessionDTO) {
+        return ApiResult.success(uploadSessionService.createSession(sessionDTO, getCurrentUserId()));
+    }
+
+    @PutMapping("/{sessionId}/chunks/{chunkIndex}")
+    @Operation(summary = "上传分片", description = "请求体为分片原始字节，偏移量 = 分片序号 × 分片大小；分片可并行上传，重传会覆盖")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<Void> uploadChunk(@PathVariable @Parameter(description = "会话ID") String sessionId,
+                                       @PathVariable @Parameter(description = "分片序号，从0开始") int chunkIndex,
+                                       HttpServletRequest request) throws IOException {
+        try (InputStream inputStream = request.getInputStream()) {
+            uploadSessionService.uploadChunk(sessionId, chunkIndex, inputStream,
+                request.getContentLengthLong(), getCurrentUserId());
+        }
+        return ApiResult.success(null);
+    }
+
+    @GetMapping("/{sessionId}")
+    @Operation(summary = "查询上传会话状态", description = "返回已接收的分片序号，客户端据此补传缺失的分片")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<UploadSessionVO> getSession(@PathVariable String sessionId) {
+        return ApiResult.success(uploadSessionService.getSession(sessionId, getCurrentUserId()));
+    }
+
+    @PostMapping("/{sessionId}/complete")
+    @Operation(summary = "合并分片", description = "合并后返回文件访问地址，可用作作业附件")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<UploadSessionVO> completeSession(@PathVariable String sessionId) throws IOException {
+        Long userId = getCurrentUserId();
+        StoredFile storedFile = uploadSessionService.completeSession(sessionId, userId);
+        UploadSessionVO vo = uploadSessionService.getSession(sessionId, userId);
+        vo.setFileUrl(fileService.getFileUrl(storedFile.getFilePath()));
+        return ApiResult.success(vo);
+    }
+
+    @DeleteMapping("/{sessionId}")
+    @Operation(summary = "取消上传会话")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResult<Void> cancelSession(@PathVariable String sessionId) {
+        uploadSessionService.cancelSession(sessionId, getCurrentUserId());
+        return ApiResult.success(null);
+    }
+
+    private Long getCurrentUserId() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId == null) {
+            throw new UnauthorizedException("用户未登录或登录已过期");
+        }
+        return userId;
+    }
+}
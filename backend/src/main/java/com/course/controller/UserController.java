@@ -2,7 +2,9 @@ package com.course.controller;
 import com.course.common.api.ApiResult;
 import com.course.dto.UserDTO;
 import com.course.entity.User;
+import com.course.service.UserImportService;
 import com.course.service.UserService;
+import com.course.vo.UserImportJobVO;
 import com.course.vo.UserVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,8 +12,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,6 +34,7 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
 
     @GetMapping("/{id}")
     public ApiResult<UserVO> getUserById(@PathVariable Long id) {
@@ -87,6 +100,31 @@ public class UserController {
         return ApiResult.success();
     }
     
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "批量导入用户", description = "上传 CSV 或 xlsx 文件（首行为表头：username、password、role、realName、email、phone、classname），后台逐行导入")
+    public ApiResult<UserImportJobVO> importUsers(@RequestParam("file") MultipartFile file) {
+        return ApiResult.success(userImportService.startImport(file));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "查询用户导入进度")
+    public ApiResult<UserImportJobVO> getImportJob(@PathVariable String jobId) {
+        return ApiResult.success(userImportService.getJob(jobId));
+    }
+
+    @GetMapping("/import/{jobId}/report")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "下载用户导入错误报告", description = "逐行列出导入失败的行和原因（CSV）")
+    public ResponseEntity<Resource> downloadImportReport(@PathVariable String jobId) {
+        Path report = userImportService.getReport(jobId);
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"user-import-" + jobId + ".csv\"")
+            .body(new FileSystemResource(report));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "删除用户", description = "管理员删除用户（不能删除管理员）")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "用户删除成功")
@@ -0,0 +1,24 @@
+package com.course.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * 按班级批量选课的请求参数
+ */
+@Data
+public class BulkEnrollmentDTO {
+    /**
+     * 课程ID列表
+     */
+    @NotEmpty(message = "课程不能为空")
+    private List<Long> courseIds;
+
+    /**
+     * 班级名称列表
+     */
+    @NotEmpty(message = "班级不能为空")
+    private List<String> classnames;
+}
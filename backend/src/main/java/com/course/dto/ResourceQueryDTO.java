@@ -0,0 +1,34 @@
+package com.course.dto;
+
+import lombok.Data;
+
+/**
+ * 资源游标分页查询参数
+ */
+@Data
+public class ResourceQueryDTO {
+    /**
+     * 课程ID
+     */
+    private Long courseId;
+
+    /**
+     * 资源类型
+     */
+    private String type;
+
+    /**
+     * 上传者ID
+     */
+    private Long uploaderId;
+
+    /**
+     * 上一页返回的 nextCursor，不传时从第一页开始
+     */
+    private String cursor;
+
+    /**
+     * 每页数量
+     */
+    private Integer size;
+}
@@ -0,0 +1,31 @@
+package com.course.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+/**
+ * 创建分片上传会话的请求参数
+ */
+@Data
+public class UploadSessionDTO {
+    /**
+     * 原始文件名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 文件总大小
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long fileSize;
+
+    /**
+     * 期望的分片大小，不传时使用服务端默认值
+     */
+    private Integer chunkSize;
+}
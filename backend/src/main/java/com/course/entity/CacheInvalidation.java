@@ -0,0 +1,39 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 缓存失效消息记录（数据库轮询方式在实例之间广播）
+ */
+@Data
+@TableName("cache_invalidation")
+public class CacheInvalidation {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 发出消息的实例ID
+     */
+    private String origin;
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 缓存键，为空表示清空整个缓存
+     */
+    private String cacheKey;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,42 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 课程统计实体（由写操作增量维护，定时任务对账）
+ */
+@Data
+@TableName("course_stats")
+public class CourseStats {
+
+    /**
+     * 课程ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Long courseId;
+
+    /**
+     * 选课学生数
+     */
+    private Integer studentCount;
+
+    /**
+     * 资源数
+     */
+    private Integer resourceCount;
+
+    /**
+     * 作业数
+     */
+    private Integer homeworkCount;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,34 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 仪表盘统计快照（按指标和创建月份累计，由写操作增量维护，定时任务对账）
+ */
+@Data
+@TableName("dashboard_stats")
+public class DashboardStat {
+
+    /**
+     * 指标：courses、resources、assignments
+     */
+    private String metric;
+
+    /**
+     * 创建月份 yyyy-MM
+     */
+    private String month;
+
+    /**
+     * 条数
+     */
+    private Long itemCount;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,47 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 内容寻址存储的文件块实体（同一内容只保存一份，按引用计数回收）
+ */
+@Data
+@TableName("file_blob")
+public class FileBlob {
+
+    /**
+     * 文件内容的 SHA-256 摘要（十六进制）
+     */
+    @TableId(type = IdType.INPUT)
+    private String digest;
+
+    /**
+     * 文件存储路径
+     */
+    private String filePath;
+
+    /**
+     * 文件大小
+     */
+    private Long fileSize;
+
+    /**
+     * 引用次数（资源、作业附件）
+     */
+    private Integer refCount;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
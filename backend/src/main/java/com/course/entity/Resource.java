@@ -2,6 +2,7 @@ package com.course.entity;
 
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.baomidou.mybatisplus.annotation.TableField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
@@ -78,6 +79,13 @@ public class Resource extends BaseEntity {
      */
     private Integer status;
 
+    /**
+     * 文件中提取的文本，只用于建立搜索索引
+     */
+    @JsonIgnore
+    @TableField(exist = false)
+    private String content;
+
     public String getCourseName() {
         return courseName;
     }
@@ -0,0 +1,62 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 资源文件提取的文本实体
+ */
+@Data
+@TableName("resource_content")
+public class ResourceContent {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_DONE = "DONE";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_SKIPPED = "SKIPPED";
+
+    /**
+     * 资源ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Long resourceId;
+
+    /**
+     * 提取的纯文本
+     */
+    private String content;
+
+    /**
+     * 提取状态
+     */
+    private String status;
+
+    /**
+     * 文本字符数
+     */
+    private Integer charCount;
+
+    /**
+     * 是否因超出字符数或耗时限制被截断
+     */
+    private Boolean truncated;
+
+    /**
+     * 失败或跳过的原因
+     */
+    private String errorMessage;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,72 @@
+package com.course.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话实体
+ */
+@Data
+@TableName("upload_session")
+public class UploadSession {
+
+    public static final String STATUS_UPLOADING = "UPLOADING";
+    public static final String STATUS_ASSEMBLING = "ASSEMBLING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * 会话ID
+     */
+    @TableId(type = IdType.INPUT)
+    private String id;
+
+    /**
+     * 上传用户ID
+     */
+    private Long userId;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件总大小
+     */
+    private Long fileSize;
+
+    /**
+     * 分片大小（最后一片可能更小）
+     */
+    private Integer chunkSize;
+
+    /**
+     * 分片总数
+     */
+    private Integer totalChunks;
+
+    /**
+     * 会话状态
+     */
+    private String status;
+
+    /**
+     * 分片写入的临时文件路径
+     */
+    private String partPath;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间（最后一次收到分片的时间）
+     */
+    private LocalDateTime updateTime;
+}
@@ -2,7 +2,9 @@ package com.course.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.course.entity.Assignment;
+import com.course.vo.AssignmentVO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import java.util.List;
 
@@ -14,4 +16,11 @@ public interface AssignmentMapper extends BaseMapper<Assignment> {
     List<Assignment> findByTeacherId(Long teacherId);
     
     List<Assignment> findByStudentId(Long studentId);
+
+    /**
+     * 查询学生作业面板：学生所选课程的有效作业，连同该学生对每个作业的最新提交记录，一条语句返回
+     * @param studentId 学生ID
+     * @return 作业列表（含提交状态、提交ID、提交时间、分数）
+     */
+    List<AssignmentVO> findStudentBoard(@Param("studentId") Long studentId);
 }
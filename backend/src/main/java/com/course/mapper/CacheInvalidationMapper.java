@@ -0,0 +1,42 @@
+package com.course.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.course.cache.CacheInvalidationMessage;
+import com.course.entity.CacheInvalidation;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 缓存失效消息Mapper接口
+ */
+@Mapper
+public interface CacheInvalidationMapper extends BaseMapper<CacheInvalidation> {
+
+    /**
+     * 批量写入失效消息
+     */
+    int insertBatch(@Param("messages") List<CacheInvalidationMessage> messages);
+
+    /**
+     * 查询最近一段时间内的消息（按数据库时间），ID 大于 afterId
+     * <p>
+     * 并发事务的自增ID不一定按提交顺序可见，因此按时间窗口重复读取，由调用方按ID去重。
+     */
+    @Select("SELECT id, origin, cache_name, cache_key, create_time FROM cache_invalidation " +
+            "WHERE create_time >= NOW(3) - INTERVAL #{lookbackMillis} * 1000 MICROSECOND AND id > #{afterId} " +
+            "ORDER BY id LIMIT #{limit}")
+    List<CacheInvalidation> findRecent(@Param("lookbackMillis") long lookbackMillis,
+                                       @Param("afterId") long afterId,
+                                       @Param("limit") int limit);
+
+    /**
+     * 删除过期消息
+     */
+    @Delete("DELETE FROM cache_invalidation " +
+            "WHERE create_time < NOW(3) - INTERVAL #{retentionMillis} * 1000 MICROSECOND LIMIT #{limit}")
+    int deleteExpired(@Param("retentionMillis") long retentionMillis, @Param("limit") int limit);
+}
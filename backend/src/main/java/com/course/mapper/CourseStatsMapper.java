@@ -0,0 +1,53 @@
+package com.course.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.course.entity.CourseStats;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 课程统计Mapper接口
+ */
+@Mapper
+public interface CourseStatsMapper extends BaseMapper<CourseStats> {
+
+    /**
+     * 按增量调整课程统计，记录不存在时自动创建
+     */
+    @Insert("INSERT INTO course_stats (course_id, student_count, resource_count, homework_count, update_time) " +
+            "VALUES (#{courseId}, GREATEST(#{studentDelta}, 0), GREATEST(#{resourceDelta}, 0), GREATEST(#{homeworkDelta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "student_count = GREATEST(student_count + #{studentDelta}, 0), " +
+            "resource_count = GREATEST(resource_count + #{resourceDelta}, 0), " +
+            "homework_count = GREATEST(homework_count + #{homeworkDelta}, 0), " +
+            "update_time = NOW()")
+    int adjust(@Param("courseId") Long courseId,
+               @Param("studentDelta") int studentDelta,
+               @Param("resourceDelta") int resourceDelta,
+               @Param("homeworkDelta") int homeworkDelta);
+
+    /**
+     * 按业务表重新计算全部课程的统计数据
+     */
+    @Insert("INSERT INTO course_stats (course_id, student_count, resource_count, homework_count, update_time) " +
+            "SELECT c.id, " +
+            "(SELECT COUNT(DISTINCT sc.student_id) FROM student_course sc WHERE sc.course_id = c.id), " +
+            "(SELECT COUNT(1) FROM resource r WHERE r.course_id = c.id), " +
+            "(SELECT COUNT(1) FROM assignment a WHERE a.course_id = c.id AND a.status = 'active'), " +
+            "NOW() " +
+            "FROM course c " +
+            "ON DUPLICATE KEY UPDATE " +
+            "student_count = VALUES(student_count), " +
+            "resource_count = VALUES(resource_count), " +
+            "homework_count = VALUES(homework_count), " +
+            "update_time = NOW()")
+    int rebuildAll();
+
+    /**
+     * 删除已不存在课程的统计记录
+     */
+    @Delete("DELETE FROM course_stats WHERE course_id NOT IN (SELECT id FROM course)")
+    int deleteOrphans();
+}
@@ -0,0 +1,60 @@
+package com.course.mapper;
+
+import com.course.entity.DashboardStat;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 仪表盘统计快照Mapper接口
+ */
+@Mapper
+public interface DashboardStatMapper {
+
+    /**
+     * 按增量调整某个指标在某月的条数，记录不存在时自动创建
+     */
+    @Insert("INSERT INTO dashboard_stats (metric, month, item_count, update_time) " +
+            "VALUES (#{metric}, #{month}, GREATEST(#{delta}, 0), NOW()) " +
+            "ON DUPLICATE KEY UPDATE item_count = GREATEST(item_count + #{delta}, 0), update_time = NOW()")
+    int adjust(@Param("metric") String metric, @Param("month") String month, @Param("delta") long delta);
+
+    /**
+     * 查询全部快照，行数为指标数 × 月份数
+     */
+    @Select("SELECT metric, month, item_count, update_time FROM dashboard_stats")
+    List<DashboardStat> findAll();
+
+    /**
+     * 按业务表重新计算全部快照，覆盖已有记录
+     */
+    @Insert("INSERT INTO dashboard_stats (metric, month, item_count, update_time) " +
+            "SELECT t.metric, t.month, t.item_count, NOW() FROM (" +
+            "SELECT 'courses' AS metric, IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') AS month, COUNT(1) AS item_count " +
+            "FROM course GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') " +
+            "UNION ALL " +
+            "SELECT 'resources', IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00'), COUNT(1) " +
+            "FROM resource GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') " +
+            "UNION ALL " +
+            "SELECT 'assignments', IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00'), COUNT(1) " +
+            "FROM assignment GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00')" +
+            ") t " +
+            "ON DUPLICATE KEY UPDATE item_count = VALUES(item_count), update_time = NOW()")
+    int rebuildAll();
+
+    /**
+     * 删除业务表中已没有记录的月份
+     */
+    @Delete("DELETE FROM dashboard_stats WHERE " +
+            "(metric = 'courses' AND month NOT IN " +
+            "(SELECT DISTINCT IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') FROM course)) " +
+            "OR (metric = 'resources' AND month NOT IN " +
+            "(SELECT DISTINCT IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') FROM resource)) " +
+            "OR (metric = 'assignments' AND month NOT IN " +
+            "(SELECT DISTINCT IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00') FROM assignment))")
+    int deleteStale();
+}
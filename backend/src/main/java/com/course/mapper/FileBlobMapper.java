@@ -0,0 +1,51 @@
+package com.course.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.course.entity.FileBlob;
+import com.course.vo.StorageStatsVO;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 文件块Mapper接口
+ */
+@Mapper
+public interface FileBlobMapper extends BaseMapper<FileBlob> {
+
+    /**
+     * 增加一次引用，记录不存在时自动创建
+     */
+    @Insert("INSERT INTO file_blob (digest, file_path, file_size, ref_count, create_time, update_time) " +
+            "VALUES (#{digest}, #{filePath}, #{fileSize}, 1, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, file_path = VALUES(file_path), update_time = NOW()")
+    int addReference(@Param("digest") String digest,
+                     @Param("filePath") String filePath,
+                     @Param("fileSize") long fileSize);
+
+    /**
+     * 减少一次引用
+     */
+    @Update("UPDATE file_blob SET ref_count = ref_count - 1, update_time = NOW() " +
+            "WHERE digest = #{digest} AND ref_count > 0")
+    int releaseReference(@Param("digest") String digest);
+
+    /**
+     * 删除已无引用的文件块记录
+     */
+    @Delete("DELETE FROM file_blob WHERE digest = #{digest} AND ref_count = 0")
+    int deleteUnreferenced(@Param("digest") String digest);
+
+    /**
+     * 存储去重统计
+     */
+    @Select("SELECT COUNT(1) AS blob_count, " +
+            "COALESCE(SUM(ref_count), 0) AS reference_count, " +
+            "COALESCE(SUM(file_size), 0) AS stored_bytes, " +
+            "COALESCE(SUM(file_size * ref_count), 0) AS logical_bytes " +
+            "FROM file_blob WHERE ref_count > 0")
+    StorageStatsVO selectStats();
+}
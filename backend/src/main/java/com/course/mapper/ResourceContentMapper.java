@@ -0,0 +1,58 @@
+package com.course.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.course.entity.ResourceContent;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 资源文本Mapper接口
+ */
+@Mapper
+public interface ResourceContentMapper extends BaseMapper<ResourceContent> {
+
+    /**
+     * 登记待提取的资源，已有记录时重置为待提取
+     */
+    @Insert("INSERT INTO resource_content (resource_id, status, char_count, truncated, create_time, update_time) " +
+            "VALUES (#{resourceId}, 'PENDING', 0, 0, NOW(), NOW()) " +
+            "ON DUPLICATE KEY UPDATE status = 'PENDING', content = NULL, char_count = 0, truncated = 0, " +
+            "error_message = NULL, update_time = NOW()")
+    int markPending(@Param("resourceId") Long resourceId);
+
+    /**
+     * 为还没有提取记录的资源补登记
+     */
+    @Insert("INSERT INTO resource_content (resource_id, status, char_count, truncated, create_time, update_time) " +
+            "SELECT r.id, 'PENDING', 0, 0, NOW(), NOW() FROM resource r " +
+            "LEFT JOIN resource_content rc ON rc.resource_id = r.id " +
+            "WHERE r.status = 1 AND rc.resource_id IS NULL")
+    int backfillMissing();
+
+    /**
+     * 保存提取结果
+     */
+    @Update("UPDATE resource_content SET content = #{content}, status = #{status}, char_count = #{charCount}, " +
+            "truncated = #{truncated}, error_message = #{errorMessage}, update_time = NOW() " +
+            "WHERE resource_id = #{resourceId}")
+    int saveResult(ResourceContent content);
+
+    @Select("SELECT resource_id FROM resource_content WHERE status = 'PENDING' ORDER BY resource_id LIMIT #{limit}")
+    List<Long> findPendingIds(@Param("limit") int limit);
+
+    @Select("SELECT COUNT(1) FROM resource_content WHERE status = #{status}")
+    long countByStatus(@Param("status") String status);
+
+    /**
+     * 查询已提取文本的开头部分
+     * @param maxChars 最多读取的字符数
+     */
+    @Select("SELECT SUBSTRING(content, 1, #{maxChars}) FROM resource_content " +
+            "WHERE resource_id = #{resourceId} AND status = 'DONE'")
+    String selectContent(@Param("resourceId") Long resourceId, @Param("maxChars") int maxChars);
+}
@@ -3,13 +3,17 @@ package com.course.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.course.dto.ResourceQueryDTO;
 import com.course.entity.Resource;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ResourceMapper extends BaseMapper<Resource> {
@@ -63,6 +67,22 @@ public interface ResourceMapper extends BaseMapper<Resource> {
     
     @Update("UPDATE resource SET download_count = download_count + 1 WHERE id = #{id}")
     int incrementDownloadCount(@Param("id") Long id);
+
+    /**
+     * 批量累加下载次数（一条 UPDATE）
+     *
+     * @param deltas 资源ID -> 下载次数增量
+     * @return 影响行数
+     */
+    int addDownloadCounts(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 查询资源所属的课程ID（去重）
+     *
+     * @param ids 资源ID
+     * @return 课程ID列表
+     */
+    List<Long> findCourseIdsByIds(@Param("ids") Collection<Long> ids);
     
     @Select("SELECT * FROM resource WHERE status = 1 AND name LIKE CONCAT('%', #{keyword}, '%')")
     List<Resource> searchByName(@Param("keyword") String keyword);
@@ -98,4 +118,55 @@ public interface ResourceMapper extends BaseMapper<Resource> {
             "LEFT JOIN user u ON r.uploader_user_id = u.id " +
             "WHERE r.id = #{id}")
     Resource findByIdWithDetails(@Param("id") Long id);
+
+    /**
+     * 按 (create_time, id) 倒序的游标分页查询，不查询文件路径等列表不需要的列
+     *
+     * @param query 过滤条件
+     * @param afterTime 上一页最后一条的创建时间，第一页为 null
+     * @param afterId 上一页最后一条的ID
+     * @param limit 查询条数
+     * @return 资源列表
+     */
+    List<Resource> findPageByKeyset(@Param("query") ResourceQueryDTO query,
+                                    @Param("afterTime") LocalDateTime afterTime,
+                                    @Param("afterId") Long afterId,
+                                    @Param("limit") int limit);
+
+    /**
+     * 按ID分批读取建立搜索索引所需的字段
+     *
+     * @param afterId 上一批最后一条的ID
+     * @param limit 每批条数
+     * @param maxContentChars 已提取文本最多读取的字符数
+     * @return 资源列表（只含 id、name、description、file_name、course_id 和已提取文本的开头部分 content）
+     */
+    @Select("SELECT r.id, r.name, r.description, r.file_name, r.course_id, " +
+            "SUBSTRING(rc.content, 1, #{maxContentChars}) AS content FROM resource r " +
+            "LEFT JOIN resource_content rc ON rc.resource_id = r.id AND rc.status = 'DONE' " +
+            "WHERE r.status = 1 AND r.id > #{afterId} ORDER BY r.id LIMIT #{limit}")
+    List<Resource> findSearchDocuments(@Param("afterId") long afterId, @Param("limit") int limit,
+                                       @Param("maxContentChars") int maxContentChars);
+
+    /**
+     * 读取单个资源建立搜索索引所需的字段
+     *
+     * @param id 资源ID
+     * @param maxContentChars 已提取文本最多读取的字符数
+     * @return 资源（字段同 findSearchDocuments），不存在或已删除时为 null
+     */
+    @Select("SELECT r.id, r.name, r.description, r.file_name, r.course_id, " +
+            "SUBSTRING(rc.content, 1, #{maxContentChars}) AS content FROM resource r " +
+            "LEFT JOIN resource_content rc ON rc.resource_id = r.id AND rc.status = 'DONE' " +
+            "WHERE r.status = 1 AND r.id = #{id}")
+    Resource findSearchDocument(@Param("id") long id, @Param("maxContentChars") int maxContentChars);
+
+    /**
+     * 按ID批量查询资源详情
+     *
+     * @param ids 资源ID
+     * @return 资源列表（顺序不保证）
+     */
+    List<Resource> findByIdsWithDetails(@Param("ids") Collection<Long> ids);
+
 }
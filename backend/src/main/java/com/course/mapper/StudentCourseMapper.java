@@ -7,6 +7,9 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 学生选课记录Mapper接口
  */
@@ -29,4 +32,20 @@ public interface StudentCourseMapper extends BaseMapper<StudentCourse> {
      */
     @Select("SELECT COUNT(*) > 0 FROM student_course WHERE student_id = #{studentId} AND course_id = #{courseId}")
     boolean isEnrolled(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    /**
+     * 查询指定班级的学生在指定课程中已有的选课记录
+     * @param courseIds 课程ID列表
+     * @param classnames 班级名称列表
+     * @return 选课记录（只含 student_id、course_id）
+     */
+    List<StudentCourse> findEnrollmentsByClassnames(@Param("courseIds") Collection<Long> courseIds,
+                                                    @Param("classnames") Collection<String> classnames);
+
+    /**
+     * 多行插入选课记录，已存在的记录跳过
+     * @param enrollments 选课记录（student_id、course_id）
+     * @return 实际插入的行数，不含跳过的记录
+     */
+    int insertBatchIgnoreExisting(@Param("enrollments") List<StudentCourse> enrollments);
 }
@@ -0,0 +1,66 @@
+package com.course.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.course.entity.UploadSession;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传会话Mapper接口
+ */
+@Mapper
+public interface UploadSessionMapper extends BaseMapper<UploadSession> {
+
+    /**
+     * 按条件切换会话状态，用于保证同一会话只被合并一次
+     */
+    @Update("UPDATE upload_session SET status = #{to}, update_time = NOW() WHERE id = #{id} AND status = #{from}")
+    int changeStatus(@Param("id") String id, @Param("from") String from, @Param("to") String to);
+
+    /**
+     * 刷新会话活跃时间
+     */
+    @Update("UPDATE upload_session SET update_time = NOW() WHERE id = #{id}")
+    int touch(@Param("id") String id);
+
+    /**
+     * 记录已接收的分片（重传时覆盖）
+     */
+    @Insert("INSERT INTO upload_chunk (session_id, chunk_index, chunk_size, create_time) " +
+            "VALUES (#{sessionId}, #{chunkIndex}, #{chunkSize}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE chunk_size = VALUES(chunk_size), create_time = NOW()")
+    int saveChunk(@Param("sessionId") String sessionId,
+                  @Param("chunkIndex") int chunkIndex,
+                  @Param("chunkSize") int chunkSize);
+
+    /**
+     * 查询已接收的分片序号
+     */
+    @Select("SELECT chunk_index FROM upload_chunk WHERE session_id = #{sessionId} ORDER BY chunk_index")
+    List<Integer> findChunkIndexes(@Param("sessionId") String sessionId);
+
+    /**
+     * 统计已接收的分片数
+     */
+    @Select("SELECT COUNT(1) FROM upload_chunk WHERE session_id = #{sessionId}")
+    int countChunks(@Param("sessionId") String sessionId);
+
+    /**
+     * 删除会话的分片记录
+     */
+    @Delete("DELETE FROM upload_chunk WHERE session_id = #{sessionId}")
+    int deleteChunks(@Param("sessionId") String sessionId);
+
+    /**
+     * 查询在指定时间之前不再活跃的会话
+     */
+    @Select("SELECT * FROM upload_session WHERE update_time < #{before} ORDER BY update_time LIMIT #{limit}")
+    List<UploadSession> findInactive(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -5,6 +5,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.course.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -18,6 +19,26 @@ public interface UserMapper extends BaseMapper<User> {
      * 根据班级名称查询学生
      */
     List<User> findByClassname(@Param("classname") String classname);
+
+    /**
+     * 根据班级名称批量查询学生ID
+     */
+    List<Long> findStudentIdsByClassnames(@Param("classnames") Collection<String> classnames);
+
+    /**
+     * 查询已存在的用户名
+     */
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 按用户名更新密码哈希
+     */
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
+    /**
+     * 多行插入用户
+     */
+    int insertBatch(@Param("users") List<User> users);
     
     /**
      * 查询课程中的学生列表
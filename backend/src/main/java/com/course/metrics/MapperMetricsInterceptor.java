@@ -0,0 +1,77 @@
+package com.course.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import com.course.config.StatementBudgetProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录每条 MyBatis 语句的执行耗时
+ * <p>
+ * 指标名 app.mapper，标签为语句ID（Mapper 全限定名.方法名）、语句类型和异常类名。
+ * 同时拦截两个 query 重载：其他插件（如分页插件）会绕过外层代理直接调用内层执行器的六参数重载，
+ * 每次执行只会经过本插件一次。
+ * <p>
+ * 同时把耗时计入当前请求的 {@link RequestStatementStats}，单条语句超过慢语句阈值时记录警告。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Intercepts({
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    public static final String METRIC_NAME = "app.mapper";
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetProperties budgetProperties;
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long nanos = sample.stop(Timer.builder(METRIC_NAME)
+                .tag("statement", statement.getId())
+                .tag("type", statement.getSqlCommandType().name())
+                .tag("exception", exception)
+                .register(meterRegistry));
+            record(statement.getId(), nanos);
+        }
+    }
+
+    private void record(String statementId, long nanos) {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            stats.record(statementId, nanos);
+        }
+        if (budgetProperties.isEnabled() && nanos > budgetProperties.getSlowStatement().toNanos()) {
+            log.warn("慢 SQL: {}, 耗时: {} ms", statementId, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.course.metrics;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 当前请求执行的 SQL 语句统计，按线程保存
+ * <p>
+ * 由 {@link StatementBudgetFilter} 在请求开始时创建、结束时清除，{@link MapperMetricsInterceptor} 每执行一条语句记录一次。
+ * 后台线程中执行的语句不在任何请求内，不做统计。
+ */
+public class RequestStatementStats {
+
+    private static final ThreadLocal<RequestStatementStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, StatementStat> statements = new LinkedHashMap<>();
+    @Getter
+    private int count;
+    @Getter
+    private long totalNanos;
+
+    static RequestStatementStats begin() {
+        RequestStatementStats stats = new RequestStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return 当前请求的统计，不在请求中时为 null
+     */
+    public static RequestStatementStats current() {
+        return CURRENT.get();
+    }
+
+    void record(String statementId, long nanos) {
+        count++;
+        totalNanos += nanos;
+        statements.computeIfAbsent(statementId, StatementStat::new).record(nanos);
+    }
+
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+    }
+
+    /**
+     * @return 执行次数达到阈值的语句，按次数倒序
+     */
+    public List<StatementStat> repeated(int threshold) {
+        return statements.values().stream()
+            .filter(stat -> stat.getCount() >= threshold)
+            .sorted(Comparator.comparingInt(StatementStat::getCount).reversed())
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return 累计耗时最长的若干条语句
+     */
+    public List<StatementStat> slowest(int limit) {
+        List<StatementStat> sorted = new ArrayList<>(statements.values());
+        sorted.sort(Comparator.comparingLong(StatementStat::getTotalNanos).reversed());
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    /**
+     * 单个语句ID在本请求中的执行统计
+     */
+    @Getter
+    public static class StatementStat {
+        private final String statementId;
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        StatementStat(String statementId) {
+            this.statementId = statementId;
+        }
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return statementId + " x" + count + " 共" + TimeUnit.NANOSECONDS.toMillis(totalNanos)
+                + "ms 最长" + TimeUnit.NANOSECONDS.toMillis(maxNanos) + "ms";
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.course.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * 记录所有 {@code @Service} 方法和 JWT 解析的耗时
+ * <p>
+ * 指标名 app.service，标签为类名、方法名和异常类名。直方图是否开启由
+ * management.metrics.distribution 配置。同一个类内部的自调用不经过代理，不会单独计时。
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "app.service";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(@org.springframework.stereotype.Service *) || within(com.course.security.JwtTokenUtil)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                .tag("class", AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.course.metrics;
+
+import com.course.config.StatementBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计每个请求执行的 SQL 语句数和数据库耗时
+ * <p>
+ * 结果按接口路径模板记录为指标 app.request.statements 和 app.request.db.time；
+ * 超出 {@link StatementBudgetProperties} 中的预算时记录警告，列出重复执行的语句（N+1 特征）和最慢的语句。
+ * 排在安全过滤器之前，JWT 认证中的查询也计入。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatementStats stats = RequestStatementStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatementStats.end();
+            report(request, stats);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("app.request.statements")
+            .baseUnit("statements")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(stats.getCount());
+        Timer.builder("app.request.db.time")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(stats.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        boolean tooMany = stats.getCount() > properties.getMaxStatements();
+        boolean tooSlow = stats.getTotalNanos() > properties.getMaxDbTime().toNanos();
+        List<RequestStatementStats.StatementStat> repeated = stats.repeated(properties.getRepeatThreshold());
+        if (!tooMany && !tooSlow && repeated.isEmpty()) {
+            return;
+        }
+        Counter.builder("app.request.budget.exceeded")
+            .tag("method", method)
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .increment();
+        log.warn("请求超出 SQL 预算: {} {}, 语句数: {}, 数据库耗时: {} ms, 重复语句: {}, 最慢语句: {}",
+            method, request.getRequestURI(), stats.getCount(), stats.getTotalMillis(),
+            repeated, stats.slowest(properties.getTopStatements()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.course.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 开发环境下在响应头中返回本次请求的语句数和数据库耗时
+ * <p>
+ * 在响应体写出之前执行，此时控制器中的查询都已完成。
+ */
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "app.statement-budget", name = "expose-header", havingValue = "true")
+public class StatementStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENT_COUNT_HEADER = "X-Statement-Count";
+    public static final String STATEMENT_TIME_HEADER = "X-Statement-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestStatementStats stats = RequestStatementStats.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENT_COUNT_HEADER, String.valueOf(stats.getCount()));
+            response.getHeaders().set(STATEMENT_TIME_HEADER, String.valueOf(stats.getTotalMillis()));
+        }
+        return body;
+    }
+}
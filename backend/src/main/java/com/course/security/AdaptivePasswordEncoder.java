@@ -0,0 +1,166 @@
+package com.course.security;
+
+import com.course.config.PasswordHashingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应密码编码器
+ * <p>
+ * 新密码使用 BCrypt（存储为 {@code {bcrypt}$2a$..}，强度写在哈希中，因此各实例校准出不同强度也能互相校验）。
+ * 没有 {@code {id}} 前缀的旧记录按明文比较，登录成功后由 {@link #upgradeEncoding} 触发改写为 BCrypt，
+ * 强度低于当前配置的 BCrypt 哈希同样会被升级。
+ * <p>
+ * 哈希计算在固定大小的线程池中执行，并发登录时 CPU 占用不超过线程数，
+ * 排队已满或等待超时时抛出 {@link PasswordHashingBusyException}，不会无限占用请求线程。
+ */
+@Slf4j
+public class AdaptivePasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String BCRYPT_ID = "bcrypt";
+
+    private final DelegatingPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int strength;
+
+    public AdaptivePasswordEncoder(PasswordHashingProperties properties) {
+        this.strength = properties.getStrength() != null ? properties.getStrength()
+            : calibrate(properties.getTargetMillis(), properties.getMinStrength(), properties.getMaxStrength());
+        this.delegate = new DelegatingPasswordEncoder(BCRYPT_ID,
+            Collections.singletonMap(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        this.delegate.setDefaultPasswordEncoderForMatches(new LegacyPlaintextMatcher(delegate));
+        this.timeoutMillis = properties.getTimeout();
+
+        int workers = properties.getWorkers() != null ? properties.getWorkers()
+            : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        log.info("密码哈希: BCrypt 强度 {}, 线程数 {}, 队列容量 {}", strength, workers, properties.getQueueCapacity());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return call(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return call(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * @return 当前使用的 BCrypt 强度
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException("密码校验请求过多");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHashingBusyException("密码校验等待超时");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("密码校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 按本机速度选择强度：测量最低强度的耗时，每加 1 耗时翻倍，取不超过目标耗时的最大强度
+     */
+    static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        // 预热，避免首次调用的类加载和 JIT 影响测量
+        new BCryptPasswordEncoder(4).encode("calibration");
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double baseMillis = Math.max(best / 1_000_000.0, 0.001);
+        int strength = minStrength;
+        while (strength < maxStrength && baseMillis * (1L << (strength + 1 - minStrength)) <= targetMillis) {
+            strength++;
+        }
+        for (int s = minStrength; s <= maxStrength; s++) {
+            double millis = baseMillis * (1L << (s - minStrength));
+            log.info("BCrypt 强度 {}: 约 {} ms/次, 单核约 {} 次登录/秒{}", s, String.format("%.1f", millis),
+                String.format("%.1f", 1000 / millis), s == strength ? "（选用）" : "");
+        }
+        return strength;
+    }
+
+    /**
+     * 旧的明文密码比较（常量时间）；编码交给 BCrypt，不会产生新的明文记录
+     */
+    private static final class LegacyPlaintextMatcher implements PasswordEncoder {
+
+        private final PasswordEncoder encoder;
+
+        private LegacyPlaintextMatcher(PasswordEncoder encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return encoder.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (rawPassword == null || encodedPassword == null) {
+                return false;
+            }
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
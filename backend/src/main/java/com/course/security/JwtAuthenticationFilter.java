@@ -2,10 +2,13 @@ package com.course.security;
 
 import com.course.entity.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,6 +16,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -22,97 +27,126 @@ import java.io.IOException;
 import java.util.*;
 
 @Slf4j
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
     private final UserDetailsService userDetailsService;
     private final ObjectMapper objectMapper;
+    private final UserStateCache userStateCache;
 
-    private static final List<String> EXCLUDE_PATHS = Arrays.asList(
-            "/auth/login",
-            "/auth/register",
-            "/auth/refresh",
-            "/swagger-ui/**",
-            "/v3/api-docs/**",
-            "/files/**",
-            "/error"
-    );
+    /**
+     * 排除路径在启动时编译一次，请求时只做匹配
+     */
+    private final List<PathPattern> excludePatterns;
+
+    public JwtAuthenticationFilter(JwtTokenUtil jwtTokenUtil,
+                                   UserDetailsService userDetailsService,
+                                   ObjectMapper objectMapper,
+                                   UserStateCache userStateCache,
+                                   List<String> excludePaths) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.userDetailsService = userDetailsService;
+        this.objectMapper = objectMapper;
+        this.userStateCache = userStateCache;
+        List<PathPattern> patterns = new ArrayList<>(excludePaths.size());
+        for (String excludePath : excludePaths) {
+            patterns.add(PathPatternParser.defaultInstance.parse(excludePath));
+        }
+        this.excludePatterns = Collections.unmodifiableList(patterns);
+        log.info("JWT filter exclude paths: {}", excludePaths);
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        log.debug("Request path: {}", path);
-        
-        if (request.getMethod().equals("OPTIONS")) {
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
             return true;
         }
-        
-        if (path.startsWith("/public/")) {
-            return true;
-        }
-        
-        boolean shouldExclude = EXCLUDE_PATHS.stream()
-                .anyMatch(excludePath -> path.startsWith(excludePath) || path.matches(excludePath.replace("**", ".*")));
-        
-        if (shouldExclude) {
-            log.debug("Excluding path from JWT filter: {}", path);
+
+        // 与 Spring MVC 一致，按去掉 context-path 之后的路径匹配
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        String path = contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : excludePatterns) {
+            if (pattern.matches(pathContainer)) {
+                return true;
+            }
         }
-        
-        return shouldExclude;
+        return false;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        try {
-            String token = extractToken(request);
-            log.debug("Extracted JWT token: {}", token);
-            
-            if (token != null) {
-                String username = jwtTokenUtil.extractUsername(token);
-                log.debug("Successfully set authentication for user: {}", username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtTokenUtil.validateToken(token, userDetails)) {
-                    if (setAuthentication(username, request)) {
-                        filterChain.doFilter(request, response);
-                        return;
-                    }
-                } else {
-                    handleAuthenticationError(response, "Invalid token");
-                    return;
-                }
+        String token = extractToken(request);
+        if (token != null) {
+            UserDetails userDetails;
+            try {
+                // 只解析一次：签名、有效期校验和声明提取同时完成
+                Claims claims = jwtTokenUtil.parseToken(token);
+                userDetails = claims.get(JwtTokenUtil.CLAIM_USER_ID) != null
+                        ? buildFromClaims(claims)
+                        : loadLegacyUser(claims.getSubject());
+            } catch (ExpiredJwtException e) {
+                log.debug("JWT token expired: {}", e.getMessage());
+                handleAuthenticationError(response, "Token expired");
+                return;
+            } catch (Exception e) {
+                log.error("Authentication error: {}", e.getMessage());
+                handleAuthenticationError(response, "Invalid token");
+                return;
             }
-            
-            filterChain.doFilter(request, response);
-            
-        } catch (Exception e) {
-            log.error("Authentication error: {}", e.getMessage());
-            handleAuthenticationError(response, e.getMessage());
+
+            if (userDetails == null) {
+                handleAuthenticationError(response, "Invalid token");
+                return;
+            }
+            setAuthentication(userDetails, request);
         }
+
+        filterChain.doFilter(request, response);
     }
 
-    private boolean setAuthentication(String username, HttpServletRequest request) {
-        try {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (userDetails != null && userDetails.isEnabled()) {
-                List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + userDetails.getAuthorities().iterator().next().getAuthority()));
-                
-                UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-                
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                
-                log.debug("Successfully set authentication for user: {}", username);
-                return true;
-            }
-        } catch (Exception e) {
-            log.error("Error setting authentication for user {}: {}", username, e.getMessage());
+    /**
+     * 根据令牌声明构建用户信息，只通过用户状态缓存确认用户仍然有效
+     */
+    private UserDetails buildFromClaims(Claims claims) {
+        Long userId = claims.get(JwtTokenUtil.CLAIM_USER_ID, Long.class);
+        String username = claims.getSubject();
+        String role = claims.get(JwtTokenUtil.CLAIM_ROLE, String.class);
+        if (!Boolean.TRUE.equals(claims.get(JwtTokenUtil.CLAIM_ENABLED, Boolean.class))
+                || !userStateCache.isValid(userId, username, role)) {
+            log.warn("Token rejected, user disabled or changed: {}", username);
+            return null;
         }
-        return false;
+
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        user.setRole(role);
+        user.setEnabled(true);
+        return new UserDetailsImpl(user);
+    }
+
+    /**
+     * 不含用户声明的旧令牌：按用户名加载用户
+     */
+    private UserDetails loadLegacyUser(String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        return userDetails != null && userDetails.isEnabled() ? userDetails : null;
+    }
+
+    private void setAuthentication(UserDetails userDetails, HttpServletRequest request) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + userDetails.getAuthorities().iterator().next().getAuthority()));
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        log.debug("Successfully set authentication for user: {}", userDetails.getUsername());
     }
 
     private String extractToken(HttpServletRequest request) {
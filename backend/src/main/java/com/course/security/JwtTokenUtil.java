@@ -1,6 +1,8 @@
 package com.course.security;
 
+import com.course.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,6 +12,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
@@ -25,19 +28,61 @@ public class JwtTokenUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    /**
+     * 令牌中的用户ID声明
+     */
+    public static final String CLAIM_USER_ID = "uid";
+    /**
+     * 令牌中的角色声明
+     */
+    public static final String CLAIM_ROLE = "role";
+    /**
+     * 令牌中的启用状态声明
+     */
+    public static final String CLAIM_ENABLED = "enabled";
+
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    /**
+     * 签名密钥和解析器都是线程安全的，启动时创建一次
+     */
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserDetailsImpl) {
+            User user = ((UserDetailsImpl) userDetails).getUser();
+            claims.put(CLAIM_USER_ID, user.getId());
+            claims.put(CLAIM_ROLE, user.getRole());
+            claims.put(CLAIM_ENABLED, userDetails.isEnabled());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * 校验签名和有效期并解析令牌（一次解析得到全部声明）
+     * @param token 令牌
+     * @return 声明
+     * @throws io.jsonwebtoken.JwtException 令牌无效或已过期
+     */
+    public Claims parseToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -63,11 +108,7 @@ public class JwtTokenUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parseToken(token);
         } catch (Exception e) {
             log.error("JWT token parsing failed: {}", e.getMessage());
             return null;
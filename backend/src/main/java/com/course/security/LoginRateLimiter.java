@@ -0,0 +1,147 @@
+package com.course.security;
+
+import com.course.common.exception.TooManyRequestsException;
+import com.course.config.LoginRateLimitProperties;
+import com.course.vo.LoginRateLimitStatsVO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录限流：按客户端 IP 和用户名各一个令牌桶
+ * <p>
+ * 在查询数据库和校验密码之前执行，被拒绝的请求不产生任何数据库访问。
+ * 桶保存在有容量上限的 Caffeine 缓存中，空闲超时后删除；每个桶单独加锁，不同键之间不互相阻塞。
+ * 限流状态只在本实例内有效。
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final int MAX_USERNAME_KEY_LENGTH = 64;
+
+    private final LoginRateLimitProperties properties;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> usernameBuckets;
+
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejectedByIp = new AtomicLong();
+    private final AtomicLong rejectedByUsername = new AtomicLong();
+
+    public LoginRateLimiter(LoginRateLimitProperties properties) {
+        this.properties = properties;
+        this.ipBuckets = newStore(properties);
+        this.usernameBuckets = newStore(properties);
+    }
+
+    /**
+     * 消耗一次登录机会，超出限制时抛出 {@link TooManyRequestsException}
+     * @param request 当前请求
+     * @param username 登录用户名
+     */
+    public void acquire(HttpServletRequest request, String username) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String ip = clientIp(request);
+        long waitNanos = tryConsume(ipBuckets, ip, properties.getIp());
+        if (waitNanos > 0) {
+            rejectedByIp.incrementAndGet();
+            log.warn("登录请求过于频繁, IP: {}", ip);
+            throw new TooManyRequestsException("登录尝试过于频繁，请稍后重试", toRetryAfterSeconds(waitNanos));
+        }
+        if (StringUtils.hasText(username)) {
+            waitNanos = tryConsume(usernameBuckets, usernameKey(username), properties.getUsername());
+            if (waitNanos > 0) {
+                rejectedByUsername.incrementAndGet();
+                log.warn("登录请求过于频繁, 用户名: {}, IP: {}", username, ip);
+                throw new TooManyRequestsException("该账号登录尝试过于频繁，请稍后重试", toRetryAfterSeconds(waitNanos));
+            }
+        }
+        allowed.incrementAndGet();
+    }
+
+    public LoginRateLimitStatsVO getStats() {
+        LoginRateLimitStatsVO stats = new LoginRateLimitStatsVO();
+        stats.setAllowed(allowed.get());
+        stats.setRejectedByIp(rejectedByIp.get());
+        stats.setRejectedByUsername(rejectedByUsername.get());
+        stats.setTrackedIps(ipBuckets.estimatedSize());
+        stats.setTrackedUsernames(usernameBuckets.estimatedSize());
+        return stats;
+    }
+
+    private long tryConsume(Cache<String, TokenBucket> store, String key,
+                            LoginRateLimitProperties.Bucket limit) {
+        TokenBucket bucket = store.get(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerMinute()));
+        return bucket.tryConsume(System.nanoTime());
+    }
+
+    String clientIp(HttpServletRequest request) {
+        int trustedProxies = properties.getTrustedProxies();
+        if (trustedProxies > 0) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwarded)) {
+                // 每层代理在末尾追加它看到的对端地址，从右数第 trustedProxies 个是最外层可信代理记录的客户端
+                String[] hops = StringUtils.tokenizeToStringArray(forwarded, ",");
+                if (hops.length > 0) {
+                    return hops[Math.max(0, hops.length - trustedProxies)];
+                }
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String usernameKey(String username) {
+        String key = username.trim().toLowerCase(Locale.ROOT);
+        return key.length() > MAX_USERNAME_KEY_LENGTH ? key.substring(0, MAX_USERNAME_KEY_LENGTH) : key;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static Cache<String, TokenBucket> newStore(LoginRateLimitProperties properties) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfterAccess(properties.getIdleTimeout())
+            .build();
+    }
+
+    /**
+     * 令牌桶，按时间连续补充令牌
+     */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = Math.max(1, refillPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = this.capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        /**
+         * @return 0 表示获得令牌，否则为需要等待的纳秒数
+         */
+        synchronized long tryConsume(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
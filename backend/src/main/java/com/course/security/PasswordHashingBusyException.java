@@ -0,0 +1,13 @@
+package com.course.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 密码哈希线程池已满或等待超时
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -3,10 +3,14 @@ package com.course.security;
 import com.course.common.exception.ServiceException;
 import com.course.entity.User;
 import com.course.mapper.UserMapper;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,9 +18,10 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserMapper userMapper;
+    private final CacheInvalidator cacheInvalidator;
 
     @Override
     @Cacheable(value = "userDetails", key = "#username", unless = "#result == null")
@@ -46,4 +51,19 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throw new ServiceException("加载用户信息时发生错误");
         }
     }
+
+    /**
+     * 登录成功后把旧格式（明文或低强度）的密码改写为当前哈希
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userMapper.updatePasswordByUsername(user.getUsername(), newPassword);
+        cacheInvalidator.evict(CacheKeys.USER_DETAILS_CACHE, user.getUsername());
+        log.info("已升级用户密码哈希: {}", user.getUsername());
+        // 复制一份，不修改可能仍被其他线程引用的缓存对象
+        User updated = new User();
+        BeanUtils.copyProperties(((UserDetailsImpl) user).getUser(), updated);
+        updated.setPassword(newPassword);
+        return new UserDetailsImpl(updated);
+    }
 }
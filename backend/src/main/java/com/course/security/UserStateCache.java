@@ -0,0 +1,84 @@
+package com.course.security;
+
+import com.course.entity.User;
+import com.course.mapper.UserMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户状态缓存
+ * <p>
+ * JWT 快速路径直接用令牌中的声明构建认证信息，不再每次请求加载完整用户。
+ * 为了让被禁用、删除或修改了角色的用户及时失效，按用户ID缓存一份轻量状态：
+ * 容量有上限，写入后最多保留 {@code jwt.user-state-ttl} 毫秒，用户信息变更时主动失效。
+ */
+@Slf4j
+@Component
+public class UserStateCache {
+
+    private final UserMapper userMapper;
+    private final Cache<Long, UserState> cache;
+
+    public UserStateCache(UserMapper userMapper,
+                          @Value("${jwt.user-state-ttl:60000}") long ttlMillis,
+                          @Value("${jwt.user-state-max-size:10000}") long maxSize) {
+        this.userMapper = userMapper;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * 校验令牌中的用户信息是否仍然有效
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param role 角色
+     * @return 用户存在、已启用且用户名和角色未变更时返回true
+     */
+    public boolean isValid(Long userId, String username, String role) {
+        UserState state = cache.get(userId, this::load);
+        return state != null && state.enabled
+                && Objects.equals(state.username, username)
+                && Objects.equals(state.role, role);
+    }
+
+    /**
+     * 用户信息变更后使缓存失效
+     * @param userId 用户ID
+     */
+    public void evict(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private UserState load(Long userId) {
+        User user = userMapper.selectById(userId);
+        if (user == null) {
+            log.debug("User not found for token, id: {}", userId);
+            return UserState.MISSING;
+        }
+        return new UserState(user.getUsername(), user.getRole(), Boolean.TRUE.equals(user.getEnabled()));
+    }
+
+    private static final class UserState {
+        private static final UserState MISSING = new UserState(null, null, false);
+
+        private final String username;
+        private final String role;
+        private final boolean enabled;
+
+        private UserState(String username, String role, boolean enabled) {
+            this.username = username;
+            this.role = role;
+            this.enabled = enabled;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.course.service;
 
 import com.course.dto.AssignmentDTO;
 import com.course.entity.Assignment;
+import com.course.vo.AssignmentVO;
 import java.util.List;
 
 public interface AssignmentService {
@@ -42,6 +43,13 @@ public interface AssignmentService {
      */
     List<Assignment> getAssignmentsByStudentId(Long studentId);
 
+    /**
+     * 获取学生作业面板（作业信息及该学生的最新提交状态，单条查询）
+     * @param studentId 学生ID
+     * @return 作业列表
+     */
+    List<AssignmentVO> getStudentAssignmentBoard(Long studentId);
+
     /**
      * 检查作业是否已过截止时间
      */
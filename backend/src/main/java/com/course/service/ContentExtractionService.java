@@ -0,0 +1,32 @@
+package com.course.service;
+
+import com.course.vo.ExtractionStatsVO;
+
+/**
+ * 资源文档文本提取服务
+ */
+public interface ContentExtractionService {
+
+    /**
+     * 登记资源待提取，事务提交后交给后台线程提取，不阻塞当前请求
+     * @param resourceId 资源ID
+     */
+    void submit(Long resourceId);
+
+    /**
+     * 删除资源的提取结果
+     * @param resourceId 资源ID
+     */
+    void remove(Long resourceId);
+
+    /**
+     * 为还没有提取记录的已有资源补登记，由后台逐步提取
+     * @return 登记的资源数
+     */
+    int backfill();
+
+    /**
+     * @return 提取进度和积压统计
+     */
+    ExtractionStatsVO getStats();
+}
@@ -4,6 +4,7 @@ import com.course.dto.CourseDTO;
 import com.course.entity.Course;
 import com.course.entity.User;
 import com.course.vo.CourseVO;
+import com.course.vo.EnrollmentResultVO;
 
 import java.util.List;
 
@@ -72,6 +73,14 @@ public interface CourseService {
      * @param classname 班级名称
      */
     void addStudentsByClass(Long courseId, String classname);
+
+    /**
+     * 把多个班级的学生批量加入多门课程，已在课程中的学生跳过
+     * @param courseIds 课程ID列表
+     * @param classnames 班级名称列表
+     * @return 每门课程的新增数和跳过数
+     */
+    List<EnrollmentResultVO> enrollClasses(List<Long> courseIds, List<String> classnames);
     
     /**
      * 添加单个学生到课程
@@ -0,0 +1,46 @@
+package com.course.service;
+
+/**
+ * 课程统计服务（学生数、资源数、作业数）
+ */
+public interface CourseStatsService {
+
+    /**
+     * 初始化课程统计记录
+     * @param courseId 课程ID
+     */
+    void initCourse(Long courseId);
+
+    /**
+     * 删除课程统计记录
+     * @param courseId 课程ID
+     */
+    void removeCourse(Long courseId);
+
+    /**
+     * 调整选课学生数
+     * @param courseId 课程ID
+     * @param delta 增量（可为负数）
+     */
+    void adjustStudentCount(Long courseId, int delta);
+
+    /**
+     * 调整资源数
+     * @param courseId 课程ID
+     * @param delta 增量（可为负数）
+     */
+    void adjustResourceCount(Long courseId, int delta);
+
+    /**
+     * 调整作业数
+     * @param courseId 课程ID
+     * @param delta 增量（可为负数）
+     */
+    void adjustHomeworkCount(Long courseId, int delta);
+
+    /**
+     * 按业务表重建全部课程统计
+     * @return 重建的课程数
+     */
+    int rebuild();
+}
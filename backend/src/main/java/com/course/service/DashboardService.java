@@ -1,8 +1,10 @@
 package com.course.service;
 
 import com.course.vo.AssignmentVO;
+import com.course.vo.DashboardStatsVO;
 import com.course.vo.ResourceVO;
 
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -26,8 +28,24 @@ public interface DashboardService {
     List<ResourceVO> getRecentResources();
     
     /**
-     * 获取月度统计数据
+     * 获取最近6个月的月度统计数据
      * @return 包含月份、资源数量、作业数量的统计信息
      */
     Map<String, List<?>> getMonthlyStats();
+
+    /**
+     * 获取指定月份区间的月度统计数据
+     * @param from 起始月份（含）
+     * @param to 结束月份（含）
+     * @return 包含月份、资源数量、作业数量的统计信息
+     */
+    Map<String, List<?>> getMonthlyStats(YearMonth from, YearMonth to);
+
+    /**
+     * 一次读取总数和月度统计
+     * @param from 起始月份（含）
+     * @param to 结束月份（含）
+     * @return 仪表盘统计数据
+     */
+    DashboardStatsVO getSummary(YearMonth from, YearMonth to);
 }
@@ -0,0 +1,44 @@
+package com.course.service;
+
+import com.course.vo.DashboardStatsVO;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * 仪表盘统计快照服务（课程、资源、作业的总数和每月新增数）
+ */
+public interface DashboardStatsService {
+
+    String COURSES = "courses";
+    String RESOURCES = "resources";
+    String ASSIGNMENTS = "assignments";
+
+    /**
+     * 记录新增
+     * @param metric 指标
+     * @param createTime 记录的创建时间
+     */
+    void recordCreated(String metric, LocalDateTime createTime);
+
+    /**
+     * 记录删除
+     * @param metric 指标
+     * @param createTime 被删除记录的创建时间
+     */
+    void recordDeleted(String metric, LocalDateTime createTime);
+
+    /**
+     * 读取统计快照
+     * @param from 起始月份（含）
+     * @param to 结束月份（含）
+     * @return 总数和区间内每月新增数
+     */
+    DashboardStatsVO getSnapshot(YearMonth from, YearMonth to);
+
+    /**
+     * 按业务表重建统计快照
+     * @return 影响的行数
+     */
+    int rebuild();
+}
@@ -0,0 +1,71 @@
+package com.course.service;
+
+import com.course.service.support.InspectingInputStream;
+import com.course.vo.StorageMigrationVO;
+import com.course.vo.StorageStatsVO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 内容寻址存储服务
+ * <p>
+ * 文件按 SHA-256 摘要保存到 {@code cas/ab/cd/<digest>}，相同内容只保存一份，
+ * 每次保存增加一次引用，删除时减少引用，引用数归零后才删除磁盘文件。
+ */
+public interface FileBlobService {
+
+    /**
+     * 是否启用内容寻址存储（file.upload.storage-mode=cas）
+     */
+    boolean isEnabled();
+
+    /**
+     * 保存文件：写入临时文件时由输入流同步计算摘要，内容已存在时只增加引用
+     * @param inputStream 文件内容
+     * @return 文件存储路径
+     */
+    String store(InspectingInputStream inputStream) throws IOException;
+
+    /**
+     * 保存已计算过摘要的本地文件：内容不存在时移动到摘要对应位置，否则删除源文件并只增加引用
+     * @param source 本地文件（需与存储目录在同一文件系统）
+     * @param digest SHA-256 摘要
+     * @param size 文件大小
+     * @return 文件存储路径
+     */
+    String storeLocal(Path source, String digest, long size) throws IOException;
+
+    /**
+     * 判断路径是否位于内容寻址存储目录下
+     * @param filePath 文件路径
+     * @return 是否为内容寻址存储的文件
+     */
+    boolean isBlobPath(String filePath);
+
+    /**
+     * 释放一次引用，引用数归零时（事务提交后）删除文件
+     * @param filePath 文件路径
+     * @return 是否释放成功
+     */
+    boolean release(String filePath);
+
+    /**
+     * 按下载地址释放一次引用（用于作业附件），不是内容寻址存储的地址时忽略
+     * @param fileUrl 文件下载地址
+     * @return 是否释放成功
+     */
+    boolean releaseUrl(String fileUrl);
+
+    /**
+     * 把资源和作业附件中按日期目录保存的已有文件迁移到内容寻址存储
+     * @return 迁移结果
+     */
+    StorageMigrationVO migrateExistingFiles();
+
+    /**
+     * 获取去重统计
+     * @return 统计数据
+     */
+    StorageStatsVO getStats();
+}
@@ -1,7 +1,10 @@
 package com.course.service;
 
+import com.course.service.support.StoredFile;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 
 public interface FileService {
     /**
@@ -11,6 +14,22 @@ public interface FileService {
      */
     String storeFile(MultipartFile file) throws IOException;
 
+    /**
+     * 以流方式存储文件，读取一次即完成大小限制、内容类型校验和摘要计算
+     * @param inputStream 文件内容
+     * @param originalFilename 原始文件名
+     * @return 已保存文件的信息
+     */
+    StoredFile storeStream(InputStream inputStream, String originalFilename) throws IOException;
+
+    /**
+     * 把服务器上已组装好的文件（如分片上传的临时文件）校验后移动到存储位置
+     * @param source 本地文件，成功后会被移走或删除
+     * @param originalFilename 原始文件名
+     * @return 已保存文件的信息
+     */
+    StoredFile storeLocalFile(Path source, String originalFilename) throws IOException;
+
     /**
      * 删除文件
      * @param filePath 文件路径
@@ -0,0 +1,46 @@
+package com.course.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.course.entity.Resource;
+
+/**
+ * 资源全文搜索服务
+ */
+public interface ResourceSearchService {
+
+    /**
+     * 每页最多条数
+     */
+    int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 可翻页的结果窗口，只能翻到按相关度排序的前 MAX_RESULT_WINDOW 条，total 仍为全部命中数
+     */
+    int MAX_RESULT_WINDOW = 1000;
+
+    /**
+     * 分页搜索资源，按相关度排序
+     * @param keyword 关键词
+     * @param courseId 课程ID，为 null 时搜索全部课程
+     * @param page 页码，从 1 开始
+     * @param size 每页条数，最大 MAX_PAGE_SIZE
+     * @return 分页结果，超出 MAX_RESULT_WINDOW 的页没有记录
+     */
+    IPage<Resource> search(String keyword, Long courseId, int page, int size);
+
+    /**
+     * 事务提交后把资源写入索引（新增或更新）
+     */
+    void indexResource(Resource resource);
+
+    /**
+     * 事务提交后从索引中删除资源
+     */
+    void removeResource(Long resourceId);
+
+    /**
+     * 从数据库重建索引
+     * @return 索引的资源数
+     */
+    int rebuild();
+}
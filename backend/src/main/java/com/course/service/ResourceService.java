@@ -2,7 +2,10 @@ package com.course.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.course.dto.ResourceDTO;
+import com.course.dto.ResourceQueryDTO;
 import com.course.entity.Resource;
+import com.course.service.support.StoredFile;
+import com.course.vo.CursorPageVO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -18,9 +21,15 @@ public interface ResourceService {
     Resource uploadResource(ResourceDTO resourceDTO, MultipartFile file, Long uploaderId);
 
     /**
-     * 下载资源
+     * 为已保存的文件创建资源记录（流式上传）
+     * <p>
+     * 文件在事务外保存，创建失败时由调用方在事务外删除文件，避免引用计数随事务回滚
+     * @param resourceDTO 资源信息
+     * @param storedFile 已保存的文件
+     * @param uploaderId 上传者ID
+     * @return 上传成功的资源对象
      */
-    Resource downloadResource(Long id);
+    Resource uploadResource(ResourceDTO resourceDTO, StoredFile storedFile, Long uploaderId);
 
     /**
      * 删除资源
@@ -42,6 +51,11 @@ public interface ResourceService {
      */
     List<Resource> getCourseResources(Long courseId);
 
+    /**
+     * 按 (创建时间, ID) 倒序游标分页查询资源
+     */
+    CursorPageVO<Resource> pageResources(ResourceQueryDTO query);
+
     /**
      * 获取用户上传的所有资源
      */
@@ -53,9 +67,9 @@ public interface ResourceService {
     IPage<Resource> getResourcesByDownloads(int page, int size);
 
     /**
-     * 搜索资源
+     * 分页搜索资源，按相关度排序，每页最多 ResourceSearchService.MAX_PAGE_SIZE 条
      */
-    List<Resource> searchResources(String keyword);
+    IPage<Resource> searchResources(String keyword, int page, int size);
 
     /**
      * 更新资源
@@ -0,0 +1,64 @@
+package com.course.service;
+
+import com.course.dto.UploadSessionDTO;
+import com.course.service.support.StoredFile;
+import com.course.vo.UploadSessionVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 分片上传会话服务
+ * <p>
+ * 客户端先创建会话，再按序号上传分片（可并行、可重传），最后合并。
+ * 分片按偏移量直接写入同一个临时文件，合并时只做一次校验读取并移动到最终存储位置。
+ */
+public interface UploadSessionService {
+
+    /**
+     * 创建上传会话
+     * @param sessionDTO 文件信息
+     * @param userId 上传用户ID
+     * @return 会话状态
+     */
+    UploadSessionVO createSession(UploadSessionDTO sessionDTO, Long userId);
+
+    /**
+     * 上传一个分片
+     * @param sessionId 会话ID
+     * @param chunkIndex 分片序号（从0开始，偏移量 = 序号 × 分片大小）
+     * @param inputStream 分片内容
+     * @param contentLength 请求声明的分片大小，未知时传-1
+     * @param userId 上传用户ID
+     */
+    void uploadChunk(String sessionId, int chunkIndex, InputStream inputStream, long contentLength, Long userId) throws IOException;
+
+    /**
+     * 查询会话状态（含已接收的分片序号，用于断点续传）
+     * @param sessionId 会话ID
+     * @param userId 上传用户ID
+     * @return 会话状态
+     */
+    UploadSessionVO getSession(String sessionId, Long userId);
+
+    /**
+     * 合并分片并保存文件
+     * @param sessionId 会话ID
+     * @param userId 上传用户ID
+     * @return 已保存文件的信息
+     */
+    StoredFile completeSession(String sessionId, Long userId) throws IOException;
+
+    /**
+     * 取消会话并删除已上传的分片
+     * @param sessionId 会话ID
+     * @param userId 上传用户ID
+     */
+    void cancelSession(String sessionId, Long userId);
+
+    /**
+     * 清理长时间不活跃的会话
+     * @return 清理的会话数
+     */
+    int cleanupInactiveSessions();
+}
@@ -0,0 +1,33 @@
+package com.course.service;
+
+import com.course.vo.UserImportJobVO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+
+/**
+ * 用户批量导入服务（CSV / xlsx）
+ */
+public interface UserImportService {
+
+    /**
+     * 保存上传的文件并在后台开始导入
+     * @param file 表格文件，首行为表头
+     * @return 导入任务
+     */
+    UserImportJobVO startImport(MultipartFile file);
+
+    /**
+     * 查询导入进度
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    UserImportJobVO getJob(String jobId);
+
+    /**
+     * 获取逐行错误报告（CSV）
+     * @param jobId 任务ID
+     * @return 报告文件路径，任务完成后才可下载
+     */
+    Path getReport(String jobId);
+}
@@ -13,16 +13,24 @@ import com.course.mapper.CourseMapper;
 import com.course.mapper.StudentCourseMapper;
 import com.course.mapper.UserMapper;
 import com.course.service.AssignmentService;
+import com.course.service.CourseStatsService;
+import com.course.service.DashboardStatsService;
+import com.course.service.support.BatchNameEnricher;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import com.course.utils.SecurityUtils;
+import com.course.vo.AssignmentVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,6 +42,10 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
     private final CourseMapper courseMapper;
     private final StudentCourseMapper studentCourseMapper;
     private final UserMapper userMapper;
+    private final BatchNameEnricher batchNameEnricher;
+    private final CourseStatsService courseStatsService;
+    private final DashboardStatsService dashboardStatsService;
+    private final CacheInvalidator cacheInvalidator;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -55,6 +67,8 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
             throw new ServiceException("只能在自己的课程中发布作业");
         }
 
+        cacheInvalidator.evict(CacheKeys.ASSIGNMENT_CACHE, CacheKeys.courseAssignments(assignmentDTO.getCourseId()));
+
         try {
             // 创建作业
             Assignment assignment = new Assignment();
@@ -63,6 +77,8 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
             assignment.setCreateTime(LocalDateTime.now());
             assignment.setStatus("active");
             assignmentMapper.insert(assignment);
+            courseStatsService.adjustHomeworkCount(assignment.getCourseId(), 1);
+            dashboardStatsService.recordCreated(DashboardStatsService.ASSIGNMENTS, assignment.getCreateTime());
             log.info("作业创建成功, ID: {}", assignment.getId());
         } catch (Exception e) {
             log.error("作业创建失败", e);
@@ -91,11 +107,29 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
             if (!course.getTeacherId().equals(SecurityUtils.getCurrentUserId())) {
                 throw new ServiceException("无权修改此作业");
             }
+            cacheInvalidator.evict(CacheKeys.ASSIGNMENT_CACHE, CacheKeys.assignment(id),
+                    CacheKeys.courseAssignments(assignment.getCourseId()));
+            if (assignmentDTO.getCourseId() != null && !assignmentDTO.getCourseId().equals(assignment.getCourseId())) {
+                cacheInvalidator.evict(CacheKeys.ASSIGNMENT_CACHE, CacheKeys.courseAssignments(assignmentDTO.getCourseId()));
+            }
 
             // 更新作业
+            Long oldCourseId = assignment.getCourseId();
+            boolean wasActive = "active".equals(assignment.getStatus());
             BeanUtils.copyProperties(assignmentDTO, assignment);
             assignment.setUpdateTime(LocalDateTime.now());
             assignmentMapper.updateById(assignment);
+
+            // 更换课程或切换状态时，作业数从原课程转到新课程
+            boolean active = "active".equals(assignment.getStatus());
+            if (wasActive != active || !Objects.equals(oldCourseId, assignment.getCourseId())) {
+                if (wasActive) {
+                    courseStatsService.adjustHomeworkCount(oldCourseId, -1);
+                }
+                if (active) {
+                    courseStatsService.adjustHomeworkCount(assignment.getCourseId(), 1);
+                }
+            }
             log.info("作业更新成功");
         } catch (Exception e) {
             log.error("作业更新失败", e);
@@ -124,11 +158,17 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
             if (!course.getTeacherId().equals(SecurityUtils.getCurrentUserId())) {
                 throw new ServiceException("无权删除此作业");
             }
+            cacheInvalidator.evict(CacheKeys.ASSIGNMENT_CACHE, CacheKeys.assignment(id),
+                    CacheKeys.courseAssignments(assignment.getCourseId()));
 
             // 逻辑删除
+            boolean wasActive = "active".equals(assignment.getStatus());
             assignment.setStatus("inactive");
             assignment.setUpdateTime(LocalDateTime.now());
             assignmentMapper.updateById(assignment);
+            if (wasActive) {
+                courseStatsService.adjustHomeworkCount(assignment.getCourseId(), -1);
+            }
             log.info("作业删除成功");
         } catch (Exception e) {
             log.error("作业删除失败", e);
@@ -137,6 +177,7 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
     }
 
     @Override
+    @Cacheable(value = CacheKeys.ASSIGNMENT_CACHE, key = "T(com.course.service.support.CacheKeys).assignment(#id)")
     public Assignment getAssignmentById(Long id) {
         log.info("获取作业详情, ID: {}", id);
         try {
@@ -192,23 +233,20 @@ public class AssignmentServiceImpl extends ServiceImpl<AssignmentMapper, Assignm
                         .orderByDesc("create_time");
         List<Assignment> assignments = assignmentMapper.selectList(assignmentWrapper);
         
-        // 填充课程和教师信息
-        for (Assignment assignment : assignments) {
-            Course course = courseMapper.selectById(assignment.getCourseId());
-            if (course != null) {
-                assignment.setCourseName(course.getName());
-            }
-            
-            User teacher = userMapper.selectById(assignment.getTeacherId());
-            if (teacher != null) {
-                assignment.setTeacherName(teacher.getRealName());
-            }
-        }
+        // 批量填充课程和教师信息，查询次数与作业数量无关
+        batchNameEnricher.fillCourseNames(assignments, Assignment::getCourseId, Assignment::setCourseName);
+        batchNameEnricher.fillUserNames(assignments, Assignment::getTeacherId, Assignment::setTeacherName);
         
         return assignments;
     }
 
     @Override
+    public List<AssignmentVO> getStudentAssignmentBoard(Long studentId) {
+        return assignmentMapper.findStudentBoard(studentId);
+    }
+
+    @Override
+    @Cacheable(value = CacheKeys.ASSIGNMENT_CACHE, key = "T(com.course.service.support.CacheKeys).courseAssignments(#courseId)")
     public List<Assignment> getAssignmentsByCourseId(Long courseId) {
         QueryWrapper<Assignment> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("course_id", courseId)
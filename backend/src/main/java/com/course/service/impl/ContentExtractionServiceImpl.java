@@ -0,0 +1,350 @@
+package com.course.service.impl;
+
+import com.course.entity.Resource;
+import com.course.entity.ResourceContent;
+import com.course.mapper.ResourceContentMapper;
+import com.course.mapper.ResourceMapper;
+import com.course.service.ContentExtractionService;
+import com.course.service.ResourceSearchService;
+import com.course.service.support.extract.BoundedTextWriter;
+import com.course.service.support.extract.ExtractionLimitException;
+import com.course.service.support.extract.ExtractionProgress;
+import com.course.service.support.extract.TextExtractor;
+import com.course.vo.ExtractionStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 资源文档文本提取服务实现
+ * <p>
+ * 上传事务提交后把资源放入有界线程池提取文本，提取结果写入 resource_content 表并更新搜索索引。
+ * 每个文件受大小、字符数和耗时限制，超出字符数或耗时时保留已提取的部分并标记截断。
+ * 解析包装成 FutureTask 在工作线程中执行，超时后由定时器取消（中断工作线程），可中断的 I/O 和每次写出文本时都会响应取消。
+ * 线程池满时任务保持待提取状态，由定时任务从数据库补扫，实例重启后未完成的任务同样会被补扫。
+ * <p>
+ * 积压和进度记录在 {@link ExtractionProgress} 中并以 app.extraction.* 指标导出，数据库中的待提取数在每次补扫时刷新。
+ */
+@Slf4j
+@Service
+public class ContentExtractionServiceImpl implements ContentExtractionService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ResourceMapper resourceMapper;
+    private final ResourceContentMapper resourceContentMapper;
+    private final ResourceSearchService resourceSearchService;
+    private final Map<String, TextExtractor> extractors = new HashMap<>();
+
+    @Value("${app.extraction.workers:2}")
+    private int workers;
+
+    @Value("${app.extraction.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${app.extraction.max-file-size:52428800}")
+    private long maxFileSize;
+
+    @Value("${app.extraction.max-chars:200000}")
+    private int maxChars;
+
+    @Value("${app.extraction.timeout:30000}")
+    private long timeoutMillis;
+
+    @Value("${app.extraction.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService timeoutScheduler;
+
+    /**
+     * 已提交到线程池、尚未完成的资源ID，避免补扫时重复提交
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final ExtractionProgress progress;
+
+    public ContentExtractionServiceImpl(ResourceMapper resourceMapper,
+                                        ResourceContentMapper resourceContentMapper,
+                                        ResourceSearchService resourceSearchService,
+                                        ExtractionProgress progress,
+                                        List<TextExtractor> extractorList) {
+        this.resourceMapper = resourceMapper;
+        this.resourceContentMapper = resourceContentMapper;
+        this.resourceSearchService = resourceSearchService;
+        this.progress = progress;
+        for (TextExtractor extractor : extractorList) {
+            for (String extension : extractor.getExtensions()) {
+                extractors.put(extension, extractor);
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "content-extract-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                // 提取是后台任务，让出 CPU 给请求线程
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        progress.attach(executor);
+        timeoutScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "content-extract-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("文档文本提取线程池已启动, 线程数: {}, 队列容量: {}, 支持的扩展名: {}",
+            workers, queueCapacity, extractors.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+    }
+
+    @Override
+    public void submit(Long resourceId) {
+        if (resourceId == null) {
+            return;
+        }
+        resourceContentMapper.markPending(resourceId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(resourceId);
+                }
+            });
+        } else {
+            enqueue(resourceId);
+        }
+    }
+
+    @Override
+    public void remove(Long resourceId) {
+        if (resourceId != null) {
+            resourceContentMapper.deleteById(resourceId);
+        }
+    }
+
+    @Override
+    public int backfill() {
+        int count = resourceContentMapper.backfillMissing();
+        log.info("补登记待提取资源: {}", count);
+        return count;
+    }
+
+    @Override
+    public ExtractionStatsVO getStats() {
+        ExtractionStatsVO stats = new ExtractionStatsVO();
+        stats.setPendingCount(resourceContentMapper.countByStatus(ResourceContent.STATUS_PENDING));
+        stats.setDoneCount(resourceContentMapper.countByStatus(ResourceContent.STATUS_DONE));
+        stats.setFailedCount(resourceContentMapper.countByStatus(ResourceContent.STATUS_FAILED));
+        stats.setSkippedCount(resourceContentMapper.countByStatus(ResourceContent.STATUS_SKIPPED));
+        stats.setQueuedTasks(progress.getQueuedTasks());
+        stats.setActiveWorkers(progress.getActiveWorkers());
+        stats.setCompleted(progress.getCompleted().get());
+        stats.setFailed(progress.getFailed().get());
+        stats.setSkipped(progress.getSkipped().get());
+        stats.setTruncated(progress.getTruncated().get());
+        stats.setTimedOut(progress.getTimedOut().get());
+        stats.setRejected(progress.getRejected().get());
+        stats.setExtractedChars(progress.getExtractedChars().get());
+        long processed = progress.getProcessed();
+        stats.setAverageMillis(processed == 0 ? 0.0 : (double) progress.getTotalMillis().get() / processed);
+        return stats;
+    }
+
+    /**
+     * 补扫待提取的资源：线程池满时被拒绝的任务、重启前未完成的任务和补登记的资源
+     */
+    @Scheduled(fixedDelayString = "${app.extraction.sweep-interval:60000}")
+    public void sweepPending() {
+        try {
+            progress.getPendingBacklog().set(resourceContentMapper.countByStatus(ResourceContent.STATUS_PENDING));
+        } catch (Exception e) {
+            log.warn("统计待提取资源数失败", e);
+        }
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        try {
+            for (Long resourceId : resourceContentMapper.findPendingIds(Math.min(capacity, sweepBatchSize))) {
+                if (!enqueue(resourceId)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("补扫待提取资源失败", e);
+        }
+    }
+
+    private boolean enqueue(Long resourceId) {
+        if (!inFlight.add(resourceId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    extract(resourceId);
+                } finally {
+                    inFlight.remove(resourceId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(resourceId);
+            progress.getRejected().incrementAndGet();
+            log.debug("提取队列已满，等待补扫, 资源ID: {}", resourceId);
+            return false;
+        }
+    }
+
+    private void extract(Long resourceId) {
+        Resource resource = resourceMapper.selectById(resourceId);
+        if (resource == null) {
+            resourceContentMapper.deleteById(resourceId);
+            return;
+        }
+        ResourceContent result = new ResourceContent();
+        result.setResourceId(resourceId);
+        result.setCharCount(0);
+        result.setTruncated(false);
+
+        TextExtractor extractor = extractors.get(extensionOf(resource));
+        Path file = StringUtils.hasText(resource.getFilePath()) ? Paths.get(resource.getFilePath()) : null;
+        if (extractor == null || file == null || !Files.isRegularFile(file)) {
+            skip(result, extractor == null ? "不支持的文件类型" : "文件不存在");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long size = Files.size(file);
+            if (size > maxFileSize) {
+                skip(result, "文件大小 " + size + " 超出限制");
+                return;
+            }
+            BoundedTextWriter output = new BoundedTextWriter(maxChars);
+            parse(extractor, file, output, result);
+            String text = output.getText();
+            result.setContent(text);
+            result.setCharCount(text.length());
+            result.setStatus(ResourceContent.STATUS_DONE);
+            resourceContentMapper.saveResult(result);
+            progress.getCompleted().incrementAndGet();
+            progress.getExtractedChars().addAndGet(text.length());
+
+            resource.setContent(text);
+            resourceSearchService.indexResource(resource);
+            log.debug("资源文本提取完成, 资源ID: {}, 字符数: {}, 截断: {}, 耗时: {} ms",
+                resourceId, text.length(), result.getTruncated(), System.currentTimeMillis() - start);
+        } catch (Exception | LinkageError e) {
+            // 解析库遇到损坏文件时可能抛出非受检异常
+            log.warn("资源文本提取失败, 资源ID: {}, 文件: {}", resourceId, resource.getFileName(), e);
+            result.setStatus(ResourceContent.STATUS_FAILED);
+            result.setErrorMessage(abbreviate(e.toString()));
+            saveQuietly(result);
+            progress.getFailed().incrementAndGet();
+        } finally {
+            progress.getTotalMillis().addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * 在当前线程中解析文件，超时后取消任务；超出限制时保留已写出的文本并标记截断
+     */
+    private void parse(TextExtractor extractor, Path file, BoundedTextWriter output, ResourceContent result)
+            throws Exception {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            extractor.extract(file, output);
+            return null;
+        });
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> task.cancel(true),
+            timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            task.run();
+            task.get();
+        } catch (CancellationException e) {
+            progress.getTimedOut().incrementAndGet();
+            markTruncated(result, "提取超时");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ExtractionLimitException) {
+                markTruncated(result, cause.getMessage());
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw (Exception) cause;
+            }
+        } finally {
+            timeout.cancel(false);
+            // 解析刚结束时可能恰好被取消，清除残留的中断标记，避免影响之后的数据库写入
+            Thread.interrupted();
+        }
+    }
+
+    private void markTruncated(ResourceContent result, String reason) {
+        result.setTruncated(true);
+        result.setErrorMessage(reason);
+        progress.getTruncated().incrementAndGet();
+    }
+
+    private void skip(ResourceContent result, String reason) {
+        result.setStatus(ResourceContent.STATUS_SKIPPED);
+        result.setErrorMessage(reason);
+        saveQuietly(result);
+        progress.getSkipped().incrementAndGet();
+    }
+
+    private void saveQuietly(ResourceContent result) {
+        try {
+            resourceContentMapper.saveResult(result);
+        } catch (Exception e) {
+            log.error("保存提取结果失败, 资源ID: {}", result.getResourceId(), e);
+        }
+    }
+
+    private String extensionOf(Resource resource) {
+        String name = StringUtils.hasText(resource.getFileName()) ? resource.getFileName() : resource.getFilePath();
+        String extension = StringUtils.getFilenameExtension(name);
+        return extension == null ? "" : extension.toLowerCase(Locale.ROOT);
+    }
+
+    private String abbreviate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
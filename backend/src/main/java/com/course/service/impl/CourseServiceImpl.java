@@ -1,5 +1,6 @@
 package com.course.service.impl;
 
+import com.course.common.datasource.ReadReplica;
 import com.course.common.exception.ServiceException;
 import com.course.dto.CourseDTO;
 import com.course.entity.Course;
@@ -11,15 +12,28 @@ import com.course.mapper.CourseSelectionMapper;
 import com.course.mapper.StudentCourseMapper;
 import com.course.mapper.UserMapper;
 import com.course.service.CourseService;
+import com.course.service.CourseStatsService;
+import com.course.service.DashboardStatsService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
+import com.course.service.support.CourseCacheLoader;
 import com.course.vo.CourseVO;
+import com.course.vo.EnrollmentResultVO;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static com.course.common.constant.UserRoleConstants.ROLE_TEACHER;
@@ -30,10 +44,19 @@ public class CourseServiceImpl implements CourseService {
 
     private static final Logger log = LoggerFactory.getLogger(CourseServiceImpl.class);
 
+    /**
+     * 批量选课每条 INSERT 语句的行数
+     */
+    private static final int ENROLL_BATCH_SIZE = 500;
+
     private final CourseMapper courseMapper;
     private final UserMapper userMapper;
     private final StudentCourseMapper studentCourseMapper;
     private final CourseSelectionMapper courseSelectionMapper;
+    private final CourseStatsService courseStatsService;
+    private final DashboardStatsService dashboardStatsService;
+    private final CourseCacheLoader courseCacheLoader;
+    private final CacheInvalidator cacheInvalidator;
 
     @Override
     @Transactional
@@ -50,19 +73,25 @@ public class CourseServiceImpl implements CourseService {
         course.setTeacherId(courseDTO.getTeacherId());
 
         courseMapper.insert(course);
+        courseStatsService.initCourse(course.getId());
+        dashboardStatsService.recordCreated(DashboardStatsService.COURSES, course.getCreateTime());
     }
 
     @Override
     @Transactional
     public void updateCourse(Long id, CourseDTO courseDTO) {
-        log.info("开始更新课程，ID: {}, 更新内容: {}", id, courseDTO);
+        log.info("开始更新课程，ID: {}", id);
+        log.debug("更新内容: {}", courseDTO);
         
         Course course = courseMapper.selectById(id);
         if (course == null) {
             log.warn("课程不存在，ID: {}", id);
             throw new ServiceException("课程不存在");
         }
-        log.info("查询到原课程信息: {}", course);
+        log.debug("查询到原课程信息: {}", course);
+        // 资源列表中带有课程名称
+        cacheInvalidator.evict(CacheKeys.COURSE_CACHE, CacheKeys.course(id));
+        cacheInvalidator.evict(CacheKeys.RESOURCE_CACHE, CacheKeys.courseResources(id), CacheKeys.ALL_RESOURCES);
 
         // 如果要更改教师，先验证新教师是否存在且是教师角色
         if (courseDTO.getTeacherId() != null && !courseDTO.getTeacherId().equals(course.getTeacherId())) {
@@ -71,7 +100,7 @@ public class CourseServiceImpl implements CourseService {
                 log.warn("教师不存在或不是教师角色，teacherId: {}", courseDTO.getTeacherId());
                 throw new ServiceException("教师不存在");
             }
-            log.info("验证新教师信息成功: {}", teacher);
+            log.debug("验证新教师信息成功, teacherId: {}", teacher.getId());
         }
 
         // 更新课程信息
@@ -98,7 +127,10 @@ public class CourseServiceImpl implements CourseService {
             log.warn("课程不存在，ID: {}", id);
             throw new ServiceException("课程不存在");
         }
-        log.info("查询到课程信息: {}", course);
+        log.debug("查询到课程信息: {}", course);
+        cacheInvalidator.evict(CacheKeys.COURSE_CACHE, CacheKeys.course(id));
+        cacheInvalidator.evict(CacheKeys.RESOURCE_CACHE, CacheKeys.courseResources(id));
+        cacheInvalidator.evict(CacheKeys.ASSIGNMENT_CACHE, CacheKeys.courseAssignments(id));
 
         // 先删除学生选课记录
         int deleteStudentCount = studentCourseMapper.delete(
@@ -107,14 +139,18 @@ public class CourseServiceImpl implements CourseService {
         );
         log.info("删除学生选课记录数: {}", deleteStudentCount);
 
+        // 删除课程统计
+        courseStatsService.removeCourse(id);
+
         // 删除课程本身
         int result = courseMapper.deleteById(id);
-        log.info("删除课程结果: {}", result);
+        log.debug("删除课程结果: {}", result);
         
         if (result <= 0) {
             log.error("删除课程失败，ID: {}", id);
             throw new ServiceException("删除课程失败");
         }
+        dashboardStatsService.recordDeleted(DashboardStatsService.COURSES, course.getCreateTime());
         
         // 验证课程是否真的被删除
         int exists = courseMapper.checkCourseExists(id);
@@ -127,26 +163,12 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Cacheable(value = CacheKeys.COURSE_CACHE, key = "T(com.course.service.support.CacheKeys).course(#id)")
     public CourseVO getCourseById(Long id) {
-        Course course = courseMapper.selectById(id);
-        if (course == null) {
+        CourseVO courseVO = courseCacheLoader.loadCourse(id);
+        if (courseVO == null) {
             throw new ServiceException("课程不存在");
         }
-        
-        CourseVO courseVO = new CourseVO();
-        //BeanUtils.copyProperties(course, courseVO);
-        
-        // 获取教师信息
-        User teacher = userMapper.selectById(course.getTeacherId());
-        if (teacher != null) {
-            courseVO.setTeacherName(teacher.getRealName());
-        }
-        
-        courseVO.setId(course.getId());
-        courseVO.setName(course.getName());
-        courseVO.setDescription(course.getDescription());
-        courseVO.setTeacherId(course.getTeacherId());
-        
         return courseVO;
     }
 
@@ -172,6 +194,7 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @ReadReplica
     public List<CourseVO> getAllCourses() {
         List<Map<String, Object>> coursesWithDetails = courseMapper.findAllWithDetails();
         return coursesWithDetails.stream().map(this::convertToCourseVO).collect(Collectors.toList());
@@ -219,6 +242,7 @@ public class CourseServiceImpl implements CourseService {
         studentCourse.setCourseId(courseId);
 
         studentCourseMapper.insert(studentCourse);
+        courseStatsService.adjustStudentCount(courseId, 1);
     }
 
     @Override
@@ -229,11 +253,12 @@ public class CourseServiceImpl implements CourseService {
             throw new ServiceException("未选择这门课程");
         }
 
-        studentCourseMapper.delete(
+        int deleted = studentCourseMapper.delete(
             new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<StudentCourse>()
                 .eq("student_id", studentId)
                 .eq("course_id", courseId)
         );
+        courseStatsService.adjustStudentCount(courseId, -deleted);
     }
 
     @Override
@@ -244,28 +269,66 @@ public class CourseServiceImpl implements CourseService {
     @Override
     @Transactional
     public void addStudentsByClass(Long courseId, String classname) {
+        List<EnrollmentResultVO> results = enrollClasses(
+            Collections.singletonList(courseId), Collections.singletonList(classname));
+        EnrollmentResultVO result = results.get(0);
+        if (result.getAdded() + result.getSkipped() == 0) {
+            throw new ServiceException("该班级没有学生");
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<EnrollmentResultVO> enrollClasses(List<Long> courseIds, List<String> classnames) {
+        Set<Long> courses = new LinkedHashSet<>(courseIds);
+        Set<String> classes = new LinkedHashSet<>(classnames);
+        courses.remove(null);
+        classes.remove(null);
+        if (courses.isEmpty() || classes.isEmpty()) {
+            throw new ServiceException("课程和班级不能为空");
+        }
+
         // 验证课程是否存在
-        Course course = courseMapper.selectById(courseId);
-        if (course == null) {
-            throw new ServiceException("课程不存在");
+        List<Course> existing = courseMapper.selectBatchIds(courses);
+        if (existing.size() != courses.size()) {
+            Set<Long> missing = new LinkedHashSet<>(courses);
+            existing.forEach(course -> missing.remove(course.getId()));
+            throw new ServiceException("课程不存在: " + missing);
         }
 
-        // 获取该班级的所有学生
-        List<User> students = userMapper.findByClassname(classname);
-        if (students.isEmpty()) {
-            throw new ServiceException("该班级没有学生");
+        // 一次查出全部学生和已有选课记录，在内存中求差集
+        List<Long> studentIds = userMapper.findStudentIdsByClassnames(classes);
+        Map<Long, Set<Long>> enrolled = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            for (StudentCourse enrollment : studentCourseMapper.findEnrollmentsByClassnames(courses, classes)) {
+                enrolled.computeIfAbsent(enrollment.getCourseId(), id -> new HashSet<>()).add(enrollment.getStudentId());
+            }
         }
 
-        // 批量添加学生到课程
-        for (User student : students) {
-            // 检查是否已经在课程中
-            if (!studentCourseMapper.isEnrolled(student.getId(), courseId)) {
+        List<EnrollmentResultVO> results = new ArrayList<>(courses.size());
+        for (Long courseId : courses) {
+            Set<Long> current = enrolled.getOrDefault(courseId, Collections.emptySet());
+            List<StudentCourse> candidates = new ArrayList<>();
+            for (Long studentId : studentIds) {
+                if (current.contains(studentId)) {
+                    continue;
+                }
                 StudentCourse studentCourse = new StudentCourse();
-                studentCourse.setStudentId(student.getId());
+                studentCourse.setStudentId(studentId);
                 studentCourse.setCourseId(courseId);
-                studentCourseMapper.insert(studentCourse);
+                candidates.add(studentCourse);
+            }
+            // 以实际插入的行数为准：查询之后被并发添加的选课记录由唯一键跳过，不计入人数
+            int added = 0;
+            for (int from = 0; from < candidates.size(); from += ENROLL_BATCH_SIZE) {
+                added += studentCourseMapper.insertBatchIgnoreExisting(
+                    candidates.subList(from, Math.min(from + ENROLL_BATCH_SIZE, candidates.size())));
             }
+            courseStatsService.adjustStudentCount(courseId, added);
+            results.add(new EnrollmentResultVO(courseId, added, studentIds.size() - added));
         }
+        log.info("批量选课完成, 课程: {}, 班级: {}, 学生数: {}, 结果: {}", courses, classes, studentIds.size(), results);
+        return results;
     }
 
     @Override
@@ -293,6 +356,7 @@ public class CourseServiceImpl implements CourseService {
         studentCourse.setStudentId(studentId);
         studentCourse.setCourseId(courseId);
         studentCourseMapper.insert(studentCourse);
+        courseStatsService.adjustStudentCount(courseId, 1);
     }
 
     @Override
@@ -304,11 +368,12 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // 从课程中移除学生
-        studentCourseMapper.delete(
+        int deleted = studentCourseMapper.delete(
             new com.baomidou.mybatisplus.core.conditions.query.QueryWrapper<StudentCourse>()
                 .eq("student_id", studentId)
                 .eq("course_id", courseId)
         );
+        courseStatsService.adjustStudentCount(courseId, -deleted);
     }
 
     @Override
@@ -0,0 +1,72 @@
+package com.course.service.impl;
+
+import com.course.mapper.CourseStatsMapper;
+import com.course.service.CourseStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseStatsServiceImpl implements CourseStatsService {
+
+    private final CourseStatsMapper courseStatsMapper;
+
+    @Override
+    public void initCourse(Long courseId) {
+        courseStatsMapper.adjust(courseId, 0, 0, 0);
+    }
+
+    @Override
+    public void removeCourse(Long courseId) {
+        courseStatsMapper.deleteById(courseId);
+    }
+
+    @Override
+    public void adjustStudentCount(Long courseId, int delta) {
+        adjust(courseId, delta, 0, 0);
+    }
+
+    @Override
+    public void adjustResourceCount(Long courseId, int delta) {
+        adjust(courseId, 0, delta, 0);
+    }
+
+    @Override
+    public void adjustHomeworkCount(Long courseId, int delta) {
+        adjust(courseId, 0, 0, delta);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = courseStatsMapper.rebuildAll();
+        int orphans = courseStatsMapper.deleteOrphans();
+        log.info("课程统计重建完成, 影响行数: {}, 清理无效记录: {}, 耗时: {}ms",
+            rows, orphans, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 定时对账，修正增量维护过程中可能产生的偏差
+     */
+    @Scheduled(cron = "${app.course-stats.reconcile-cron:0 30 3 * * ?}")
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("课程统计对账失败", e);
+        }
+    }
+
+    private void adjust(Long courseId, int studentDelta, int resourceDelta, int homeworkDelta) {
+        if (courseId == null || (studentDelta == 0 && resourceDelta == 0 && homeworkDelta == 0)) {
+            return;
+        }
+        courseStatsMapper.adjust(courseId, studentDelta, resourceDelta, homeworkDelta);
+    }
+}
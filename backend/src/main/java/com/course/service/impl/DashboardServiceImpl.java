@@ -1,46 +1,45 @@
 package com.course.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.course.common.datasource.ReadReplica;
 import com.course.entity.Assignment;
-import com.course.entity.Course;
 import com.course.entity.Resource;
 import com.course.mapper.AssignmentMapper;
-import com.course.mapper.CourseMapper;
 import com.course.mapper.ResourceMapper;
 import com.course.service.DashboardService;
+import com.course.service.DashboardStatsService;
+import com.course.service.support.BatchNameEnricher;
 import com.course.vo.AssignmentVO;
+import com.course.vo.DashboardStatsVO;
 import com.course.vo.ResourceVO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.text.SimpleDateFormat;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * 首页统计服务实现，只有查询，可以读从库
+ */
 @Service
+@ReadReplica
 @RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
-    private final CourseMapper courseMapper;
+    private static final int DEFAULT_MONTHS = 6;
+
     private final ResourceMapper resourceMapper;
     private final AssignmentMapper assignmentMapper;
+    private final BatchNameEnricher batchNameEnricher;
+    private final DashboardStatsService dashboardStatsService;
 
     @Override
     public Map<String, Integer> getStats() {
+        YearMonth now = YearMonth.now();
         Map<String, Integer> stats = new HashMap<>();
-        
-        // 获取课程总数
-        Long courseCount = courseMapper.selectCount(new LambdaQueryWrapper<Course>());
-        stats.put("courses", courseCount.intValue());
-        
-        // 获取资源总数
-        Long resourceCount = resourceMapper.selectCount(new LambdaQueryWrapper<Resource>());
-        stats.put("resources", resourceCount.intValue());
-        
-        // 获取作业总数
-        Long assignmentCount = assignmentMapper.selectCount(new LambdaQueryWrapper<Assignment>());
-        stats.put("assignments", assignmentCount.intValue());
-        
+        dashboardStatsService.getSnapshot(now, now).getTotals()
+            .forEach((metric, count) -> stats.put(metric, count.intValue()));
         return stats;
     }
 
@@ -50,19 +49,18 @@ public class DashboardServiceImpl implements DashboardService {
         LambdaQueryWrapper<Assignment> queryWrapper = new LambdaQueryWrapper<Assignment>()
             .orderByDesc(Assignment::getCreateTime)
             .last("LIMIT 10");
-            
-        return assignmentMapper.selectList(queryWrapper)
-            .stream()
+
+        List<Assignment> assignments = assignmentMapper.selectList(queryWrapper);
+        // 批量获取课程名称
+        batchNameEnricher.fillCourseNames(assignments, Assignment::getCourseId, Assignment::setCourseName);
+
+        return assignments.stream()
             .map(assignment -> {
                 AssignmentVO vo = new AssignmentVO();
                 vo.setId(assignment.getId());
                 vo.setTitle(assignment.getTitle());
                 vo.setDeadline(assignment.getDeadline());
-                // 获取课程名称
-                Course course = courseMapper.selectById(assignment.getCourseId());
-                if (course != null) {
-                    vo.setCourseName(course.getName());
-                }
+                vo.setCourseName(assignment.getCourseName());
                 return vo;
             })
             .collect(Collectors.toList());
@@ -74,19 +72,18 @@ public class DashboardServiceImpl implements DashboardService {
         LambdaQueryWrapper<Resource> queryWrapper = new LambdaQueryWrapper<Resource>()
             .orderByDesc(Resource::getCreateTime)
             .last("LIMIT 10");
-            
-        return resourceMapper.selectList(queryWrapper)
-            .stream()
+
+        List<Resource> resources = resourceMapper.selectList(queryWrapper);
+        // 批量获取课程名称
+        batchNameEnricher.fillCourseNames(resources, Resource::getCourseId, Resource::setCourseName);
+
+        return resources.stream()
             .map(resource -> {
                 ResourceVO vo = new ResourceVO();
                 vo.setId(resource.getId());
                 vo.setName(resource.getName());
                 vo.setCreateTime(resource.getCreateTime());
-                // 获取课程名称
-                Course course = courseMapper.selectById(resource.getCourseId());
-                if (course != null) {
-                    vo.setCourseName(course.getName());
-                }
+                vo.setCourseName(resource.getCourseName());
                 return vo;
             })
             .collect(Collectors.toList());
@@ -94,48 +91,27 @@ public class DashboardServiceImpl implements DashboardService {
     
     @Override
     public Map<String, List<?>> getMonthlyStats() {
+        // 默认最近6个月
+        YearMonth now = YearMonth.now();
+        return getMonthlyStats(now.minusMonths(DEFAULT_MONTHS - 1), now);
+    }
+
+    @Override
+    public Map<String, List<?>> getMonthlyStats(YearMonth from, YearMonth to) {
+        DashboardStatsVO snapshot = dashboardStatsService.getSnapshot(from, to);
         Map<String, List<?>> result = new HashMap<>();
-        
-        // 获取最近6个月的月份标签
-        List<String> months = new ArrayList<>();
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM");
-        
-        for (int i = 5; i >= 0; i--) {
-            Calendar tempCal = (Calendar) cal.clone();
-            tempCal.add(Calendar.MONTH, -i);
-            months.add(sdf.format(tempCal.getTime()));
-        }
-        
-        result.put("months", months);
-        
-        // 获取每个月的资源数量
-        List<Integer> resourceCounts = new ArrayList<>();
-        // 获取每个月的作业数量
-        List<Integer> assignmentCounts = new ArrayList<>();
-        
-        for (String month : months) {
-            String startDate = month + "-01";
-            String endDate = month + "-31";
-            
-            // 统计当月资源数量
-            LambdaQueryWrapper<Resource> resourceWrapper = new LambdaQueryWrapper<Resource>()
-                .apply("DATE_FORMAT(create_time, '%Y-%m-%d') >= {0}", startDate)
-                .apply("DATE_FORMAT(create_time, '%Y-%m-%d') <= {0}", endDate);
-            Long resourceCount = resourceMapper.selectCount(resourceWrapper);
-            resourceCounts.add(resourceCount.intValue());
-            
-            // 统计当月作业数量
-            LambdaQueryWrapper<Assignment> assignmentWrapper = new LambdaQueryWrapper<Assignment>()
-                .apply("DATE_FORMAT(create_time, '%Y-%m-%d') >= {0}", startDate)
-                .apply("DATE_FORMAT(create_time, '%Y-%m-%d') <= {0}", endDate);
-            Long assignmentCount = assignmentMapper.selectCount(assignmentWrapper);
-            assignmentCounts.add(assignmentCount.intValue());
-        }
-        
-        result.put("resources", resourceCounts);
-        result.put("assignments", assignmentCounts);
-        
+        result.put("months", snapshot.getMonths());
+        result.put("resources", toIntegers(snapshot.getMonthly().get(DashboardStatsService.RESOURCES)));
+        result.put("assignments", toIntegers(snapshot.getMonthly().get(DashboardStatsService.ASSIGNMENTS)));
         return result;
     }
+
+    @Override
+    public DashboardStatsVO getSummary(YearMonth from, YearMonth to) {
+        return dashboardStatsService.getSnapshot(from, to);
+    }
+
+    private List<Integer> toIntegers(List<Long> counts) {
+        return counts.stream().map(Long::intValue).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,133 @@
+package com.course.service.impl;
+
+import com.course.common.exception.ServiceException;
+import com.course.entity.DashboardStat;
+import com.course.mapper.DashboardStatMapper;
+import com.course.service.DashboardStatsService;
+import com.course.vo.DashboardStatsVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 仪表盘统计快照服务实现
+ * <p>
+ * 快照按 (指标, 创建月份) 累计条数，增量随业务事务一起提交；读取时一次查出全部行，
+ * 在内存中汇总总数并取出月份区间。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStatsServiceImpl implements DashboardStatsService {
+
+    /**
+     * 创建时间为空的记录所在的月份，只计入总数
+     */
+    private static final String UNKNOWN_MONTH = "0000-00";
+    private static final int MAX_MONTHS = 120;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final List<String> METRICS = Arrays.asList(COURSES, RESOURCES, ASSIGNMENTS);
+
+    private final DashboardStatMapper dashboardStatMapper;
+
+    @Override
+    public void recordCreated(String metric, LocalDateTime createTime) {
+        adjust(metric, createTime, 1);
+    }
+
+    @Override
+    public void recordDeleted(String metric, LocalDateTime createTime) {
+        adjust(metric, createTime, -1);
+    }
+
+    @Override
+    public DashboardStatsVO getSnapshot(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new ServiceException("起始月份不能晚于结束月份");
+        }
+        List<String> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (months.size() >= MAX_MONTHS) {
+                throw new ServiceException("月份区间不能超过 " + MAX_MONTHS + " 个月");
+            }
+            months.add(month.format(MONTH_FORMATTER));
+        }
+
+        Map<String, Long> totals = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> byMonth = new HashMap<>();
+        for (String metric : METRICS) {
+            totals.put(metric, 0L);
+            byMonth.put(metric, new HashMap<>());
+        }
+        LocalDateTime updateTime = null;
+        for (DashboardStat stat : dashboardStatMapper.findAll()) {
+            Map<String, Long> counts = byMonth.get(stat.getMetric());
+            if (counts == null) {
+                continue;
+            }
+            long count = stat.getItemCount() == null ? 0 : stat.getItemCount();
+            totals.merge(stat.getMetric(), count, Long::sum);
+            counts.put(stat.getMonth(), count);
+            if (updateTime == null || (stat.getUpdateTime() != null && stat.getUpdateTime().isAfter(updateTime))) {
+                updateTime = stat.getUpdateTime();
+            }
+        }
+
+        Map<String, List<Long>> monthly = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            Map<String, Long> counts = byMonth.get(metric);
+            List<Long> series = new ArrayList<>(months.size());
+            for (String month : months) {
+                series.add(counts.getOrDefault(month, 0L));
+            }
+            monthly.put(metric, series);
+        }
+
+        DashboardStatsVO vo = new DashboardStatsVO();
+        vo.setTotals(totals);
+        vo.setMonths(months);
+        vo.setMonthly(monthly);
+        vo.setUpdateTime(updateTime);
+        return vo;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        int rows = dashboardStatMapper.rebuildAll();
+        int stale = dashboardStatMapper.deleteStale();
+        log.info("仪表盘统计重建完成, 影响行数: {}, 清理无效记录: {}, 耗时: {}ms",
+            rows, stale, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 定时对账，修正增量维护过程中可能产生的偏差
+     */
+    @Scheduled(cron = "${app.dashboard-stats.reconcile-cron:0 40 3 * * ?}")
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("仪表盘统计对账失败", e);
+        }
+    }
+
+    private void adjust(String metric, LocalDateTime createTime, long delta) {
+        String month = createTime == null ? UNKNOWN_MONTH : createTime.format(MONTH_FORMATTER);
+        dashboardStatMapper.adjust(metric, month, delta);
+    }
+}
@@ -0,0 +1,434 @@
+package com.course.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.course.common.exception.ServiceException;
+import com.course.entity.FileBlob;
+import com.course.entity.HomeworkSubmission;
+import com.course.entity.Resource;
+import com.course.mapper.FileBlobMapper;
+import com.course.mapper.HomeworkSubmissionMapper;
+import com.course.mapper.ResourceMapper;
+import com.course.service.FileBlobService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
+import com.course.service.support.InspectingInputStream;
+import com.course.vo.StorageMigrationVO;
+import com.course.vo.StorageStatsVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileBlobServiceImpl implements FileBlobService {
+
+    private static final String STORAGE_MODE_CAS = "cas";
+    private static final String CAS_DIR = "cas";
+    private static final String TMP_DIR = "tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final FileBlobMapper fileBlobMapper;
+    private final ResourceMapper resourceMapper;
+    private final HomeworkSubmissionMapper homeworkSubmissionMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 回收文件块使用独立的短事务：调用时外层事务已经提交或回滚
+     */
+    private TransactionTemplate purgeTransaction;
+
+    @Value("${file.upload.base-path}")
+    private String baseUploadPath;
+
+    @Value("${file.download.base-url}")
+    private String baseDownloadUrl;
+
+    @Value("${file.upload.storage-mode:dated}")
+    private String storageMode;
+
+    private Path basePath;
+    private Path casRoot;
+    private Path tmpRoot;
+
+    @PostConstruct
+    public void init() throws IOException {
+        basePath = Paths.get(baseUploadPath).toAbsolutePath().normalize();
+        casRoot = basePath.resolve(CAS_DIR);
+        tmpRoot = casRoot.resolve(TMP_DIR);
+        purgeTransaction = new TransactionTemplate(transactionManager);
+        purgeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (isEnabled()) {
+            Files.createDirectories(tmpRoot);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return STORAGE_MODE_CAS.equalsIgnoreCase(storageMode);
+    }
+
+    @Override
+    public String store(InspectingInputStream inputStream) throws IOException {
+        Files.createDirectories(tmpRoot);
+        // 临时文件与目标目录在同一文件系统，保证可以原子移动（只改元数据，不再复制内容）
+        Path temp = Files.createTempFile(tmpRoot, "upload-", ".tmp");
+        try {
+            long size = Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            String digest = inputStream.getDigest();
+            Path blobPath = commit(temp, digest, size);
+            log.info("文件保存成功: {}, 大小: {}", blobPath, size);
+            return blobPath.toString();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String storeLocal(Path source, String digest, long size) throws IOException {
+        try {
+            Path blobPath = commit(source, digest, size);
+            log.info("文件保存成功: {}, 大小: {}", blobPath, size);
+            return blobPath.toString();
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Override
+    public boolean isBlobPath(String filePath) {
+        return digestOf(filePath) != null;
+    }
+
+    @Override
+    public boolean release(String filePath) {
+        String digest = digestOf(filePath);
+        if (digest == null) {
+            return false;
+        }
+        fileBlobMapper.releaseReference(digest);
+        FileBlob blob = fileBlobMapper.selectById(digest);
+        if (blob != null && blob.getRefCount() != null && blob.getRefCount() > 0) {
+            log.debug("文件仍被引用, 摘要: {}, 引用数: {}", digest, blob.getRefCount());
+            return true;
+        }
+        // 事务回滚时引用不会减少，因此等提交后再删除文件
+        runAfterCommit(() -> purge(digest));
+        return true;
+    }
+
+    @Override
+    public boolean releaseUrl(String fileUrl) {
+        Path path = resolveUrl(fileUrl);
+        return path != null && release(path.toString());
+    }
+
+    @Override
+    public StorageMigrationVO migrateExistingFiles() {
+        StorageMigrationVO result = new StorageMigrationVO();
+        Map<Path, String> migrated = new LinkedHashMap<>();
+        Set<Path> keep = new HashSet<>();
+
+        List<Resource> resources = resourceMapper.selectList(new LambdaQueryWrapper<Resource>()
+            .select(Resource::getId, Resource::getFilePath));
+        for (Resource resource : resources) {
+            if (!StringUtils.hasText(resource.getFilePath()) || isBlobPath(resource.getFilePath())) {
+                continue;
+            }
+            Path source = Paths.get(resource.getFilePath()).toAbsolutePath().normalize();
+            String blobPath = migrateFile(source, migrated, result);
+            if (blobPath == null) {
+                continue;
+            }
+            try {
+                Resource update = new Resource();
+                update.setId(resource.getId());
+                update.setFilePath(blobPath);
+                resourceMapper.updateById(update);
+            } catch (Exception e) {
+                log.error("更新资源文件路径失败, 资源ID: {}", resource.getId(), e);
+                fileBlobMapper.releaseReference(digestOf(blobPath));
+                keep.add(source);
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+
+        List<HomeworkSubmission> submissions = homeworkSubmissionMapper.selectList(
+            new LambdaQueryWrapper<HomeworkSubmission>()
+                .select(HomeworkSubmission::getId, HomeworkSubmission::getAttachmentUrl)
+                .isNotNull(HomeworkSubmission::getAttachmentUrl));
+        for (HomeworkSubmission submission : submissions) {
+            Path source = resolveUrl(submission.getAttachmentUrl());
+            if (source == null || source.startsWith(casRoot)) {
+                continue;
+            }
+            String blobPath = migrateFile(source, migrated, result);
+            if (blobPath == null) {
+                continue;
+            }
+            try {
+                HomeworkSubmission update = new HomeworkSubmission();
+                update.setId(submission.getId());
+                update.setAttachmentUrl(toUrl(Paths.get(blobPath)));
+                homeworkSubmissionMapper.updateById(update);
+            } catch (Exception e) {
+                log.error("更新作业附件地址失败, 提交ID: {}", submission.getId(), e);
+                fileBlobMapper.releaseReference(digestOf(blobPath));
+                keep.add(source);
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+
+        // 批量修改了文件路径，直接清空相关缓存
+        cacheInvalidator.clear(CacheKeys.RESOURCE_CACHE);
+        cacheInvalidator.clear(CacheKeys.SUBMISSION_CACHE);
+
+        // 所有引用都已指向新文件后再删除原文件
+        for (Path source : migrated.keySet()) {
+            if (keep.contains(source)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException e) {
+                log.warn("删除已迁移的原文件失败: {}", source, e);
+            }
+        }
+        log.info("文件迁移完成: {}", result);
+        return result;
+    }
+
+    @Override
+    public StorageStatsVO getStats() {
+        StorageStatsVO stats = fileBlobMapper.selectStats();
+        if (stats == null) {
+            stats = new StorageStatsVO();
+        }
+        long stored = stats.getStoredBytes() == null ? 0 : stats.getStoredBytes();
+        long logical = stats.getLogicalBytes() == null ? 0 : stats.getLogicalBytes();
+        stats.setStorageMode(storageMode);
+        stats.setSavedBytes(logical - stored);
+        stats.setDedupRatio(stored == 0 ? 1.0 : (double) logical / stored);
+        return stats;
+    }
+
+    /**
+     * 迁移单个文件：复制到内容寻址目录并增加引用，原文件由调用方在更新记录后删除
+     */
+    private String migrateFile(Path source, Map<Path, String> migrated, StorageMigrationVO result) {
+        result.setScanned(result.getScanned() + 1);
+        try {
+            String known = migrated.get(source);
+            if (known != null) {
+                // 同一个原文件被多条记录引用
+                fileBlobMapper.addReference(digestOf(known), known, Files.size(Paths.get(known)));
+                return known;
+            }
+            if (!Files.isRegularFile(source)) {
+                log.warn("待迁移的文件不存在: {}", source);
+                result.setMissing(result.getMissing() + 1);
+                return null;
+            }
+
+            String digest = hash(source);
+            long size = Files.size(source);
+            boolean existed = Files.exists(blobPathOf(digest));
+
+            Files.createDirectories(tmpRoot);
+            Path temp = Files.createTempFile(tmpRoot, "migrate-", ".tmp");
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                String blobPath = commit(temp, digest, size).toString();
+                migrated.put(source, blobPath);
+                result.setMigrated(result.getMigrated() + 1);
+                if (existed) {
+                    result.setDeduplicated(result.getDeduplicated() + 1);
+                    result.setSavedBytes(result.getSavedBytes() + size);
+                }
+                return blobPath;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (Exception e) {
+            log.error("迁移文件失败: {}", source, e);
+            result.setFailed(result.getFailed() + 1);
+            return null;
+        }
+    }
+
+    /**
+     * 增加引用并把临时文件放到摘要对应的位置（内容已存在时丢弃临时文件）
+     * <p>
+     * 先增加引用：引用记录的行锁在调用方事务结束前一直持有，同一摘要的其他上传和 {@link #purge} 都要先拿到这把锁，
+     * 因此检查、移动文件时不会有别的事务同时删除它，也不需要另外的进程内锁。
+     */
+    private Path commit(Path temp, String digest, long size) throws IOException {
+        Path blobPath = blobPathOf(digest);
+        fileBlobMapper.addReference(digest, blobPath.toString(), size);
+        try {
+            if (Files.exists(blobPath)) {
+                log.debug("文件内容已存在, 复用: {}", digest);
+                return blobPath;
+            }
+            Files.createDirectories(blobPath.getParent());
+            try {
+                Files.move(temp, blobPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // 不在事务中时没有行锁保护，同内容的并发上传先完成了移动
+                log.debug("文件内容已存在, 复用: {}", digest);
+                return blobPath;
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, blobPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // 不在事务中时引用已经生效，需要撤销
+            fileBlobMapper.releaseReference(digest);
+            throw e;
+        }
+        discardOnRollback(digest);
+        return blobPath;
+    }
+
+    /**
+     * 在独立事务中删除已无引用的文件块
+     * <p>
+     * 先加一次引用（记录不存在时创建）锁住该摘要的记录，再撤销这次引用；引用仍为0时删除记录和磁盘文件。
+     * 删除文件期间一直持有行锁，同一摘要的上传在 addReference 处等待，之后看到文件不存在会重新写入。
+     */
+    private void purge(String digest) {
+        Path blobPath = blobPathOf(digest);
+        try {
+            purgeTransaction.executeWithoutResult(status -> {
+                fileBlobMapper.addReference(digest, blobPath.toString(), 0);
+                fileBlobMapper.releaseReference(digest);
+                if (fileBlobMapper.deleteUnreferenced(digest) > 0) {
+                    try {
+                        Files.deleteIfExists(blobPath);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    log.debug("文件引用归零, 已删除: {}", blobPath);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("删除文件失败, 摘要: {}", digest, e);
+        }
+    }
+
+    /**
+     * 本事务新写入的文件在回滚后按引用回收：回滚撤销了本事务的引用，
+     * 期间复用了该文件并已提交的其他上传仍持有引用，文件会被保留
+     */
+    private void discardOnRollback(String digest) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.info("事务回滚, 回收新写入的文件: {}", digest);
+                    purge(digest);
+                }
+            }
+        });
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private Path blobPathOf(String digest) {
+        return casRoot.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    private String digestOf(String filePath) {
+        if (!StringUtils.hasText(filePath)) {
+            return null;
+        }
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        if (!path.startsWith(casRoot) || path.getFileName() == null) {
+            return null;
+        }
+        String name = path.getFileName().toString();
+        return DIGEST_PATTERN.matcher(name).matches() ? name : null;
+    }
+
+    private Path resolveUrl(String url) {
+        String prefix = baseDownloadUrl + "/";
+        if (!StringUtils.hasText(url) || !url.startsWith(prefix)) {
+            return null;
+        }
+        Path path = basePath.resolve(url.substring(prefix.length())).normalize();
+        return path.startsWith(basePath) ? path : null;
+    }
+
+    private String toUrl(Path path) {
+        return baseDownloadUrl + "/" + basePath.relativize(path).toString().replace('\\', '/');
+    }
+
+    private String hash(Path file) throws IOException {
+        MessageDigest messageDigest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("不支持 SHA-256 摘要算法");
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
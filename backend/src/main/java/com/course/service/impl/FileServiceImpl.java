@@ -1,6 +1,10 @@
 package com.course.service.impl;
 
+import com.course.service.FileBlobService;
 import com.course.service.FileService;
+import com.course.service.support.InspectingInputStream;
+import com.course.service.support.StoredFile;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -11,6 +15,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -24,8 +29,11 @@ import java.util.UUID;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class FileServiceImpl implements FileService, InitializingBean {
 
+    private final FileBlobService fileBlobService;
+
     @Value("${file.upload.base-path}")
     private String baseUploadPath;
 
@@ -38,6 +46,8 @@ public class FileServiceImpl implements FileService, InitializingBean {
     @Value("${file.upload.max-size}")
     private Long maxFileSize;
     
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private Set<String> allowedExtensions;
     
     @Override
@@ -67,37 +77,112 @@ public class FileServiceImpl implements FileService, InitializingBean {
             throw new IllegalArgumentException("文件大小超过限制");
         }
 
-        String originalFilename = file.getOriginalFilename();
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeStream(inputStream, file.getOriginalFilename()).getFilePath();
+        }
+    }
+
+    @Override
+    public StoredFile storeStream(InputStream inputStream, String originalFilename) throws IOException {
+        if (!isAllowedFileType(originalFilename)) {
+            throw new IllegalArgumentException("不支持的文件类型");
+        }
+        String fileExtension = StringUtils.getFilenameExtension(originalFilename);
+        // 大小限制、类型嗅探和摘要计算都在写入过程中完成
+        InspectingInputStream inspectingStream = new InspectingInputStream(inputStream, maxFileSize, fileExtension);
+
+        String filePath;
+        if (fileBlobService.isEnabled()) {
+            // 内容寻址存储模式：相同内容只保存一份
+            filePath = fileBlobService.store(inspectingStream);
+        } else {
+            Path targetPath = createDatedPath(fileExtension);
+            try {
+                Files.copy(inspectingStream, targetPath);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(targetPath);
+                throw e;
+            }
+            filePath = targetPath.toString();
+            log.info("文件保存成功: {}", targetPath);
+        }
+
+        if (inspectingStream.getSize() == 0) {
+            deleteFile(filePath);
+            throw new IllegalArgumentException("文件为空");
+        }
+
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFilePath(filePath);
+        storedFile.setOriginalFilename(originalFilename);
+        storedFile.setSize(inspectingStream.getSize());
+        storedFile.setDigest(inspectingStream.getDigest());
+        storedFile.setContentType(inspectingStream.getDetectedType());
+        return storedFile;
+    }
+
+    @Override
+    public StoredFile storeLocalFile(Path source, String originalFilename) throws IOException {
         if (!isAllowedFileType(originalFilename)) {
             throw new IllegalArgumentException("不支持的文件类型");
         }
+        String fileExtension = StringUtils.getFilenameExtension(originalFilename);
+        // 只读取一遍完成校验和摘要计算，之后通过移动（而不是复制）放到存储位置
+        InspectingInputStream inspectingStream = new InspectingInputStream(
+            Files.newInputStream(source), maxFileSize, fileExtension);
+        try (InputStream inputStream = inspectingStream) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (inputStream.read(buffer) != -1) {
+                // 读取过程中完成检查
+            }
+        }
+        if (inspectingStream.getSize() == 0) {
+            throw new IllegalArgumentException("文件为空");
+        }
+
+        String filePath;
+        if (fileBlobService.isEnabled()) {
+            filePath = fileBlobService.storeLocal(source, inspectingStream.getDigest(), inspectingStream.getSize());
+        } else {
+            Path targetPath = createDatedPath(fileExtension);
+            try {
+                Files.move(source, targetPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, targetPath);
+            }
+            filePath = targetPath.toString();
+            log.info("文件保存成功: {}", targetPath);
+        }
 
+        StoredFile storedFile = new StoredFile();
+        storedFile.setFilePath(filePath);
+        storedFile.setOriginalFilename(originalFilename);
+        storedFile.setSize(inspectingStream.getSize());
+        storedFile.setDigest(inspectingStream.getDigest());
+        storedFile.setContentType(inspectingStream.getDetectedType());
+        return storedFile;
+    }
+
+    /**
+     * 按日期目录生成新的文件路径
+     */
+    private Path createDatedPath(String fileExtension) throws IOException {
         // 先将baseUploadPath转换为绝对路径，避免相对路径导致的问题
         Path basePath = Paths.get(baseUploadPath).toAbsolutePath().normalize();
-        
+
         // 使用日期作为子目录
         String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
         Path uploadDirPath = basePath.resolve(dateStr);
-        
+
         // 创建目录
         Files.createDirectories(uploadDirPath);
         log.debug("创建上传目录: {}", uploadDirPath);
 
         // 生成唯一的文件名
-        String fileExtension = StringUtils.getFilenameExtension(originalFilename);
         String newFilename = UUID.randomUUID().toString() + "." + fileExtension;
-        
-        // 构建目标路径
         Path targetPath = uploadDirPath.resolve(newFilename);
         log.debug("目标文件路径: {}", targetPath);
-        
-        // 使用Files.copy方法替代transferTo，避免临时文件路径问题
-        try (InputStream inputStream = file.getInputStream()) {
-            Files.copy(inputStream, targetPath, StandardCopyOption.REPLACE_EXISTING);
-        }
-        log.info("文件保存成功: {}", targetPath);
-        
-        return targetPath.toString();
+        return targetPath;
     }
 
     @Override
@@ -106,6 +191,11 @@ public class FileServiceImpl implements FileService, InitializingBean {
             return false;
         }
 
+        // 内容寻址存储的文件按引用计数删除（切换存储模式后仍按此处理）
+        if (fileBlobService.isBlobPath(filePath)) {
+            return fileBlobService.release(filePath);
+        }
+
         try {
             Path path = Paths.get(filePath);
             log.debug("删除文件: {}", path);
@@ -6,11 +6,16 @@ import com.course.entity.Assignment;
 import com.course.entity.HomeworkSubmission;
 import com.course.mapper.AssignmentMapper;
 import com.course.mapper.HomeworkSubmissionMapper;
+import com.course.service.FileBlobService;
 import com.course.service.HomeworkSubmissionService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,10 +28,13 @@ public class HomeworkSubmissionServiceImpl extends ServiceImpl<HomeworkSubmissio
         implements HomeworkSubmissionService {
 
     private final AssignmentMapper assignmentMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final FileBlobService fileBlobService;
 
     @Override
     @Transactional
     public void saveSubmission(HomeworkSubmission submission) {
+        cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.assignmentSubmissions(submission.getAssignmentId()));
         submission.setSubmitTime(LocalDateTime.now());
         save(submission);
     }
@@ -34,22 +42,53 @@ public class HomeworkSubmissionServiceImpl extends ServiceImpl<HomeworkSubmissio
     @Override
     @Transactional
     public void updateSubmission(HomeworkSubmission submission) {
+        HomeworkSubmission persisted = evictSubmission(submission.getId());
         submission.setUpdateTime(LocalDateTime.now());
         updateById(submission);
+        // 附件被替换后释放原附件的引用
+        if (persisted != null && StringUtils.hasText(submission.getAttachmentUrl())
+                && !submission.getAttachmentUrl().equals(persisted.getAttachmentUrl())) {
+            fileBlobService.releaseUrl(persisted.getAttachmentUrl());
+        }
     }
 
     @Override
     @Transactional
     public void deleteSubmission(Long id) {
+        HomeworkSubmission persisted = evictSubmission(id);
         removeById(id);
+        if (persisted != null) {
+            fileBlobService.releaseUrl(persisted.getAttachmentUrl());
+        }
+    }
+
+    /**
+     * 失效单条提交记录及其所属作业的提交列表
+     * <p>
+     * 调用方可能修改过缓存中的对象，所属作业和原附件从数据库读取。
+     * @return 数据库中的提交记录，不存在时为 null
+     */
+    private HomeworkSubmission evictSubmission(Long id) {
+        HomeworkSubmission persisted = baseMapper.selectById(id);
+        if (persisted == null) {
+            cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.submission(id));
+            return null;
+        }
+        cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.submission(id),
+                CacheKeys.assignmentSubmissions(persisted.getAssignmentId()));
+        return persisted;
     }
 
     @Override
+    @Cacheable(value = CacheKeys.SUBMISSION_CACHE, key = "T(com.course.service.support.CacheKeys).submission(#id)",
+            unless = "#result == null")
     public HomeworkSubmission getSubmissionById(Long id) {
         return getById(id);
     }
 
     @Override
+    @Cacheable(value = CacheKeys.SUBMISSION_CACHE,
+            key = "T(com.course.service.support.CacheKeys).assignmentSubmissions(#assignmentId)")
     public List<HomeworkSubmission> getHomeworkSubmissions(Long assignmentId) {
         return lambdaQuery()
                 .eq(HomeworkSubmission::getAssignmentId, assignmentId)
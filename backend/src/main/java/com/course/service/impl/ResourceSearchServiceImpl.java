@@ -0,0 +1,305 @@
+package com.course.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.course.cache.CacheInvalidationBus;
+import com.course.cache.CacheInvalidationMessage;
+import com.course.common.datasource.ReadReplica;
+import com.course.entity.Resource;
+import com.course.mapper.ResourceContentMapper;
+import com.course.mapper.ResourceMapper;
+import com.course.service.ResourceSearchService;
+import com.course.service.support.DownloadCountAggregator;
+import com.course.service.support.ResourceSearchIndex;
+import com.course.service.support.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 资源全文搜索服务实现
+ * <p>
+ * 启动后在后台线程从数据库建立内存倒排索引，资源新增、修改、删除在事务提交后增量更新索引。
+ * 除名称、文件名和描述外还索引已提取文档文本的开头部分（app.search.max-content-chars）。索引建立完成前退回数据库 LIKE 查询。
+ * <p>
+ * 每个实例各有一份索引：本实例提交的修改通过缓存失效消息总线广播资源ID，其他实例收到后从数据库重新读取该资源更新自己的索引
+ * （资源已删除时从索引移除）。消息丢失时由定时重建兜底。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceSearchServiceImpl implements ResourceSearchService {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int FILE_NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int MAX_QUERY_TERMS = 32;
+
+    /**
+     * 索引更新消息在总线上使用的名称，缓存管理器会忽略不认识的名称
+     */
+    static final String INDEX_CHANNEL = "resource-search-index";
+
+    private final ResourceMapper resourceMapper;
+    private final ResourceContentMapper resourceContentMapper;
+    private final DownloadCountAggregator downloadCountAggregator;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    private final String nodeId = UUID.randomUUID().toString().replace("-", "");
+
+    @Value("${app.search.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    /**
+     * 每个资源最多索引的文档文本字符数，与提取时保留的字符数（app.extraction.max-chars）分开配置
+     */
+    @Value("${app.search.max-content-chars:20000}")
+    private int maxContentChars;
+
+    private volatile ResourceSearchIndex index = new ResourceSearchIndex();
+    private volatile boolean ready;
+
+    /**
+     * 重建期间的增量操作，重建完成后在新索引上重放；为 null 表示当前没有重建
+     */
+    private List<IndexOperation> pendingDuringRebuild;
+
+    @PostConstruct
+    public void subscribe() {
+        cacheInvalidationBus.subscribe(this::onIndexMessage);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.error("建立资源搜索索引失败，搜索将使用数据库查询", e);
+            }
+        }, "resource-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * 定时重建，补上丢失的索引更新消息
+     */
+    @Scheduled(cron = "${app.search.rebuild-cron:0 0 4 * * ?}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("定时重建资源搜索索引失败", e);
+        }
+    }
+
+    @Override
+    @ReadReplica
+    public IPage<Resource> search(String keyword, Long courseId, int page, int size) {
+        Page<Resource> result = new Page<>(Math.max(1, page), Math.max(1, Math.min(MAX_PAGE_SIZE, size)));
+        if (!StringUtils.hasText(keyword)) {
+            return result;
+        }
+        if (!ready) {
+            return fallbackSearch(keyword.trim(), courseId, result);
+        }
+
+        List<String> terms = SearchTokenizer.tokenizeForQuery(keyword);
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        int offset = (int) Math.min(result.offset(), MAX_RESULT_WINDOW);
+        int limit = (int) Math.min(result.getSize(), MAX_RESULT_WINDOW - offset);
+        ResourceSearchIndex.TopHits topHits = index.search(terms, courseId, offset, limit);
+        result.setTotal(topHits.getTotal());
+        if (topHits.getHits().isEmpty()) {
+            return result;
+        }
+
+        List<Long> ids = topHits.getHits().stream().map(ResourceSearchIndex.Hit::getId).collect(Collectors.toList());
+        Map<Long, Resource> resources = resourceMapper.findByIdsWithDetails(ids).stream()
+            .collect(Collectors.toMap(Resource::getId, Function.identity()));
+        // 按得分顺序返回，跳过索引中已过期的资源
+        List<Resource> records = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Resource resource = resources.get(id);
+            if (resource != null) {
+                records.add(resource);
+            }
+        }
+        result.setRecords(downloadCountAggregator.mergePending(records));
+        return result;
+    }
+
+    private IPage<Resource> fallbackSearch(String keyword, Long courseId, Page<Resource> page) {
+        log.debug("搜索索引尚未就绪，使用数据库查询, 关键词: {}", keyword);
+        IPage<Resource> result = resourceMapper.selectPage(page, new LambdaQueryWrapper<Resource>()
+            .eq(Resource::getStatus, 1)
+            .like(Resource::getName, keyword)
+            .eq(courseId != null, Resource::getCourseId, courseId)
+            .orderByDesc(Resource::getId));
+        result.setRecords(downloadCountAggregator.mergePending(result.getRecords()));
+        return result;
+    }
+
+    @Override
+    public void indexResource(Resource resource) {
+        if (resource == null || resource.getId() == null) {
+            return;
+        }
+        Long id = resource.getId();
+        long courseId = resource.getCourseId() == null ? 0 : resource.getCourseId();
+        if (resource.getContent() == null) {
+            // 资源信息修改时沿用已提取的文档文本
+            resource.setContent(resourceContentMapper.selectContent(id, maxContentChars));
+        }
+        Map<String, Integer> termFreqs = termFreqs(resource);
+        afterCommit(id, target -> target.upsert(id, courseId, termFreqs));
+    }
+
+    @Override
+    public void removeResource(Long resourceId) {
+        if (resourceId == null) {
+            return;
+        }
+        afterCommit(resourceId, target -> target.remove(resourceId));
+    }
+
+    @Override
+    public int rebuild() {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                log.info("资源搜索索引正在重建，忽略本次请求");
+                return index.size();
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        ResourceSearchIndex rebuilt = new ResourceSearchIndex();
+        try {
+            long afterId = 0;
+            List<Resource> batch;
+            do {
+                batch = resourceMapper.findSearchDocuments(afterId, rebuildBatchSize, maxContentChars);
+                for (Resource resource : batch) {
+                    rebuilt.upsert(resource.getId(), resource.getCourseId() == null ? 0 : resource.getCourseId(),
+                        termFreqs(resource));
+                    afterId = resource.getId();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // 重放重建期间发生的修改后再切换
+            for (IndexOperation operation : pendingDuringRebuild) {
+                operation.apply(rebuilt);
+            }
+            pendingDuringRebuild = null;
+            index = rebuilt;
+            ready = true;
+        }
+        log.info("资源搜索索引重建完成, 资源数: {}, 耗时: {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+        return rebuilt.size();
+    }
+
+    private void afterCommit(Long resourceId, IndexOperation operation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyAndPublish(resourceId, operation);
+                }
+            });
+        } else {
+            applyAndPublish(resourceId, operation);
+        }
+    }
+
+    private void applyAndPublish(Long resourceId, IndexOperation operation) {
+        apply(operation);
+        cacheInvalidationBus.publish(new CacheInvalidationMessage(nodeId, INDEX_CHANNEL, String.valueOf(resourceId)));
+    }
+
+    /**
+     * 其他实例修改了资源，从数据库读取最新内容更新本实例的索引
+     */
+    private void onIndexMessage(CacheInvalidationMessage message) {
+        if (!INDEX_CHANNEL.equals(message.getCacheName()) || nodeId.equals(message.getOrigin())
+                || message.getKey() == null) {
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(message.getKey());
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的搜索索引更新消息: {}", message);
+            return;
+        }
+        Resource resource = resourceMapper.findSearchDocument(id, maxContentChars);
+        if (resource == null) {
+            apply(target -> target.remove(id));
+        } else {
+            long courseId = resource.getCourseId() == null ? 0 : resource.getCourseId();
+            Map<String, Integer> termFreqs = termFreqs(resource);
+            apply(target -> target.upsert(id, courseId, termFreqs));
+        }
+        log.debug("按其他实例的修改更新搜索索引, 资源ID: {}", id);
+    }
+
+    private synchronized void apply(IndexOperation operation) {
+        operation.apply(index);
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(operation);
+        }
+    }
+
+    private Map<String, Integer> termFreqs(Resource resource) {
+        Map<String, Integer> termFreqs = new LinkedHashMap<>();
+        addTerms(termFreqs, resource.getName(), NAME_WEIGHT);
+        addTerms(termFreqs, resource.getFileName(), FILE_NAME_WEIGHT);
+        addTerms(termFreqs, resource.getDescription(), DESCRIPTION_WEIGHT);
+        String content = resource.getContent();
+        if (content != null && content.length() > maxContentChars) {
+            content = content.substring(0, maxContentChars);
+        }
+        addTerms(termFreqs, content, CONTENT_WEIGHT);
+        return termFreqs;
+    }
+
+    private void addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        for (String term : SearchTokenizer.tokenizeForIndex(text)) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * 索引修改操作
+     */
+    private interface IndexOperation {
+        void apply(ResourceSearchIndex target);
+    }
+}
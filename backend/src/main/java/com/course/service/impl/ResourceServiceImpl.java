@@ -2,22 +2,35 @@ package com.course.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.course.common.datasource.ReadReplica;
 import com.course.common.exception.FileOperationException;
 import com.course.common.exception.ResourceNotFoundException;
 import com.course.common.exception.ServiceException;
 import com.course.dto.ResourceDTO;
+import com.course.dto.ResourceQueryDTO;
 import com.course.entity.Resource;
 import com.course.mapper.ResourceMapper;
+import com.course.service.ContentExtractionService;
 import com.course.service.CourseService;
+import com.course.service.CourseStatsService;
+import com.course.service.DashboardStatsService;
 import com.course.service.FileService;
+import com.course.service.ResourceSearchService;
 import com.course.service.ResourceService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
+import com.course.service.support.DownloadCountAggregator;
+import com.course.service.support.KeysetCursor;
+import com.course.service.support.StoredFile;
 import com.course.vo.CourseVO;
+import com.course.vo.CursorPageVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -42,54 +55,34 @@ public class ResourceServiceImpl implements ResourceService {
     private final ResourceMapper resourceMapper;
     private final CourseService courseService;
     private final FileService fileService;
+    private final CourseStatsService courseStatsService;
+    private final DashboardStatsService dashboardStatsService;
+    private final DownloadCountAggregator downloadCountAggregator;
+    private final CacheManager cacheManager;
+    private final CacheInvalidator cacheInvalidator;
+    private final ResourceSearchService resourceSearchService;
+    private final ContentExtractionService contentExtractionService;
 
-    private static final String RESOURCE_CACHE_NAME = "resourceCache";
+    private static final String RESOURCE_CACHE_NAME = CacheKeys.RESOURCE_CACHE;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Value("${file.upload.base-path}")
     private String uploadDir;
 
     @Override
     @Transactional
-    @CacheEvict(value = RESOURCE_CACHE_NAME, allEntries = true)
     public Resource uploadResource(ResourceDTO resourceDTO, MultipartFile file, Long uploaderId) {
         log.info("开始上传资源, 课程ID: {}, 上传者ID: {}, 文件名: {}", 
             resourceDTO.getCourseId(), uploaderId, file.getOriginalFilename());
         try {
-            // 验证课程存在性
-            CourseVO courseVO = courseService.getCourseById(resourceDTO.getCourseId());
-            if (courseVO == null) {
-                throw new ResourceNotFoundException("Course", "id", resourceDTO.getCourseId());
-            }
-            log.info("课程验证通过, 课程名称: {}", courseVO.getName());
+            validateCourse(resourceDTO.getCourseId());
 
             // 保存文件并获取文件路径
             String filePath = fileService.storeFile(file);
             log.info("文件保存成功, 路径: {}", filePath);
 
-            // 创建资源记录
-            Resource resource = new Resource();
-            BeanUtils.copyProperties(resourceDTO, resource);
-            resource.setUploaderUserId(uploaderId);
-            resource.setFilePath(filePath);
-            resource.setFileName(file.getOriginalFilename());
-            resource.setFileSize(file.getSize());
-            resource.setDownloadCount(0);
-            resource.setCreateTime(LocalDateTime.now());
-            resource.setUpdateTime(LocalDateTime.now());
-            resource.setStatus(1); // Set status to enabled
-            
-            log.info("准备插入资源记录: {}", resource);
-            int result = resourceMapper.insert(resource);
-            log.info("资源记录插入结果: {}, 资源ID: {}", result, resource.getId());
-            
-            if (result <= 0) {
-                // 如果插入失败，删除已上传的文件
-                fileService.deleteFile(filePath);
-                throw new ServiceException("资源记录插入失败");
-            }
-            
-            log.info("资源上传成功, 资源ID: {}", resource.getId());
-            return resource;
+            return insertResource(resourceDTO, filePath, file.getOriginalFilename(), file.getSize(), uploaderId);
         } catch (Exception e) {
             log.error("资源上传失败", e);
             throw new FileOperationException("资源上传失败: " + e.getMessage());
@@ -98,31 +91,66 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     @Transactional
-    @CacheEvict(value = RESOURCE_CACHE_NAME, allEntries = true)
-    public Resource downloadResource(Long id) {
-        log.info("开始下载资源, 资源ID: {}", id);
+    public Resource uploadResource(ResourceDTO resourceDTO, StoredFile storedFile, Long uploaderId) {
+        log.info("开始创建流式上传资源, 课程ID: {}, 上传者ID: {}, 文件名: {}",
+            resourceDTO.getCourseId(), uploaderId, storedFile.getOriginalFilename());
         try {
-            Resource resource = getResourceById(id);
-            if (resource == null) {
-                log.error("资源不存在, 资源ID: {}", id);
-                throw new ResourceNotFoundException("Resource", "id", id);
-            }
+            validateCourse(resourceDTO.getCourseId());
+            return insertResource(resourceDTO, storedFile.getFilePath(), storedFile.getOriginalFilename(),
+                storedFile.getSize(), uploaderId);
+        } catch (Exception e) {
+            log.error("资源上传失败", e);
+            throw new FileOperationException("资源上传失败: " + e.getMessage());
+        }
+    }
 
-            // 只更新下载次数
-            resourceMapper.incrementDownloadCount(id);
-            resource.setDownloadCount(resource.getDownloadCount() + 1);
-            log.debug("更新下载次数成功, 资源ID: {}, 当前下载次数: {}", id, resource.getDownloadCount());
+    private void validateCourse(Long courseId) {
+        // 验证课程存在性
+        CourseVO courseVO = courseService.getCourseById(courseId);
+        if (courseVO == null) {
+            throw new ResourceNotFoundException("Course", "id", courseId);
+        }
+        log.info("课程验证通过, 课程名称: {}", courseVO.getName());
+    }
 
-            return resource;
-        } catch (Exception e) {
-            log.error("资源下载失败, 资源ID: {}", id, e);
-            throw new FileOperationException("资源下载失败: " + e.getMessage());
+    private Resource insertResource(ResourceDTO resourceDTO, String filePath, String fileName,
+                                    long fileSize, Long uploaderId) {
+        // 新资源只影响所属课程的列表和全部资源列表
+        evictResource(null, resourceDTO.getCourseId());
+
+        // 创建资源记录
+        Resource resource = new Resource();
+        BeanUtils.copyProperties(resourceDTO, resource);
+        resource.setUploaderUserId(uploaderId);
+        resource.setFilePath(filePath);
+        resource.setFileName(fileName);
+        resource.setFileSize(fileSize);
+        resource.setDownloadCount(0);
+        resource.setCreateTime(LocalDateTime.now());
+        resource.setUpdateTime(LocalDateTime.now());
+        resource.setStatus(1); // Set status to enabled
+
+        log.debug("准备插入资源记录: {}", resource);
+        int result = resourceMapper.insert(resource);
+        log.info("资源记录插入结果: {}, 资源ID: {}", result, resource.getId());
+
+        if (result <= 0) {
+            // 如果插入失败，删除已上传的文件
+            fileService.deleteFile(filePath);
+            throw new ServiceException("资源记录插入失败");
         }
+        courseStatsService.adjustResourceCount(resource.getCourseId(), 1);
+        dashboardStatsService.recordCreated(DashboardStatsService.RESOURCES, resource.getCreateTime());
+        resourceSearchService.indexResource(resource);
+        // 文档文本在事务提交后异步提取，完成后再更新索引
+        contentExtractionService.submit(resource.getId());
+
+        log.info("资源上传成功, 资源ID: {}", resource.getId());
+        return resource;
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = RESOURCE_CACHE_NAME, allEntries = true)
     public void deleteResource(Long id) {
         log.info("开始删除资源, 资源ID: {}", id);
         try {
@@ -131,13 +159,19 @@ public class ResourceServiceImpl implements ResourceService {
                 log.error("资源不存在, 资源ID: {}", id);
                 throw new ResourceNotFoundException("Resource", "id", id);
             }
+            evictResource(id, resource.getCourseId());
 
             // 删除文件
             fileService.deleteFile(resource.getFilePath());
             log.debug("文件删除成功, 路径: {}", resource.getFilePath());
 
             // 删除资源记录
-            resourceMapper.deleteById(id);
+            if (resourceMapper.deleteById(id) > 0) {
+                courseStatsService.adjustResourceCount(resource.getCourseId(), -1);
+                dashboardStatsService.recordDeleted(DashboardStatsService.RESOURCES, resource.getCreateTime());
+            }
+            contentExtractionService.remove(id);
+            resourceSearchService.removeResource(id);
             log.info("资源删除成功, 资源ID: {}", id);
         } catch (Exception e) {
             log.error("资源删除失败, 资源ID: {}", id, e);
@@ -149,28 +183,67 @@ public class ResourceServiceImpl implements ResourceService {
     @Transactional(readOnly = true)
     public Resource getResourceById(Long id) {
         log.debug("查询资源, 资源ID: {}", id);
-        Resource resource = resourceMapper.findByIdWithDetails(id);
-        if (resource == null) {
+        // 回源结果写入共享缓存，不标记 @ReadReplica，始终读主库
+        Cache cache = cacheManager.getCache(RESOURCE_CACHE_NAME);
+        Resource cached = cache == null
+            ? resourceMapper.findByIdWithDetails(id)
+            : cache.get(CacheKeys.resource(id), () -> resourceMapper.findByIdWithDetails(id));
+        if (cached == null) {
             log.warn("资源不存在, 资源ID: {}", id);
+            return null;
         }
+        // 缓存中的对象不能修改，复制后再合并尚未写回的下载次数
+        Resource resource = new Resource();
+        BeanUtils.copyProperties(cached, resource);
+        resource.setDownloadCount(downloadCountAggregator.withPending(id, cached.getDownloadCount()));
         return resource;
     }
 
     @Override
     public List<Resource> getCourseResources(Long courseId) {
         log.debug("查询课程资源列表, 课程ID: {}", courseId);
-        return resourceMapper.findByCourseId(courseId);
+        Cache cache = cacheManager.getCache(RESOURCE_CACHE_NAME);
+        List<Resource> resources = cache == null
+            ? resourceMapper.findByCourseId(courseId)
+            : cache.get(CacheKeys.courseResources(courseId), () -> resourceMapper.findByCourseId(courseId));
+        return downloadCountAggregator.mergePending(resources);
+    }
+
+    @Override
+    @ReadReplica
+    public CursorPageVO<Resource> pageResources(ResourceQueryDTO query) {
+        int size = query.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, query.getSize()));
+        KeysetCursor cursor = KeysetCursor.decode(query.getCursor());
+        log.debug("游标分页查询资源, 条件: {}, 每页数量: {}", query, size);
+
+        // 多查一条判断是否还有下一页
+        List<Resource> resources = resourceMapper.findPageByKeyset(query,
+            cursor == null ? null : cursor.getCreateTime(),
+            cursor == null ? null : cursor.getId(),
+            size + 1);
+        boolean hasMore = resources.size() > size;
+        if (hasMore) {
+            resources = resources.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Resource last = resources.get(resources.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreateTime(), last.getId()).encode();
+        }
+        return new CursorPageVO<>(downloadCountAggregator.mergePending(resources), nextCursor, hasMore);
     }
 
     @Override
     @Transactional(readOnly = true)
+    @ReadReplica
     public List<Resource> getUserResources(Long userId) {
         log.debug("查询用户资源列表, 用户ID: {}", userId);
-        return resourceMapper.findByUploaderId(userId);
+        return downloadCountAggregator.mergePending(resourceMapper.findByUploaderId(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
+    @ReadReplica
     public IPage<Resource> getResourcesByDownloads(int page, int size) {
         log.debug("查询热门资源列表, 页码: {}, 每页数量: {}", page, size);
         return resourceMapper.selectPage(
@@ -181,20 +254,19 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Resource> searchResources(String keyword) {
+    @ReadReplica
+    public IPage<Resource> searchResources(String keyword, int page, int size) {
         log.debug("搜索资源, 关键词: {}", keyword);
-        return resourceMapper.searchByName(keyword);
+        return resourceSearchService.search(keyword, null, page, size);
     }
 
     @Override
-    @Transactional
     public void incrementDownloadCount(Long id) {
-        resourceMapper.incrementDownloadCount(id);
+        downloadCountAggregator.increment(id);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = RESOURCE_CACHE_NAME, allEntries = true)
     public void updateResource(Long id, ResourceDTO resourceDTO) {
         log.info("开始更新资源, 资源ID: {}", id);
         try {
@@ -203,14 +275,18 @@ public class ResourceServiceImpl implements ResourceService {
                 log.error("资源不存在, 资源ID: {}", id);
                 throw new ResourceNotFoundException("Resource", "id", id);
             }
+            evictResource(id, resource.getCourseId());
 
             resource.setName(resourceDTO.getName());
             resource.setDescription(resourceDTO.getDescription());
             resource.setType(resourceDTO.getType());
+            // 下载次数由聚合器写回，这里不能覆盖
+            resource.setDownloadCount(null);
 
             if (resourceMapper.updateById(resource) != 1) {
                 throw new ServiceException("更新资源信息失败");
             }
+            resourceSearchService.indexResource(resource);
             log.info("资源更新成功, 资源ID: {}", id);
         } catch (Exception e) {
             log.error("资源更新失败, 资源ID: {}", id, e);
@@ -219,21 +295,43 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     @Override
-    @Cacheable(value = RESOURCE_CACHE_NAME, key = "'allResources'")
     public List<Resource> getAllResources() {
         try {
-            List<Resource> resources = resourceMapper.getAllResourcesWithDetails();
-            log.info("从数据库获取资源列表, 数量: {}", resources.size());
-            return resources;
+            // 缓存中保存数据库中的下载次数，返回前合并尚未写回的下载次数
+            Cache cache = cacheManager.getCache(RESOURCE_CACHE_NAME);
+            List<Resource> resources = cache == null
+                ? loadAllResources()
+                : cache.get(CacheKeys.ALL_RESOURCES, this::loadAllResources);
+            return downloadCountAggregator.mergePending(resources);
         } catch (Exception e) {
             log.error("获取资源列表失败", e);
             throw new ServiceException("获取资源列表失败: " + e.getMessage());
         }
     }
 
+    private List<Resource> loadAllResources() {
+        List<Resource> resources = resourceMapper.getAllResourcesWithDetails();
+        log.info("从数据库获取资源列表, 数量: {}", resources.size());
+        return resources;
+    }
+
+    /**
+     * 失效单个资源及其所属课程的资源列表
+     * @param id 资源ID，新建资源时为 null
+     * @param courseId 所属课程ID
+     */
+    private void evictResource(Long id, Long courseId) {
+        if (id == null) {
+            cacheInvalidator.evict(RESOURCE_CACHE_NAME, CacheKeys.courseResources(courseId), CacheKeys.ALL_RESOURCES);
+        } else {
+            cacheInvalidator.evict(RESOURCE_CACHE_NAME, CacheKeys.resource(id),
+                CacheKeys.courseResources(courseId), CacheKeys.ALL_RESOURCES);
+        }
+    }
+
     @Override
     @CacheEvict(value = RESOURCE_CACHE_NAME, allEntries = true)
     public void clearResourceCache() {
-        log.info("清除资源列表缓存");
+        log.info("清除资源缓存");
     }
 }
@@ -6,13 +6,17 @@ import com.course.common.exception.ServiceException;
 import com.course.dto.HomeworkSubmissionDTO;
 import com.course.entity.HomeworkSubmission;
 import com.course.mapper.HomeworkSubmissionMapper;
+import com.course.service.FileBlobService;
 import com.course.service.SubmissionService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import com.course.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,6 +30,8 @@ import java.util.List;
 public class SubmissionServiceImpl extends ServiceImpl<HomeworkSubmissionMapper, HomeworkSubmission> implements SubmissionService {
 
     private final HomeworkSubmissionMapper submissionMapper;
+    private final CacheInvalidator cacheInvalidator;
+    private final FileBlobService fileBlobService;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -34,6 +40,7 @@ public class SubmissionServiceImpl extends ServiceImpl<HomeworkSubmissionMapper,
         BeanUtils.copyProperties(submissionDTO, submission);
         submission.setSubmitTime(LocalDateTime.now());
         submission.setStudentId(SecurityUtils.getCurrentUserId());
+        cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.assignmentSubmissions(submission.getAssignmentId()));
         submissionMapper.insert(submission);
     }
 
@@ -48,10 +55,18 @@ public class SubmissionServiceImpl extends ServiceImpl<HomeworkSubmissionMapper,
         if (!submission.getStudentId().equals(SecurityUtils.getCurrentUserId())) {
             throw new ServiceException("无权修改此提交记录");
         }
+        cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.submission(id),
+                CacheKeys.assignmentSubmissions(submission.getAssignmentId()));
 
+        String previousAttachment = submission.getAttachmentUrl();
         BeanUtils.copyProperties(submissionDTO, submission);
         submission.setUpdateTime(LocalDateTime.now());
         submissionMapper.updateById(submission);
+        // 附件被替换后释放原附件的引用
+        if (StringUtils.hasText(submission.getAttachmentUrl())
+                && !submission.getAttachmentUrl().equals(previousAttachment)) {
+            fileBlobService.releaseUrl(previousAttachment);
+        }
     }
 
     @Override
@@ -107,7 +122,10 @@ public class SubmissionServiceImpl extends ServiceImpl<HomeworkSubmissionMapper,
         if (!submission.getStudentId().equals(SecurityUtils.getCurrentUserId())) {
             throw new ServiceException("无权删除此提交记录");
         }
+        cacheInvalidator.evict(CacheKeys.SUBMISSION_CACHE, CacheKeys.submission(id),
+                CacheKeys.assignmentSubmissions(submission.getAssignmentId()));
 
         submissionMapper.deleteById(id);
+        fileBlobService.releaseUrl(submission.getAttachmentUrl());
     }
 }
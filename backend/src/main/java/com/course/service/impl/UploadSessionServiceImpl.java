@@ -0,0 +1,279 @@
+package com.course.service.impl;
+
+import com.course.common.exception.ResourceNotFoundException;
+import com.course.common.exception.ServiceException;
+import com.course.dto.UploadSessionDTO;
+import com.course.entity.UploadSession;
+import com.course.mapper.UploadSessionMapper;
+import com.course.service.FileService;
+import com.course.service.UploadSessionService;
+import com.course.service.support.StoredFile;
+import com.course.vo.UploadSessionVO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private static final String CHUNK_DIR = "chunks";
+    private static final String PART_SUFFIX = ".part";
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 32 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final UploadSessionMapper uploadSessionMapper;
+    private final FileService fileService;
+
+    @Value("${file.upload.base-path}")
+    private String baseUploadPath;
+
+    @Value("${file.upload.max-size}")
+    private Long maxFileSize;
+
+    @Value("${file.upload.chunk.default-size:5242880}")
+    private int defaultChunkSize;
+
+    @Value("${file.upload.chunk.session-ttl:86400000}")
+    private long sessionTtl;
+
+    private Path chunkRoot;
+
+    @PostConstruct
+    public void init() throws IOException {
+        // 临时文件放在上传目录下，合并时可以直接移动到最终位置
+        chunkRoot = Paths.get(baseUploadPath).toAbsolutePath().normalize().resolve(CHUNK_DIR);
+        Files.createDirectories(chunkRoot);
+    }
+
+    @Override
+    public UploadSessionVO createSession(UploadSessionDTO sessionDTO, Long userId) {
+        String fileName = StringUtils.getFilename(sessionDTO.getFileName());
+        if (!fileService.isAllowedFileType(fileName)) {
+            throw new ServiceException("不支持的文件类型");
+        }
+        long fileSize = sessionDTO.getFileSize();
+        if (fileSize > maxFileSize) {
+            throw new ServiceException("文件大小超过限制");
+        }
+        int chunkSize = sessionDTO.getChunkSize() == null ? defaultChunkSize : sessionDTO.getChunkSize();
+        chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, chunkSize));
+        int totalChunks = (int) ((fileSize + chunkSize - 1) / chunkSize);
+
+        String sessionId = UUID.randomUUID().toString().replace("-", "");
+        Path partPath = chunkRoot.resolve(sessionId + PART_SUFFIX);
+        try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+            // 预先设置文件长度，各分片可以按偏移量并行写入
+            file.setLength(fileSize);
+        } catch (IOException e) {
+            throw new ServiceException("创建上传会话失败: " + e.getMessage(), e);
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(sessionId);
+        session.setUserId(userId);
+        session.setFileName(fileName);
+        session.setFileSize(fileSize);
+        session.setChunkSize(chunkSize);
+        session.setTotalChunks(totalChunks);
+        session.setStatus(UploadSession.STATUS_UPLOADING);
+        session.setPartPath(partPath.toString());
+        session.setCreateTime(LocalDateTime.now());
+        session.setUpdateTime(LocalDateTime.now());
+        uploadSessionMapper.insert(session);
+        log.info("创建分片上传会话: {}, 文件: {}, 大小: {}, 分片数: {}", sessionId, fileName, fileSize, totalChunks);
+        return convertToVO(session);
+    }
+
+    @Override
+    public void uploadChunk(String sessionId, int chunkIndex, InputStream inputStream,
+                            long contentLength, Long userId) throws IOException {
+        UploadSession session = requireSession(sessionId, userId);
+        if (!UploadSession.STATUS_UPLOADING.equals(session.getStatus())) {
+            throw new ServiceException("上传会话当前不可写入, 状态: " + session.getStatus());
+        }
+        if (chunkIndex < 0 || chunkIndex >= session.getTotalChunks()) {
+            throw new ServiceException("分片序号超出范围");
+        }
+        long offset = (long) chunkIndex * session.getChunkSize();
+        long expected = Math.min(session.getChunkSize(), session.getFileSize() - offset);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new ServiceException("分片大小不正确, 应为 " + expected + " 字节");
+        }
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(Paths.get(session.getPartPath()), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, expected)];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                if (written + read > expected) {
+                    throw new ServiceException("分片大小不正确, 应为 " + expected + " 字节");
+                }
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    written += channel.write(byteBuffer, offset + written);
+                }
+            }
+        }
+        if (written != expected) {
+            throw new ServiceException("分片数据不完整, 已接收 " + written + "/" + expected + " 字节");
+        }
+
+        uploadSessionMapper.saveChunk(sessionId, chunkIndex, (int) expected);
+        uploadSessionMapper.touch(sessionId);
+        log.debug("分片上传成功, 会话: {}, 序号: {}", sessionId, chunkIndex);
+    }
+
+    @Override
+    public UploadSessionVO getSession(String sessionId, Long userId) {
+        return convertToVO(requireSession(sessionId, userId));
+    }
+
+    @Override
+    public StoredFile completeSession(String sessionId, Long userId) throws IOException {
+        UploadSession session = requireSession(sessionId, userId);
+        if (!UploadSession.STATUS_UPLOADING.equals(session.getStatus())) {
+            throw new ServiceException("上传会话当前不可合并, 状态: " + session.getStatus());
+        }
+        int missing = session.getTotalChunks() - uploadSessionMapper.countChunks(sessionId);
+        if (missing > 0) {
+            throw new ServiceException("还有 " + missing + " 个分片未上传");
+        }
+        // 状态切换成功的请求才执行合并，避免重复提交
+        if (uploadSessionMapper.changeStatus(sessionId, UploadSession.STATUS_UPLOADING,
+                UploadSession.STATUS_ASSEMBLING) == 0) {
+            throw new ServiceException("上传会话正在合并或已完成");
+        }
+
+        Path partPath = Paths.get(session.getPartPath());
+        try {
+            StoredFile storedFile = fileService.storeLocalFile(partPath, session.getFileName());
+            uploadSessionMapper.changeStatus(sessionId, UploadSession.STATUS_ASSEMBLING, UploadSession.STATUS_COMPLETED);
+            uploadSessionMapper.deleteChunks(sessionId);
+            log.info("分片上传合并完成, 会话: {}, 路径: {}", sessionId, storedFile.getFilePath());
+            return storedFile;
+        } catch (IOException e) {
+            // IO异常可以重试合并
+            uploadSessionMapper.changeStatus(sessionId, UploadSession.STATUS_ASSEMBLING, UploadSession.STATUS_UPLOADING);
+            throw e;
+        } catch (RuntimeException e) {
+            // 校验失败（类型不符等），重传分片也无法通过
+            uploadSessionMapper.changeStatus(sessionId, UploadSession.STATUS_ASSEMBLING, UploadSession.STATUS_FAILED);
+            deletePartQuietly(partPath);
+            uploadSessionMapper.deleteChunks(sessionId);
+            throw e;
+        }
+    }
+
+    @Override
+    public void cancelSession(String sessionId, Long userId) {
+        UploadSession session = requireSession(sessionId, userId);
+        if (UploadSession.STATUS_ASSEMBLING.equals(session.getStatus())) {
+            throw new ServiceException("上传会话正在合并，无法取消");
+        }
+        removeSession(session);
+        log.info("取消分片上传会话: {}", sessionId);
+    }
+
+    /**
+     * 定时清理长时间不活跃的会话（含已完成会话的记录）
+     */
+    @Scheduled(fixedDelayString = "${file.upload.chunk.cleanup-interval:3600000}")
+    public void scheduledCleanup() {
+        try {
+            int removed = cleanupInactiveSessions();
+            if (removed > 0) {
+                log.info("清理不活跃的分片上传会话: {} 个", removed);
+            }
+        } catch (Exception e) {
+            log.error("清理分片上传会话失败", e);
+        }
+    }
+
+    @Override
+    public int cleanupInactiveSessions() {
+        LocalDateTime before = LocalDateTime.now().minusNanos(sessionTtl * 1_000_000L);
+        int removed = 0;
+        List<UploadSession> sessions;
+        do {
+            sessions = uploadSessionMapper.findInactive(before, CLEANUP_BATCH_SIZE);
+            int batchRemoved = 0;
+            for (UploadSession session : sessions) {
+                if (removeSession(session)) {
+                    batchRemoved++;
+                }
+            }
+            removed += batchRemoved;
+            // 本批没有任何进展时停止，留待下次重试
+            if (batchRemoved == 0) {
+                break;
+            }
+        } while (sessions.size() == CLEANUP_BATCH_SIZE);
+        return removed;
+    }
+
+    private boolean removeSession(UploadSession session) {
+        if (!deletePartQuietly(Paths.get(session.getPartPath()))) {
+            return false;
+        }
+        uploadSessionMapper.deleteChunks(session.getId());
+        uploadSessionMapper.deleteById(session.getId());
+        return true;
+    }
+
+    private boolean deletePartQuietly(Path partPath) {
+        try {
+            Files.deleteIfExists(partPath);
+            return true;
+        } catch (IOException e) {
+            log.warn("删除分片临时文件失败: {}", partPath, e);
+            return false;
+        }
+    }
+
+    private UploadSession requireSession(String sessionId, Long userId) {
+        UploadSession session = uploadSessionMapper.selectById(sessionId);
+        if (session == null) {
+            throw new ResourceNotFoundException("UploadSession", "id", sessionId);
+        }
+        if (!session.getUserId().equals(userId)) {
+            throw new ServiceException("无权访问该上传会话");
+        }
+        return session;
+    }
+
+    private UploadSessionVO convertToVO(UploadSession session) {
+        UploadSessionVO vo = new UploadSessionVO();
+        vo.setSessionId(session.getId());
+        vo.setFileName(session.getFileName());
+        vo.setFileSize(session.getFileSize());
+        vo.setChunkSize(session.getChunkSize());
+        vo.setTotalChunks(session.getTotalChunks());
+        vo.setStatus(session.getStatus());
+        vo.setUploadedChunks(uploadSessionMapper.findChunkIndexes(session.getId()));
+        if (session.getUpdateTime() != null) {
+            vo.setExpireTime(session.getUpdateTime().plusNanos(sessionTtl * 1_000_000L));
+        }
+        return vo;
+    }
+}
@@ -0,0 +1,548 @@
+package com.course.service.impl;
+
+import com.course.common.exception.ServiceException;
+import com.course.entity.User;
+import com.course.mapper.UserMapper;
+import com.course.security.PasswordHashingBusyException;
+import com.course.service.UserImportService;
+import com.course.service.support.CharsetDetector;
+import com.course.service.support.tabular.CsvTabularReader;
+import com.course.service.support.tabular.TabularReader;
+import com.course.service.support.tabular.XlsxTabularReader;
+import com.course.vo.UserImportJobVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static com.course.common.constant.UserRoleConstants.ROLE_STUDENT;
+import static com.course.common.constant.UserRoleConstants.ROLE_TEACHER;
+
+/**
+ * 用户批量导入服务实现
+ * <p>
+ * 上传的文件先落盘，由后台线程逐行解析，不把整个文件载入内存。每攒够一批有效行，
+ * 用一条 IN 查询排除数据库中已存在的用户名，再用多行 INSERT 写入。
+ * 校验失败和重复的行写入错误报告（CSV），任务完成后可下载。任务状态保存在本实例内存中。
+ * <p>
+ * 密码哈希由导入自己的哈希线程池（app.user-import.hash-workers）提交给密码编码器，
+ * 同时占用的编码器线程不超过该线程数，给登录留出余量；编码器繁忙时单行重试，仍失败则记入错误报告。
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String STATUS_PENDING = "PENDING";
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    private static final String STATUS_FAILED = "FAILED";
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_QUEUED_JOBS = 4;
+    private static final int MAX_HASH_ATTEMPTS = 3;
+    private static final long HASH_RETRY_BACKOFF_MILLIS = 200;
+
+    /**
+     * 表头别名 -> 字段
+     */
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("username", "username", "用户名", "账号", "学号");
+        alias("password", "password", "密码");
+        alias("role", "role", "角色");
+        alias("realName", "realname", "real_name", "姓名", "真实姓名");
+        alias("email", "email", "邮箱");
+        alias("phone", "phone", "电话", "手机", "手机号");
+        alias("classname", "classname", "class", "班级");
+    }
+
+    private final UserMapper userMapper;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.user-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.user-import.max-rows:200000}")
+    private long maxRows;
+
+    @Value("${app.user-import.retention:3600000}")
+    private long retentionMillis;
+
+    @Value("${app.user-import.hash-workers:2}")
+    private int hashWorkers;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor hashExecutor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportServiceImpl(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 导入任务逐个执行，避免多个大文件同时占用数据库
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_JOBS), runnable -> {
+                Thread thread = new Thread(runnable, "user-import-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // 同一时间只有一个导入任务，排队的哈希任务不超过一批
+        AtomicInteger hashThreadIndex = new AtomicInteger();
+        hashExecutor = new ThreadPoolExecutor(hashWorkers, hashWorkers, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "user-import-hash-" + hashThreadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportJobVO startImport(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ServiceException("导入文件不能为空");
+        }
+        String fileName = file.getOriginalFilename();
+        String extension = StringUtils.getFilenameExtension(fileName);
+        extension = extension == null ? "" : extension.toLowerCase(Locale.ROOT);
+        if (!"csv".equals(extension) && !"xlsx".equals(extension)) {
+            throw new ServiceException("只支持 csv 和 xlsx 文件");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString().replace("-", ""), fileName, extension);
+        try {
+            job.source = Files.createTempFile("user-import-", "." + extension);
+            job.report = Files.createTempFile("user-import-", "-report.csv");
+            file.transferTo(job.source);
+        } catch (IOException e) {
+            job.deleteFiles();
+            log.error("保存导入文件失败: {}", fileName, e);
+            throw new ServiceException("保存导入文件失败: " + e.getMessage());
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            job.deleteFiles();
+            throw new ServiceException("导入任务过多，请稍后重试");
+        }
+        log.info("用户导入任务已创建, 任务ID: {}, 文件: {}, 大小: {}", job.id, fileName, file.getSize());
+        return job.toVO();
+    }
+
+    @Override
+    public UserImportJobVO getJob(String jobId) {
+        return requireJob(jobId).toVO();
+    }
+
+    @Override
+    public Path getReport(String jobId) {
+        ImportJob job = requireJob(jobId);
+        if (!STATUS_COMPLETED.equals(job.status) && !STATUS_FAILED.equals(job.status)) {
+            throw new ServiceException("导入任务尚未完成");
+        }
+        return job.report;
+    }
+
+    /**
+     * 清理过期的导入任务和报告文件
+     */
+    @Scheduled(fixedDelayString = "${app.user-import.cleanup-interval:600000}")
+    public void cleanupExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        Iterator<ImportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ImportJob job = iterator.next();
+            if (job.finishTime != null && job.finishTime.isBefore(expireBefore)) {
+                iterator.remove();
+                job.deleteFiles();
+            }
+        }
+    }
+
+    private ImportJob requireJob(String jobId) {
+        ImportJob job = jobId == null ? null : jobs.get(jobId);
+        if (job == null) {
+            throw new ServiceException("导入任务不存在或已过期");
+        }
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        job.status = STATUS_RUNNING;
+        long start = System.currentTimeMillis();
+        try (TabularReader reader = openReader(job);
+             Writer report = Files.newBufferedWriter(job.report, StandardCharsets.UTF_8)) {
+            // 带 BOM，Excel 直接打开不乱码
+            report.write('\uFEFF');
+            report.write("行号,用户名,错误\n");
+            importRows(job, reader, report);
+            // 状态一旦变为完成即可下载报告，先把缓冲区写到文件
+            report.flush();
+            job.status = STATUS_COMPLETED;
+            log.info("用户导入完成, 任务ID: {}, 处理: {}, 导入: {}, 失败: {}, 耗时: {} ms", job.id,
+                job.processedRows.get(), job.importedRows.get(), job.failedRows.get(),
+                System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("用户导入失败, 任务ID: {}", job.id, e);
+            job.message = e.getMessage();
+            job.status = STATUS_FAILED;
+        } finally {
+            job.finishTime = LocalDateTime.now();
+            deleteQuietly(job.source);
+        }
+    }
+
+    private TabularReader openReader(ImportJob job) throws IOException {
+        if ("xlsx".equals(job.extension)) {
+            return new XlsxTabularReader(job.source.toFile());
+        }
+        return new CsvTabularReader(new BufferedReader(new InputStreamReader(
+            Files.newInputStream(job.source), CharsetDetector.detect(job.source))));
+    }
+
+    private void importRows(ImportJob job, TabularReader reader, Writer report) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new ServiceException("文件为空");
+        }
+        Map<String, Integer> columns = resolveColumns(header);
+
+        Set<String> seenUsernames = new HashSet<>();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long rowNumber = 1;
+        List<String> cells;
+        while ((cells = reader.next()) != null) {
+            rowNumber++;
+            if (isBlank(cells)) {
+                continue;
+            }
+            if (job.processedRows.get() >= maxRows) {
+                throw new ServiceException("数据行数超过上限 " + maxRows);
+            }
+            job.processedRows.incrementAndGet();
+
+            User user = toUser(columns, cells);
+            String error = validate(user);
+            if (error == null && !seenUsernames.add(user.getUsername().toLowerCase(Locale.ROOT))) {
+                error = "文件中用户名重复";
+            }
+            if (error != null) {
+                fail(job, report, rowNumber, user.getUsername(), error);
+                continue;
+            }
+            batch.add(new PendingRow(rowNumber, user));
+            if (batch.size() >= batchSize) {
+                flush(job, batch, report);
+            }
+        }
+        flush(job, batch, report);
+    }
+
+    /**
+     * 排除数据库中已存在的用户名后批量写入
+     */
+    private void flush(ImportJob job, List<PendingRow> batch, Writer report) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> usernames = new HashSet<>(batch.size() * 2);
+        batch.forEach(row -> usernames.add(row.user.getUsername()));
+        Set<String> existing = new HashSet<>();
+        userMapper.findExistingUsernames(usernames).forEach(name -> existing.add(name.toLowerCase(Locale.ROOT)));
+
+        List<PendingRow> accepted = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (existing.contains(row.user.getUsername().toLowerCase(Locale.ROOT))) {
+                fail(job, report, row.rowNumber, row.user.getUsername(), "用户名已存在");
+            } else {
+                accepted.add(row);
+            }
+        }
+        batch.clear();
+        if (accepted.isEmpty()) {
+            return;
+        }
+        accepted = hashPasswords(job, accepted, report);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<User> users = new ArrayList<>(accepted.size());
+        accepted.forEach(row -> users.add(row.user));
+        try {
+            userMapper.insertBatch(users);
+            job.importedRows.addAndGet(users.size());
+        } catch (Exception e) {
+            // 批量写入失败（如并发创建了同名用户）时逐行写入，定位失败的行
+            log.warn("批量写入用户失败，改为逐行写入, 任务ID: {}: {}", job.id, e.getMessage());
+            for (PendingRow row : accepted) {
+                try {
+                    userMapper.insertBatch(Collections.singletonList(row.user));
+                    job.importedRows.incrementAndGet();
+                } catch (Exception rowError) {
+                    fail(job, report, row.rowNumber, row.user.getUsername(), "写入失败: " + rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 在导入的哈希线程池中计算密码哈希，哈希失败的行记入错误报告
+     * @return 哈希成功的行
+     */
+    private List<PendingRow> hashPasswords(ImportJob job, List<PendingRow> rows, Writer report) throws IOException {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            String rawPassword = row.user.getPassword();
+            hashes.add(hashExecutor.submit(() -> encodeWithRetry(rawPassword)));
+        }
+        List<PendingRow> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            try {
+                row.user.setPassword(hashes.get(i).get());
+                hashed.add(row);
+            } catch (InterruptedException e) {
+                hashes.forEach(hash -> hash.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new ServiceException("导入任务被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                String error = cause instanceof PasswordHashingBusyException
+                    ? "密码处理繁忙，请稍后重新导入该行" : "密码处理失败: " + cause.getMessage();
+                fail(job, report, row.rowNumber, row.user.getUsername(), error);
+            }
+        }
+        return hashed;
+    }
+
+    /**
+     * 编码器排队已满或等待超时时退避重试
+     */
+    private String encodeWithRetry(String rawPassword) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(rawPassword);
+            } catch (PasswordHashingBusyException e) {
+                if (attempt >= MAX_HASH_ATTEMPTS) {
+                    throw e;
+                }
+                Thread.sleep(HASH_RETRY_BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+
+    private Map<String, Integer> resolveColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String field = HEADER_ALIASES.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (field != null) {
+                columns.putIfAbsent(field, i);
+            }
+        }
+        for (String required : new String[]{"username", "password", "role", "realName"}) {
+            if (!columns.containsKey(required)) {
+                throw new ServiceException("表头缺少必需的列: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private User toUser(Map<String, Integer> columns, List<String> cells) {
+        User user = new User();
+        user.setUsername(cell(columns, cells, "username"));
+        user.setPassword(cell(columns, cells, "password"));
+        String role = cell(columns, cells, "role");
+        user.setRole(role == null ? null : role.toUpperCase(Locale.ROOT));
+        user.setRealName(cell(columns, cells, "realName"));
+        user.setEmail(cell(columns, cells, "email"));
+        user.setPhone(cell(columns, cells, "phone"));
+        user.setClassname(cell(columns, cells, "classname"));
+        user.setEnabled(true);
+        return user;
+    }
+
+    /**
+     * 与单个新增用户的校验规则一致，导入不允许创建管理员
+     */
+    private String validate(User user) {
+        String username = user.getUsername();
+        if (username == null) {
+            return "用户名不能为空";
+        }
+        if (username.length() < 4 || username.length() > 20) {
+            return "用户名长度必须在4-20个字符之间";
+        }
+        if (user.getPassword() == null) {
+            return "密码不能为空";
+        }
+        if (!ROLE_STUDENT.equals(user.getRole()) && !ROLE_TEACHER.equals(user.getRole())) {
+            return "角色必须为 STUDENT 或 TEACHER";
+        }
+        if (user.getRealName() == null) {
+            return "真实姓名不能为空";
+        }
+        if (user.getEmail() != null && !EMAIL.matcher(user.getEmail()).matches()) {
+            return "邮箱格式不正确";
+        }
+        if (ROLE_STUDENT.equals(user.getRole()) && user.getClassname() == null) {
+            return "学生用户必须填写班级信息";
+        }
+        return null;
+    }
+
+    private void fail(ImportJob job, Writer report, long rowNumber, String username, String error) throws IOException {
+        job.failedRows.incrementAndGet();
+        report.write(rowNumber + "," + csv(username) + "," + csv(error) + "\n");
+    }
+
+    private static String cell(Map<String, Integer> columns, List<String> cells, String field) {
+        Integer index = columns.get(field);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (!cell.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, field);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", path, e);
+        }
+    }
+
+    /**
+     * 待写入的行
+     */
+    private static final class PendingRow {
+        private final long rowNumber;
+        private final User user;
+
+        private PendingRow(long rowNumber, User user) {
+            this.rowNumber = rowNumber;
+            this.user = user;
+        }
+    }
+
+    /**
+     * 导入任务状态
+     */
+    private static final class ImportJob {
+        private final String id;
+        private final String fileName;
+        private final String extension;
+        private final LocalDateTime createTime = LocalDateTime.now();
+        private final AtomicLong processedRows = new AtomicLong();
+        private final AtomicLong importedRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+        private volatile String status = STATUS_PENDING;
+        private volatile String message;
+        private volatile LocalDateTime finishTime;
+        private Path source;
+        private Path report;
+
+        private ImportJob(String id, String fileName, String extension) {
+            this.id = id;
+            this.fileName = fileName;
+            this.extension = extension;
+        }
+
+        private UserImportJobVO toVO() {
+            UserImportJobVO vo = new UserImportJobVO();
+            vo.setJobId(id);
+            vo.setFileName(fileName);
+            vo.setStatus(status);
+            vo.setProcessedRows(processedRows.get());
+            vo.setImportedRows(importedRows.get());
+            vo.setFailedRows(failedRows.get());
+            vo.setMessage(message);
+            vo.setCreateTime(createTime);
+            vo.setFinishTime(finishTime);
+            return vo;
+        }
+
+        private void deleteFiles() {
+            deleteQuietly(source);
+            deleteQuietly(report);
+        }
+    }
+}
@@ -9,8 +9,13 @@ import com.course.entity.User;
 import com.course.mapper.StudentCourseMapper;
 import com.course.mapper.UserMapper;
 import com.course.security.JwtTokenUtil;
+import com.course.security.PasswordHashingBusyException;
 import com.course.security.UserDetailsImpl;
+import com.course.security.UserStateCache;
+import com.course.service.CourseStatsService;
 import com.course.service.UserService;
+import com.course.service.support.CacheInvalidator;
+import com.course.service.support.CacheKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,6 +39,9 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenUtil jwtTokenUtil;
     private final AuthenticationManager authenticationManager;
+    private final CourseStatsService courseStatsService;
+    private final UserStateCache userStateCache;
+    private final CacheInvalidator cacheInvalidator;
 
     @Override
     public String login(LoginDTO loginDTO) {
@@ -54,6 +62,9 @@ public class UserServiceImpl implements UserService {
             String token = jwtTokenUtil.generateToken(userDetails);
             log.info("用户登录成功: {}", loginDTO.getUsername());
             return token;
+        } catch (PasswordHashingBusyException e) {
+            log.warn("登录繁忙: {}, {}", loginDTO.getUsername(), e.getMessage());
+            throw new ServiceException("登录人数较多，请稍后重试");
         } catch (Exception e) {
             log.error("用户登录失败: {}, 错误: {}", loginDTO.getUsername(), e.getMessage());
             throw new ServiceException("用户名或密码错误");
@@ -110,6 +121,7 @@ public class UserServiceImpl implements UserService {
         if ("ADMIN".equals(user.getRole())) {
             throw new ServiceException("不能修改管理员用户的信息");
         }
+        cacheInvalidator.evict(CacheKeys.USER_DETAILS_CACHE, user.getUsername(), userDTO.getUsername());
 
         // 更新基本信息
         user.setUsername(userDTO.getUsername());
@@ -142,6 +154,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userMapper.updateById(user);
+        userStateCache.evict(id);
         log.info("用户信息更新成功: {} (ID = {})", user.getUsername(), id);
     }
 
@@ -156,6 +169,7 @@ public class UserServiceImpl implements UserService {
         if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
             throw new ServiceException("原密码错误");
         }
+        cacheInvalidator.evict(CacheKeys.USER_DETAILS_CACHE, user.getUsername());
 
         user.setPassword(passwordEncoder.encode(newPassword)); 
         userMapper.updateById(user);
@@ -214,19 +228,27 @@ public class UserServiceImpl implements UserService {
         if ("ADMIN".equals(user.getRole())) {
             throw new ServiceException("不能删除管理员用户");
         }
+        cacheInvalidator.evict(CacheKeys.USER_DETAILS_CACHE, user.getUsername());
         
         try {
             // 处理学生用户的课程关联
             if ("STUDENT".equals(user.getRole())) {
-                // 删除学生课程关联记录
+                // 删除学生课程关联记录，并同步课程学生数
+                List<StudentCourse> enrollments = studentCourseMapper.selectList(
+                    new QueryWrapper<StudentCourse>().select("course_id").eq("student_id", id)
+                );
                 studentCourseMapper.delete(
                     new QueryWrapper<StudentCourse>().eq("student_id", id)
                 );
+                for (StudentCourse enrollment : enrollments) {
+                    courseStatsService.adjustStudentCount(enrollment.getCourseId(), -1);
+                }
                 log.info("已删除学生 {} (ID = {}) 的课程关联记录", user.getUsername(), id);
             }
             
             // 最后删除用户
             userMapper.deleteById(id);
+            userStateCache.evict(id);
             log.info("用户删除成功: {} (ID = {})", user.getUsername(), id);
         } catch (Exception e) {
             log.error("删除用户失败: ID = {}, 错误信息: {}", id, e.getMessage());
@@ -0,0 +1,122 @@
+package com.course.service.support;
+
+import com.course.entity.Course;
+import com.course.entity.User;
+import com.course.mapper.CourseMapper;
+import com.course.mapper.UserMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 批量名称填充组件
+ * <p>
+ * 先从结果列表中收集所有课程ID/用户ID，每种实体只执行一次 selectBatchIds，
+ * 再把课程名称、用户姓名回填到列表元素中，避免逐行 selectById 造成的 N+1 查询。
+ */
+@Component
+@RequiredArgsConstructor
+public class BatchNameEnricher {
+
+    private final CourseMapper courseMapper;
+    private final UserMapper userMapper;
+
+    /**
+     * 批量填充课程名称
+     * @param items 待填充的列表
+     * @param courseIdGetter 课程ID取值函数
+     * @param courseNameSetter 课程名称设值函数
+     */
+    public <T> void fillCourseNames(Collection<T> items,
+                                    Function<T, Long> courseIdGetter,
+                                    BiConsumer<T, String> courseNameSetter) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        Map<Long, String> courseNames = findCourseNames(collectIds(items, courseIdGetter));
+        fill(items, courseIdGetter, courseNameSetter, courseNames);
+    }
+
+    /**
+     * 批量填充用户真实姓名（教师、上传者等）
+     * @param items 待填充的列表
+     * @param userIdGetter 用户ID取值函数
+     * @param userNameSetter 用户姓名设值函数
+     */
+    public <T> void fillUserNames(Collection<T> items,
+                                  Function<T, Long> userIdGetter,
+                                  BiConsumer<T, String> userNameSetter) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        Map<Long, String> userNames = findUserRealNames(collectIds(items, userIdGetter));
+        fill(items, userIdGetter, userNameSetter, userNames);
+    }
+
+    /**
+     * 批量查询课程名称
+     * @param courseIds 课程ID集合
+     * @return 课程ID -> 课程名称
+     */
+    public Map<Long, String> findCourseNames(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Course> courses = courseMapper.selectBatchIds(courseIds);
+        Map<Long, String> names = new HashMap<>(courses.size() * 2);
+        for (Course course : courses) {
+            names.put(course.getId(), course.getName());
+        }
+        return names;
+    }
+
+    /**
+     * 批量查询用户真实姓名
+     * @param userIds 用户ID集合
+     * @return 用户ID -> 真实姓名
+     */
+    public Map<Long, String> findUserRealNames(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<User> users = userMapper.selectBatchIds(userIds);
+        Map<Long, String> names = new HashMap<>(users.size() * 2);
+        for (User user : users) {
+            names.put(user.getId(), user.getRealName());
+        }
+        return names;
+    }
+
+    private <T> Set<Long> collectIds(Collection<T> items, Function<T, Long> idGetter) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (T item : items) {
+            Long id = idGetter.apply(item);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private <T> void fill(Collection<T> items,
+                          Function<T, Long> idGetter,
+                          BiConsumer<T, String> setter,
+                          Map<Long, String> names) {
+        for (T item : items) {
+            Long id = idGetter.apply(item);
+            String name = id == null ? null : names.get(id);
+            if (name != null) {
+                setter.accept(item, name);
+            }
+        }
+    }
+}
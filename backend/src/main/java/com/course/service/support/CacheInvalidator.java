@@ -0,0 +1,75 @@
+package com.course.service.support;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按键失效缓存
+ * <p>
+ * 立即删除一次，处于事务中时提交后再删除一次，避免事务提交前并发读取把旧数据重新写入缓存。
+ * 写操作应在修改数据之前调用，调用方修改了缓存中的对象而写库失败时，脏对象也已被清除。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    /**
+     * 失效指定缓存键
+     * @param cacheName 缓存名称
+     * @param keys 缓存键
+     */
+    public void evict(String cacheName, Object... keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || keys.length == 0) {
+            return;
+        }
+        List<Object> keyList = Arrays.asList(keys);
+        evictNow(cache, keyList);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(cache, keyList);
+                }
+            });
+        }
+    }
+
+    /**
+     * 清空整个缓存，只用于批量数据变更
+     * @param cacheName 缓存名称
+     */
+    public void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        cache.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.clear();
+                }
+            });
+        }
+    }
+
+    private void evictNow(Cache cache, List<Object> keys) {
+        for (Object key : keys) {
+            cache.evict(key);
+        }
+        log.debug("缓存失效, 缓存: {}, 键: {}", cache.getName(), keys);
+    }
+}
@@ -0,0 +1,73 @@
+package com.course.service.support;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 缓存名称与缓存键
+ * <p>
+ * 键带实体前缀，便于按键精确失效；注解中通过 {@code T(com.course.service.support.CacheKeys)} 引用。
+ */
+public final class CacheKeys {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
+    public static final String RESOURCE_CACHE = "resourceCache";
+    public static final String COURSE_CACHE = "courseCache";
+    public static final String ASSIGNMENT_CACHE = "assignmentCache";
+    public static final String SUBMISSION_CACHE = "submissionCache";
+
+    public static final List<String> ALL_CACHES = Collections.unmodifiableList(Arrays.asList(
+        USER_DETAILS_CACHE, RESOURCE_CACHE, COURSE_CACHE, ASSIGNMENT_CACHE, SUBMISSION_CACHE));
+
+    public static final String ALL_RESOURCES = "allResources";
+
+    private static final String COURSE_PREFIX = "course:";
+
+    private CacheKeys() {
+    }
+
+    public static String resource(Long resourceId) {
+        return "resource:" + resourceId;
+    }
+
+    public static String courseResources(Long courseId) {
+        return COURSE_PREFIX + courseId + ":resources";
+    }
+
+    public static String course(Long courseId) {
+        return COURSE_PREFIX + courseId;
+    }
+
+    /**
+     * 解析 {@link #course(Long)} 生成的键
+     * @return 课程ID，不是课程键时返回 null
+     */
+    public static Long parseCourseId(Object key) {
+        String value = String.valueOf(key);
+        if (!value.startsWith(COURSE_PREFIX) || value.indexOf(':', COURSE_PREFIX.length()) >= 0) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.substring(COURSE_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static String assignment(Long assignmentId) {
+        return "assignment:" + assignmentId;
+    }
+
+    public static String courseAssignments(Long courseId) {
+        return COURSE_PREFIX + courseId + ":assignments";
+    }
+
+    public static String submission(Long submissionId) {
+        return "submission:" + submissionId;
+    }
+
+    public static String assignmentSubmissions(Long assignmentId) {
+        return "assignment:" + assignmentId + ":submissions";
+    }
+}
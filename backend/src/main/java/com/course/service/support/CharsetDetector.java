@@ -0,0 +1,46 @@
+package com.course.service.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 文本文件编码检测：开头一段是合法 UTF-8 时按 UTF-8，否则按 GB18030（兼容 GBK，Excel 导出的中文 CSV 多为该编码）
+ */
+public final class CharsetDetector {
+
+    private static final int SAMPLE_SIZE = 64 * 1024;
+    private static final Charset FALLBACK_CHARSET = Charset.forName("GB18030");
+
+    private CharsetDetector() {
+    }
+
+    public static Charset detect(Path file) throws IOException {
+        byte[] sample = new byte[SAMPLE_SIZE];
+        int length = 0;
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while (length < sample.length && (read = input.read(sample, length, sample.length - length)) != -1) {
+                length += read;
+            }
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        // 截断处可能落在多字节字符中间，去掉末尾最多 3 个字节再检测
+        int checkLength = length == SAMPLE_SIZE ? length - 3 : length;
+        try {
+            decoder.decode(ByteBuffer.wrap(sample, 0, checkLength));
+            return StandardCharsets.UTF_8;
+        } catch (CharacterCodingException e) {
+            return FALLBACK_CHARSET;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.course.service.support;
+
+import com.course.config.CacheRefreshLoader;
+import com.course.entity.Course;
+import com.course.entity.User;
+import com.course.mapper.CourseMapper;
+import com.course.mapper.UserMapper;
+import com.course.vo.CourseVO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 课程缓存加载器，课程详情（含教师姓名）过期前在后台刷新
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseCacheLoader implements CacheRefreshLoader {
+
+    private final CourseMapper courseMapper;
+    private final UserMapper userMapper;
+
+    @Override
+    public String getCacheName() {
+        return CacheKeys.COURSE_CACHE;
+    }
+
+    @Override
+    public Object load(Object key) {
+        Long courseId = CacheKeys.parseCourseId(key);
+        return courseId == null ? null : loadCourse(courseId);
+    }
+
+    /**
+     * 查询课程详情
+     * @param courseId 课程ID
+     * @return 课程详情，不存在时返回 null
+     */
+    public CourseVO loadCourse(Long courseId) {
+        Course course = courseMapper.selectById(courseId);
+        if (course == null) {
+            return null;
+        }
+
+        CourseVO courseVO = new CourseVO();
+
+        // 获取教师信息
+        User teacher = userMapper.selectById(course.getTeacherId());
+        if (teacher != null) {
+            courseVO.setTeacherName(teacher.getRealName());
+        }
+
+        courseVO.setId(course.getId());
+        courseVO.setName(course.getName());
+        courseVO.setDescription(course.getDescription());
+        courseVO.setTeacherId(course.getTeacherId());
+        return courseVO;
+    }
+}
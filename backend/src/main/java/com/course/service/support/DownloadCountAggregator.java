@@ -0,0 +1,184 @@
+package com.course.service.support;
+
+import com.course.entity.Resource;
+import com.course.mapper.ResourceMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 资源下载次数聚合器（写回式）
+ * <p>
+ * 下载时只在内存中累加计数，由定时任务把聚合后的增量以一条批量 UPDATE 写回数据库，
+ * 应用关闭时也会写回一次。读取下载次数时需合并尚未写回的增量。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DownloadCountAggregator {
+
+    private final ResourceMapper resourceMapper;
+    private final CacheInvalidator cacheInvalidator;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    @Value("${app.download-counter.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 记录一次下载
+     * @param resourceId 资源ID
+     */
+    public void increment(Long resourceId) {
+        // 在 compute 内累加，与写回时移除计数器的操作互斥，避免累加到已移除的计数器上
+        pendingCounts.compute(resourceId, (id, adder) -> {
+            LongAdder target = adder == null ? new LongAdder() : adder;
+            target.increment();
+            return target;
+        });
+    }
+
+    /**
+     * 获取尚未写回数据库的下载次数
+     * @param resourceId 资源ID
+     * @return 待写回的增量
+     */
+    public long getPending(Long resourceId) {
+        LongAdder adder = resourceId == null ? null : pendingCounts.get(resourceId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 合并数据库中的下载次数与待写回增量
+     * @param resourceId 资源ID
+     * @param persistedCount 数据库中的下载次数
+     * @return 合并后的下载次数
+     */
+    public int withPending(Long resourceId, Integer persistedCount) {
+        long base = persistedCount == null ? 0 : persistedCount;
+        return (int) (base + getPending(resourceId));
+    }
+
+    /**
+     * 为资源列表合并待写回增量
+     * <p>
+     * 列表可能来自缓存，因此不修改原对象：只有存在待写回增量的资源才会复制一份再设置下载次数。
+     * @param resources 资源列表
+     * @return 合并后的资源列表
+     */
+    public List<Resource> mergePending(List<Resource> resources) {
+        if (resources == null || resources.isEmpty() || pendingCounts.isEmpty()) {
+            return resources;
+        }
+        List<Resource> merged = new ArrayList<>(resources.size());
+        for (Resource resource : resources) {
+            long pending = getPending(resource.getId());
+            if (pending > 0) {
+                Resource copy = new Resource();
+                BeanUtils.copyProperties(resource, copy);
+                copy.setDownloadCount(withPending(resource.getId(), resource.getDownloadCount()));
+                merged.add(copy);
+            } else {
+                merged.add(resource);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 定时把聚合后的下载次数写回数据库
+     */
+    @Scheduled(fixedDelayString = "${app.download-counter.flush-interval:10000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("下载次数写回失败，将在下次写回时重试", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("应用关闭，写回待处理的下载次数");
+        flush();
+    }
+
+    /**
+     * 写回所有待处理的下载次数
+     * <p>
+     * 先取快照写库，成功后再从计数器中扣除快照值，期间新增的下载不会丢失；写库失败时计数保留到下次写回。
+     * 扣除后归零的计数器会被移除，计数表只保留仍有待写回增量的资源。
+     * @return 写回的资源数
+     */
+    public synchronized int flush() {
+        Map<Long, Long> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingCounts.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                snapshot.put(entry.getKey(), count);
+            }
+        }
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : snapshot.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+
+        // 数据库已更新，只失效写回过的资源及其所属课程的列表
+        evictFlushed(snapshot.keySet());
+        log.debug("下载次数写回完成, 资源数: {}", snapshot.size());
+        return snapshot.size();
+    }
+
+    private void evictFlushed(Set<Long> resourceIds) {
+        List<Object> keys = new ArrayList<>(resourceIds.size() * 2 + 1);
+        for (Long resourceId : resourceIds) {
+            keys.add(CacheKeys.resource(resourceId));
+        }
+        try {
+            for (Long courseId : resourceMapper.findCourseIdsByIds(resourceIds)) {
+                keys.add(CacheKeys.courseResources(courseId));
+            }
+        } catch (Exception e) {
+            // 查询失败时退回清空整个缓存
+            log.warn("查询资源所属课程失败，清空资源缓存", e);
+            cacheInvalidator.clear(CacheKeys.RESOURCE_CACHE);
+            return;
+        }
+        keys.add(CacheKeys.ALL_RESOURCES);
+        cacheInvalidator.evict(CacheKeys.RESOURCE_CACHE, keys.toArray());
+    }
+
+    private void writeBatch(Map<Long, Long> batch) {
+        resourceMapper.addDownloadCounts(batch);
+        for (Map.Entry<Long, Long> entry : batch.entrySet()) {
+            long flushed = entry.getValue();
+            pendingCounts.computeIfPresent(entry.getKey(), (id, adder) -> {
+                adder.add(-flushed);
+                return adder.sum() == 0 ? null : adder;
+            });
+        }
+    }
+}
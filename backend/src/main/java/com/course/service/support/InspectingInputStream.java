@@ -0,0 +1,165 @@
+package com.course.service.support;
+
+import com.course.common.exception.ServiceException;
+import com.course.utils.FileValidationUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 上传检查输入流
+ * <p>
+ * 数据流经时同步完成：大小限制（超限立即中断）、SHA-256 摘要计算、
+ * 根据文件头魔数嗅探内容类型并校验与扩展名是否一致，因此上传内容只需读取一次。
+ */
+public class InspectingInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private final String extension;
+    private final MessageDigest messageDigest;
+    private final byte[] header = new byte[FileValidationUtils.SNIFF_LENGTH];
+
+    private int headerLength;
+    private boolean sniffed;
+    private long size;
+    private String detectedType;
+    private String digest;
+
+    /**
+     * @param in 原始输入流
+     * @param maxSize 允许的最大字节数
+     * @param extension 文件扩展名，用于校验嗅探出的内容类型
+     */
+    public InspectingInputStream(InputStream in, long maxSize, String extension) {
+        super(in);
+        this.maxSize = maxSize;
+        this.extension = extension;
+        try {
+            this.messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("不支持 SHA-256 摘要算法");
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            finish();
+        } else {
+            inspect(new byte[]{(byte) b}, 0, 1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n == -1) {
+            finish();
+        } else if (n > 0) {
+            inspect(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // 跳过的数据也要计入摘要和大小，因此逐块读取
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+            if (read < 0) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void inspect(byte[] b, int off, int n) {
+        size += n;
+        if (size > maxSize) {
+            throw new ServiceException("文件大小超过限制");
+        }
+        messageDigest.update(b, off, n);
+        if (!sniffed) {
+            int copy = Math.min(n, header.length - headerLength);
+            System.arraycopy(b, off, header, headerLength, copy);
+            headerLength += copy;
+            if (headerLength == header.length) {
+                sniff();
+            }
+        }
+    }
+
+    private void finish() {
+        if (!sniffed) {
+            sniff();
+        }
+        if (digest == null) {
+            digest = toHex(messageDigest.digest());
+        }
+    }
+
+    private void sniff() {
+        sniffed = true;
+        if (headerLength == 0) {
+            return;
+        }
+        detectedType = FileValidationUtils.detectType(header, headerLength);
+        if (!FileValidationUtils.matchesExtension(extension, detectedType)) {
+            throw new ServiceException("文件内容与扩展名不符");
+        }
+    }
+
+    /**
+     * @return 已读取的字节数
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return 嗅探出的内容类型，无法识别时为null
+     */
+    public String getDetectedType() {
+        return detectedType;
+    }
+
+    /**
+     * @return SHA-256 摘要（十六进制），流读取完毕后才可用
+     */
+    public String getDigest() {
+        if (digest == null) {
+            throw new IllegalStateException("输入流尚未读取完毕");
+        }
+        return digest;
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
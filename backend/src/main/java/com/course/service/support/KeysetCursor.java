@@ -0,0 +1,55 @@
+package com.course.service.support;
+
+import com.course.common.exception.ServiceException;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 按 (create_time, id) 倒序分页的游标
+ * <p>
+ * 游标对客户端不透明，内容为上一页最后一条记录的创建时间和ID。
+ */
+@Getter
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createTime;
+    private final Long id;
+
+    public KeysetCursor(LocalDateTime createTime, Long id) {
+        this.createTime = createTime;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 游标字符串，为空时返回 null（第一页）
+     * @return 游标
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            if (index <= 0) {
+                throw new ServiceException("无效的分页游标");
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, index)),
+                Long.valueOf(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ServiceException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.course.service.support;
+
+import com.course.common.exception.ServiceException;
+import com.course.service.FileService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 流式 multipart 请求读取器
+ * <p>
+ * 直接解析请求体，文件部分边读边写到最终存储位置，不经过容器的临时文件，
+ * 因此需要配合 {@code MultipartResolver} 的延迟解析使用。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MultipartStreamReader {
+
+    /**
+     * 普通表单字段的总大小上限
+     */
+    private static final long FORM_FIELDS_MAX_SIZE = 1024 * 1024;
+
+    private final FileService fileService;
+
+    @Value("${file.upload.max-size}")
+    private Long maxFileSize;
+
+    /**
+     * 读取请求：保存名为 {@code fileField} 的第一个文件，并收集其余表单字段
+     * @param request 请求
+     * @param fileField 文件字段名
+     * @return 读取结果
+     */
+    public StreamingUpload read(HttpServletRequest request, String fileField) throws IOException {
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            throw new ServiceException("请求不是 multipart/form-data 格式");
+        }
+        ServletFileUpload upload = new ServletFileUpload();
+        upload.setHeaderEncoding(StandardCharsets.UTF_8.name());
+        upload.setSizeMax(maxFileSize + FORM_FIELDS_MAX_SIZE);
+
+        StreamingUpload result = new StreamingUpload();
+        try {
+            FileItemIterator iterator = upload.getItemIterator(request);
+            while (iterator.hasNext()) {
+                FileItemStream item = iterator.next();
+                try (InputStream stream = item.openStream()) {
+                    if (item.isFormField()) {
+                        result.fields.put(item.getFieldName(), Streams.asString(stream, StandardCharsets.UTF_8.name()));
+                    } else if (fileField.equals(item.getFieldName()) && result.file == null
+                        && StringUtils.hasText(item.getName())) {
+                        result.file = fileService.storeStream(stream, StringUtils.getFilename(item.getName()));
+                        log.debug("流式上传文件已保存: {}", result.file.getFilePath());
+                    }
+                }
+            }
+        } catch (FileUploadException e) {
+            discard(result);
+            throw new ServiceException("上传请求解析失败: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            discard(result);
+            throw e;
+        }
+
+        if (result.file == null) {
+            throw new ServiceException("缺少上传文件");
+        }
+        return result;
+    }
+
+    private void discard(StreamingUpload result) {
+        if (result.file != null) {
+            fileService.deleteFile(result.file.getFilePath());
+        }
+    }
+
+    /**
+     * 流式上传的读取结果
+     */
+    @Getter
+    public static class StreamingUpload {
+        private final Map<String, String> fields = new HashMap<>();
+        private StoredFile file;
+
+        public String getField(String name) {
+            return fields.get(name);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.course.service.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 文件下载发送器
+ * <p>
+ * 支持 HTTP Range/If-Range 断点续传、ETag/Last-Modified 条件请求（304），
+ * 容器支持时大文件交给 Tomcat sendfile 零拷贝发送；小文件或容器不支持 sendfile 时，
+ * 经固定大小的缓冲区复制写入响应输出流（这条路径不是零拷贝）。
+ */
+@Slf4j
+@Component
+public class RangeFileSender {
+
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String BYTES_UNIT = "bytes";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String EXPOSED_HEADERS = String.join(", ",
+        HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.CONTENT_RANGE, HttpHeaders.CONTENT_LENGTH,
+        HttpHeaders.ACCEPT_RANGES, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED);
+
+    /**
+     * 小于该大小的文件不走 sendfile，直接写出
+     */
+    @Value("${file.download.sendfile-threshold:49152}")
+    private long sendfileThreshold;
+
+    /**
+     * 根据文件元数据生成强 ETag
+     * @param identity 文件标识（如资源ID）
+     * @param size 文件大小
+     * @param lastModified 最后修改时间（毫秒）
+     * @return 带引号的 ETag
+     */
+    public String buildEtag(String identity, long size, long lastModified) {
+        return "\"" + identity + "-" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * 发送文件
+     * @param request 请求
+     * @param response 响应
+     * @param file 文件路径
+     * @param downloadName 下载文件名
+     * @param etag 强 ETag（带引号）
+     * @return 是否从文件开头开始发送了正文（用于统计下载次数）
+     */
+    public boolean send(HttpServletRequest request, HttpServletResponse response,
+                        Path file, String downloadName, String etag) throws IOException {
+        long length = Files.size(file);
+        // HTTP 日期只精确到秒
+        long lastModified = Files.getLastModifiedTime(file).toMillis() / 1000 * 1000;
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, BYTES_UNIT);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, EXPOSED_HEADERS);
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return false;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.hasText(rangeHeader) && isIfRangeSatisfied(request, etag, lastModified)) {
+            long[] range = parseRange(rangeHeader, length);
+            if (range == null) {
+                // 无法解析或多段范围，按完整文件返回
+                log.debug("忽略不支持的 Range 请求头: {}", rangeHeader);
+            } else if (range.length == 0) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, BYTES_UNIT + " */" + length);
+                return false;
+            } else {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    BYTES_UNIT + " " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(count);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(downloadName));
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return false;
+        }
+
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // 交给 Tomcat 在请求处理结束后以 sendfile 方式发送
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+        } else {
+            transfer(file, start, count, response);
+        }
+        return start == 0;
+    }
+
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_SIZE, count)];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            InputStream in = Channels.newInputStream(channel.position(start));
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if ("*".equals(tag) || etag.equals(tag) || etag.equals(stripWeak(tag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (!StringUtils.hasText(ifRange)) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range 只接受强比较
+            return etag.equals(ifRange);
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return date != -1 && date == lastModified;
+    }
+
+    /**
+     * 解析单段 Range
+     * @return null 表示无法处理（按完整文件返回），空数组表示范围不可满足，否则为 [start, end]
+     */
+    private long[] parseRange(String header, long length) {
+        String value = header.trim();
+        if (!value.startsWith(BYTES_UNIT + "=")) {
+            return null;
+        }
+        String spec = value.substring(BYTES_UNIT.length() + 1).trim();
+        if (spec.contains(",")) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // 后缀范围：最后 N 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+                if (start >= length || start > end) {
+                    return new long[0];
+                }
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private String contentDisposition(String fileName) throws UnsupportedEncodingException {
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
+            .replaceAll("\\+", "%20");
+        return "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName;
+    }
+}
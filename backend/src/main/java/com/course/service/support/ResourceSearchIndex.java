@@ -0,0 +1,345 @@
+package com.course.service.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 资源内存倒排索引，按 BM25 排序
+ * <p>
+ * 文档按写入顺序分配序号，倒排表中只保存序号和词频；更新文档时旧序号标记删除并追加新序号，
+ * 删除的序号超过一定比例后整体压缩。读写通过读写锁保护。
+ */
+public class ResourceSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACT_DELETED = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Integer> termIds;
+    private List<String> termNames;
+    private List<Postings> postings;
+
+    private long[] docIds;
+    private long[] docCourses;
+    private int[] docLengths;
+    private int[][] docTerms;
+    private int[][] docFreqs;
+    private BitSet deleted;
+    private int docCount;
+    private int deletedCount;
+    private Map<Long, Integer> ordinals;
+    private long totalLength;
+
+    public ResourceSearchIndex() {
+        reset();
+    }
+
+    /**
+     * 写入或替换文档
+     * @param id 资源ID
+     * @param courseId 课程ID
+     * @param termFreqs 词 -> 加权词频
+     */
+    public void upsert(long id, long courseId, Map<String, Integer> termFreqs) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            addInternal(id, courseId, termFreqs);
+            if (deletedCount >= MIN_COMPACT_DELETED && deletedCount > ordinals.size() / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return 索引中的文档数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索
+     * @param queryTerms 查询词
+     * @param courseId 课程ID，为 null 时不过滤
+     * @param offset 跳过的条数
+     * @param limit 返回条数
+     * @return 命中总数和按得分倒序的第 offset 到 offset + limit 条结果
+     */
+    public TopHits search(Collection<String> queryTerms, Long courseId, int offset, int limit) {
+        if (queryTerms.isEmpty()) {
+            return TopHits.EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            int liveDocs = ordinals.size();
+            if (liveDocs == 0) {
+                return TopHits.EMPTY;
+            }
+            float avgLength = (float) totalLength / liveDocs;
+            ScoreBuffer scores = new ScoreBuffer(docCount);
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+                Postings list = postings.get(termId);
+                if (list.liveDf == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocs - list.liveDf + 0.5) / (list.liveDf + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int ord = list.ords[i];
+                    if (deleted.get(ord) || (courseId != null && docCourses[ord] != courseId)) {
+                        continue;
+                    }
+                    int tf = list.freqs[i];
+                    float norm = K1 * (1 - B + B * docLengths[ord] / avgLength);
+                    scores.add(ord, (float) (idf * tf * (K1 + 1) / (tf + norm)));
+                }
+            }
+            // limit 为 0 时只统计命中总数
+            List<Hit> hits = topHits(scores, offset + Math.max(0, limit));
+            hits = offset >= hits.size() ? Collections.emptyList() : hits.subList(offset, hits.size());
+            return new TopHits(scores.touchedCount, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Hit> topHits(ScoreBuffer scores, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        float[] values = scores.scores;
+        // 得分相同时序号大的（较新写入的）排在前面
+        Comparator<Integer> order = (a, b) -> {
+            int compare = Float.compare(values[a], values[b]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, order);
+        for (int i = 0; i < scores.touchedCount; i++) {
+            int ord = scores.touched[i];
+            if (heap.size() == limit) {
+                // 堆满时不如堆顶的文档直接跳过，避免装箱
+                int min = heap.peek();
+                if (values[ord] < values[min] || (values[ord] == values[min] && ord < min)) {
+                    continue;
+                }
+                heap.poll();
+            }
+            heap.offer(ord);
+        }
+        List<Hit> hits = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            int ord = heap.poll();
+            hits.add(new Hit(docIds[ord], values[ord]));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    private void addInternal(long id, long courseId, Map<String, Integer> termFreqs) {
+        int ord = docCount++;
+        ensureDocCapacity(docCount);
+        int[] terms = new int[termFreqs.size()];
+        int[] freqs = new int[termFreqs.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+            int termId = termId(entry.getKey());
+            int tf = entry.getValue();
+            postings.get(termId).add(ord, tf);
+            terms[i] = termId;
+            freqs[i] = tf;
+            length += tf;
+            i++;
+        }
+        docIds[ord] = id;
+        docCourses[ord] = courseId;
+        docLengths[ord] = length;
+        docTerms[ord] = terms;
+        docFreqs[ord] = freqs;
+        ordinals.put(id, ord);
+        totalLength += length;
+    }
+
+    private void removeInternal(long id) {
+        Integer ord = ordinals.remove(id);
+        if (ord == null) {
+            return;
+        }
+        deleted.set(ord);
+        deletedCount++;
+        for (int termId : docTerms[ord]) {
+            postings.get(termId).liveDf--;
+        }
+        totalLength -= docLengths[ord];
+        docTerms[ord] = null;
+        docFreqs[ord] = null;
+    }
+
+    private int termId(String term) {
+        Integer termId = termIds.get(term);
+        if (termId == null) {
+            termId = termNames.size();
+            termIds.put(term, termId);
+            termNames.add(term);
+            postings.add(new Postings());
+        }
+        return termId;
+    }
+
+    /**
+     * 去掉已删除的序号和不再使用的词，重建倒排表
+     */
+    private void compact() {
+        List<String> oldTermNames = termNames;
+        long[] oldIds = docIds;
+        long[] oldCourses = docCourses;
+        int[][] oldTerms = docTerms;
+        int[][] oldFreqs = docFreqs;
+        BitSet oldDeleted = deleted;
+        int oldCount = docCount;
+
+        reset();
+        for (int ord = 0; ord < oldCount; ord++) {
+            if (oldDeleted.get(ord)) {
+                continue;
+            }
+            Map<String, Integer> termFreqs = new HashMap<>(oldTerms[ord].length * 2);
+            for (int i = 0; i < oldTerms[ord].length; i++) {
+                termFreqs.put(oldTermNames.get(oldTerms[ord][i]), oldFreqs[ord][i]);
+            }
+            addInternal(oldIds[ord], oldCourses[ord], termFreqs);
+        }
+    }
+
+    private void reset() {
+        termIds = new HashMap<>();
+        termNames = new ArrayList<>();
+        postings = new ArrayList<>();
+        docIds = new long[INITIAL_CAPACITY];
+        docCourses = new long[INITIAL_CAPACITY];
+        docLengths = new int[INITIAL_CAPACITY];
+        docTerms = new int[INITIAL_CAPACITY][];
+        docFreqs = new int[INITIAL_CAPACITY][];
+        deleted = new BitSet();
+        docCount = 0;
+        deletedCount = 0;
+        ordinals = new HashMap<>();
+        totalLength = 0;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= docIds.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, docIds.length * 2);
+        docIds = Arrays.copyOf(docIds, newCapacity);
+        docCourses = Arrays.copyOf(docCourses, newCapacity);
+        docLengths = Arrays.copyOf(docLengths, newCapacity);
+        docTerms = Arrays.copyOf(docTerms, newCapacity);
+        docFreqs = Arrays.copyOf(docFreqs, newCapacity);
+    }
+
+    /**
+     * 单个词的倒排表
+     */
+    private static final class Postings {
+        private int[] ords = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+        /** 未删除的文档数 */
+        private int liveDf;
+
+        private void add(int ord, int freq) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            ords[size] = ord;
+            freqs[size] = freq;
+            size++;
+            liveDf++;
+        }
+    }
+
+    /**
+     * 按文档序号累加得分，避免逐个文档装箱；BM25 得分总是大于 0，得分为 0 表示尚未命中
+     */
+    private static final class ScoreBuffer {
+        private final float[] scores;
+        private int[] touched = new int[16];
+        private int touchedCount;
+
+        private ScoreBuffer(int docCount) {
+            scores = new float[docCount];
+        }
+
+        private void add(int ord, float score) {
+            if (scores[ord] == 0) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = ord;
+            }
+            scores[ord] += score;
+        }
+    }
+
+    /**
+     * 一页搜索结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TopHits {
+        private static final TopHits EMPTY = new TopHits(0, Collections.emptyList());
+
+        /** 命中的文档总数 */
+        private final int total;
+        private final List<Hit> hits;
+    }
+
+    /**
+     * 搜索结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Hit {
+        private final long id;
+        private final float score;
+    }
+}
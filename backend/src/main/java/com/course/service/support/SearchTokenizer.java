@@ -0,0 +1,92 @@
+package com.course.service.support;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 搜索分词器
+ * <p>
+ * 文本先做 NFKC 规范化并转小写。连续的字母数字作为一个词；中日韩文字按单字和相邻二元组（bigram）切分，
+ * 查询时连续两个以上的中日韩文字只使用二元组，单个文字使用单字。
+ */
+public final class SearchTokenizer {
+
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 对索引文本分词
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * 对查询文本分词
+     */
+    public static List<String> tokenizeForQuery(String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(String text, boolean query) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (isCjk(codePoint)) {
+                flushWord(word, tokens);
+                cjkRun.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushCjk(cjkRun, tokens, query);
+                if (word.length() < MAX_WORD_LENGTH) {
+                    word.appendCodePoint(codePoint);
+                }
+            } else {
+                flushWord(word, tokens);
+                flushCjk(cjkRun, tokens, query);
+            }
+        }
+        flushWord(word, tokens);
+        flushCjk(cjkRun, tokens, query);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.length() > 0) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, List<String> tokens, boolean query) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (!query || run.size() == 1) {
+            tokens.addAll(run);
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            tokens.add(run.get(i) + run.get(i + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,35 @@
+package com.course.service.support;
+
+import lombok.Data;
+
+/**
+ * 已保存文件的信息
+ */
+@Data
+public class StoredFile {
+
+    /**
+     * 文件存储路径
+     */
+    private String filePath;
+
+    /**
+     * 原始文件名
+     */
+    private String originalFilename;
+
+    /**
+     * 文件大小
+     */
+    private long size;
+
+    /**
+     * SHA-256 摘要
+     */
+    private String digest;
+
+    /**
+     * 根据文件头识别的内容类型，无法识别时为null
+     */
+    private String contentType;
+}
@@ -0,0 +1,74 @@
+package com.course.service.support.extract;
+
+import java.io.Writer;
+
+/**
+ * 有字符数上限的文本输出，连续空白合并为一个空格
+ * <p>
+ * 提取超时由调用方取消任务（中断提取线程）实现，每次写入都会检查中断标记。
+ */
+public class BoundedTextWriter extends Writer {
+
+    private final StringBuilder text = new StringBuilder();
+    private final int maxChars;
+    private boolean lastWhitespace = true;
+
+    /**
+     * @param maxChars 最多保留的字符数
+     */
+    public BoundedTextWriter(int maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws ExtractionLimitException {
+        checkCancelled();
+        for (int i = offset; i < offset + length; i++) {
+            char c = buffer[i];
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+                if (!lastWhitespace) {
+                    appendChar(' ');
+                    lastWhitespace = true;
+                }
+            } else {
+                appendChar(c);
+                lastWhitespace = false;
+            }
+        }
+    }
+
+    /**
+     * 输出分隔（段落、单元格之间）
+     */
+    public void separator() throws ExtractionLimitException {
+        write(new char[]{' '}, 0, 1);
+    }
+
+    /**
+     * 检查提取是否已超时被取消，长时间不输出文本的解析步骤应定期调用
+     */
+    public void checkCancelled() throws ExtractionLimitException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ExtractionLimitException("提取超时");
+        }
+    }
+
+    private void appendChar(char c) throws ExtractionLimitException {
+        if (text.length() >= maxChars) {
+            throw new ExtractionLimitException("文本超出 " + maxChars + " 字符");
+        }
+        text.append(c);
+    }
+
+    public String getText() {
+        return text.toString().trim();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
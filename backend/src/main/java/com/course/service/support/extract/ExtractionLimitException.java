@@ -0,0 +1,13 @@
+package com.course.service.support.extract;
+
+import java.io.IOException;
+
+/**
+ * 提取的文本超出字符数或耗时限制，已输出的文本仍然有效
+ */
+public class ExtractionLimitException extends IOException {
+
+    public ExtractionLimitException(String message) {
+        super(message);
+    }
+}
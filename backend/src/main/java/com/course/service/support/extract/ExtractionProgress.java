@@ -0,0 +1,55 @@
+package com.course.service.support.extract;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文档文本提取的进度和积压计数，本实例启动以来的累计值
+ * <p>
+ * 不依赖其他 Bean，供指标配置直接注册为 Micrometer 指标。
+ */
+@Getter
+@Component
+public class ExtractionProgress {
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    /** 截断的文件数，包括超时 */
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong extractedChars = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    /** 数据库中待提取的资源数，补扫时刷新 */
+    private final AtomicLong pendingBacklog = new AtomicLong();
+
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * 关联提取线程池，用于统计排队和执行中的任务
+     */
+    public void attach(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    public int getQueuedTasks() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getQueue().size();
+    }
+
+    public int getActiveWorkers() {
+        ThreadPoolExecutor current = executor;
+        return current == null ? 0 : current.getActiveCount();
+    }
+
+    /**
+     * @return 已处理（完成或失败）的文件数
+     */
+    public long getProcessed() {
+        return completed.get() + failed.get();
+    }
+}
@@ -0,0 +1,131 @@
+package com.course.service.support.extract;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Office Open XML（docx/pptx/xlsx）文本提取器
+ * <p>
+ * 直接读取压缩包中的正文 XML，收集文本节点（w:t、a:t、t）的内容，不依赖 POI。
+ */
+@Component
+public class OfficeXmlTextExtractor implements TextExtractor {
+
+    private static final Set<String> EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "docx", "pptx", "xlsx")));
+    private static final Pattern SLIDE_ENTRY = Pattern.compile("ppt/slides/slide(\\d+)\\.xml");
+    private static final Set<String> BLOCK_ELEMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "p", "si", "tc", "br", "tab")));
+
+    private final XMLInputFactory xmlInputFactory = createXmlInputFactory();
+
+    @Override
+    public Set<String> getExtensions() {
+        return EXTENSIONS;
+    }
+
+    @Override
+    public void extract(Path file, BoundedTextWriter output) throws IOException {
+        try (ZipFile zip = new ZipFile(file.toFile())) {
+            for (ZipEntry entry : contentEntries(zip)) {
+                try (InputStream input = zip.getInputStream(entry)) {
+                    readText(input, output);
+                }
+                output.separator();
+            }
+        }
+    }
+
+    private List<ZipEntry> contentEntries(ZipFile zip) {
+        List<ZipEntry> entries = new ArrayList<>();
+        ZipEntry document = zip.getEntry("word/document.xml");
+        if (document != null) {
+            entries.add(document);
+        }
+        ZipEntry sharedStrings = zip.getEntry("xl/sharedStrings.xml");
+        if (sharedStrings != null) {
+            entries.add(sharedStrings);
+        }
+        // 幻灯片按页码排序
+        List<ZipEntry> slides = new ArrayList<>();
+        Enumeration<? extends ZipEntry> all = zip.entries();
+        while (all.hasMoreElements()) {
+            ZipEntry entry = all.nextElement();
+            if (SLIDE_ENTRY.matcher(entry.getName()).matches()) {
+                slides.add(entry);
+            }
+        }
+        slides.sort(Comparator.comparingInt(entry -> slideNumber(entry.getName())));
+        entries.addAll(slides);
+        return entries;
+    }
+
+    private int slideNumber(String entryName) {
+        Matcher matcher = SLIDE_ENTRY.matcher(entryName);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    private void readText(InputStream input, BoundedTextWriter output) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(input);
+            int textDepth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("t".equals(reader.getLocalName())) {
+                        textDepth++;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String localName = reader.getLocalName();
+                    if ("t".equals(localName)) {
+                        textDepth--;
+                    } else if (BLOCK_ELEMENTS.contains(localName)) {
+                        output.separator();
+                    }
+                } else if (textDepth > 0 && (event == XMLStreamConstants.CHARACTERS
+                        || event == XMLStreamConstants.CDATA)) {
+                    output.write(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("解析文档 XML 失败: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // 关闭失败不影响已提取的文本
+                }
+            }
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 禁止 DTD 和外部实体，防止 XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
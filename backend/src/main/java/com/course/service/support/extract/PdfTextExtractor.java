@@ -0,0 +1,40 @@
+package com.course.service.support.extract;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * PDF 文本提取器，逐页提取，每页之间检查耗时
+ */
+@Component
+public class PdfTextExtractor implements TextExtractor {
+
+    private static final long MAX_MAIN_MEMORY = 16 * 1024 * 1024;
+
+    @Override
+    public Set<String> getExtensions() {
+        return Collections.singleton("pdf");
+    }
+
+    @Override
+    public void extract(Path file, BoundedTextWriter output) throws IOException {
+        try (PDDocument document = PDDocument.load(file.toFile(), MemoryUsageSetting.setupMixed(MAX_MAIN_MEMORY))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            int pages = document.getNumberOfPages();
+            for (int page = 1; page <= pages; page++) {
+                output.checkCancelled();
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                stripper.writeText(document, output);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.course.service.support.extract;
+
+import com.course.service.support.CharsetDetector;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 纯文本文件提取器，编码见 {@link CharsetDetector}
+ */
+@Component
+public class PlainTextExtractor implements TextExtractor {
+
+    private static final Set<String> EXTENSIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "txt", "md", "csv", "json", "xml", "java", "py", "c", "cpp", "h", "js", "ts", "sql", "html", "css")));
+
+    @Override
+    public Set<String> getExtensions() {
+        return EXTENSIONS;
+    }
+
+    @Override
+    public void extract(Path file, BoundedTextWriter output) throws IOException {
+        Charset charset = CharsetDetector.detect(file);
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(Files.newInputStream(file), charset)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.course.service.support.extract;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * 文件文本提取器
+ */
+public interface TextExtractor {
+
+    /**
+     * @return 支持的文件扩展名（小写，不含点）
+     */
+    Set<String> getExtensions();
+
+    /**
+     * 提取文件中的纯文本
+     * @param file 文件路径
+     * @param output 文本输出，超出字符数或耗时限制时抛出 {@link ExtractionLimitException}
+     */
+    void extract(Path file, BoundedTextWriter output) throws IOException;
+}
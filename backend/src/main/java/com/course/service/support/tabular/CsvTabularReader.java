@@ -0,0 +1,97 @@
+package com.course.service.support.tabular;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 逐行读取（RFC 4180：逗号分隔，双引号包裹的字段可以包含逗号、换行和转义的双引号）
+ */
+public class CsvTabularReader implements TabularReader {
+
+    private static final int MAX_FIELD_LENGTH = 4096;
+
+    private final Reader reader;
+    private int pushback = -2;
+    private boolean started;
+
+    public CsvTabularReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            // 跳过 UTF-8 BOM
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("CSV 引号未闭合");
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushback = following;
+                    }
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void append(StringBuilder field, char c) throws IOException {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IOException("CSV 字段超过 " + MAX_FIELD_LENGTH + " 个字符");
+        }
+        field.append(c);
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,17 @@
+package com.course.service.support.tabular;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 表格文件逐行读取，不把整个文件载入内存
+ */
+public interface TabularReader extends Closeable {
+
+    /**
+     * 读取下一行
+     * @return 单元格文本，文件结束时返回 null
+     */
+    List<String> next() throws IOException;
+}
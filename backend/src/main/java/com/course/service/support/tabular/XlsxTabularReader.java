@@ -0,0 +1,192 @@
+package com.course.service.support.tabular;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * xlsx 第一个工作表逐行读取
+ * <p>
+ * 用 StAX 流式解析工作表 XML，只把共享字符串表载入内存，不依赖 POI。
+ * 按单元格引用（如 C5）定位列，空单元格补空字符串。
+ */
+public class XlsxTabularReader implements TabularReader {
+
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String FIRST_SHEET = "xl/worksheets/sheet1.xml";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetInput;
+    private final XMLStreamReader sheet;
+
+    public XlsxTabularReader(File file) throws IOException {
+        zip = new ZipFile(file);
+        try {
+            sharedStrings = readSharedStrings();
+            ZipEntry sheetEntry = zip.getEntry(FIRST_SHEET);
+            if (sheetEntry == null) {
+                throw new IOException("xlsx 文件中没有工作表");
+            }
+            sheetInput = zip.getInputStream(sheetEntry);
+            sheet = XML_INPUT_FACTORY.createXMLStreamReader(sheetInput);
+        } catch (IOException e) {
+            zip.close();
+            throw e;
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new IOException("解析 xlsx 失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("解析 xlsx 失败: " + e.getMessage(), e);
+        }
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> row = new ArrayList<>();
+        String type = null;
+        int column = -1;
+        StringBuilder value = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("c".equals(name)) {
+                    type = sheet.getAttributeValue(null, "t");
+                    String ref = sheet.getAttributeValue(null, "r");
+                    column = ref == null ? row.size() : columnIndex(ref);
+                    value.setLength(0);
+                } else if ("v".equals(name) || "t".equals(name)) {
+                    inValue = true;
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                value.append(sheet.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = sheet.getLocalName();
+                if ("v".equals(name) || "t".equals(name)) {
+                    inValue = false;
+                } else if ("c".equals(name)) {
+                    while (row.size() < column) {
+                        row.add("");
+                    }
+                    row.add(cellText(type, value.toString()));
+                } else if ("row".equals(name)) {
+                    return row;
+                }
+            }
+        }
+        return row;
+    }
+
+    private String cellText(String type, String raw) {
+        if ("s".equals(type)) {
+            try {
+                int index = Integer.parseInt(raw.trim());
+                return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+            } catch (NumberFormatException e) {
+                return "";
+            }
+        }
+        // 整数形式的数字单元格去掉 ".0"，如学号、手机号
+        if (type == null && raw.endsWith(".0")) {
+            return raw.substring(0, raw.length() - 2);
+        }
+        return raw;
+    }
+
+    private static int columnIndex(String ref) {
+        int index = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    private List<String> readSharedStrings() throws IOException {
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+        List<String> strings = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try (InputStream input = zip.getInputStream(entry)) {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+            StringBuilder text = new StringBuilder();
+            boolean inText = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(reader.getLocalName())) {
+                        text.setLength(0);
+                    } else if ("t".equals(reader.getLocalName())) {
+                        inText = true;
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    text.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("t".equals(reader.getLocalName())) {
+                        inText = false;
+                    } else if ("si".equals(reader.getLocalName())) {
+                        strings.add(text.toString());
+                    }
+                }
+            }
+            return strings;
+        } catch (XMLStreamException e) {
+            throw new IOException("解析 xlsx 共享字符串失败: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // 输入流由 try-with-resources 关闭
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignored) {
+            // 关闭压缩包时一并释放
+        }
+        sheetInput.close();
+        zip.close();
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 禁止 DTD 和外部实体，防止 XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -1,8 +1,11 @@
 package com.course.utils;
 
 import org.springframework.web.multipart.MultipartFile;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -19,6 +22,71 @@ public class FileValidationUtils {
         "jpg", "jpeg", "png", "gif"
     ));
 
+    /**
+     * 类型嗅探需要读取的文件头长度（需覆盖 PE 头偏移，通常在前 512 字节内）
+     */
+    public static final int SNIFF_LENGTH = 1024;
+
+    /**
+     * DOS 头中 PE 头偏移（e_lfanew）所在位置
+     */
+    private static final int PE_OFFSET_FIELD = 0x3C;
+
+    /**
+     * 超出嗅探范围时仍视为可执行文件的 PE 头偏移上限；文本内容在该位置通常是可打印字符，解析出的偏移远大于此值
+     */
+    private static final int MAX_PE_OFFSET = 0x10000;
+
+    public static final String TYPE_PDF = "application/pdf";
+    public static final String TYPE_ZIP = "application/zip";
+    public static final String TYPE_OLE = "application/x-ole-storage";
+    public static final String TYPE_RAR = "application/vnd.rar";
+    public static final String TYPE_7Z = "application/x-7z-compressed";
+    public static final String TYPE_GZIP = "application/gzip";
+    public static final String TYPE_PNG = "image/png";
+    public static final String TYPE_JPEG = "image/jpeg";
+    public static final String TYPE_GIF = "image/gif";
+    public static final String TYPE_BMP = "image/bmp";
+    public static final String TYPE_WEBP = "image/webp";
+    public static final String TYPE_MP4 = "video/mp4";
+    public static final String TYPE_WEBM = "video/webm";
+    public static final String TYPE_AVI = "video/x-msvideo";
+    public static final String TYPE_WAV = "audio/wav";
+    public static final String TYPE_MP3 = "audio/mpeg";
+    public static final String TYPE_EXE = "application/x-msdownload";
+    public static final String TYPE_ELF = "application/x-executable";
+
+    /**
+     * 有固定文件头的扩展名及其允许的内容类型；不在表中的扩展名只拒绝可执行内容，
+     * 是否允许上传由 file.upload.allowed-types 决定
+     */
+    private static final Map<String, Set<String>> EXTENSION_TYPES = new HashMap<>();
+
+    static {
+        register(TYPE_PDF, "pdf");
+        register(TYPE_ZIP, "zip", "docx", "xlsx", "pptx", "odt", "ods", "odp", "epub");
+        register(TYPE_OLE, "doc", "xls", "ppt");
+        register(TYPE_RAR, "rar");
+        register(TYPE_7Z, "7z");
+        register(TYPE_GZIP, "gz", "tgz");
+        register(TYPE_PNG, "png");
+        register(TYPE_JPEG, "jpg", "jpeg");
+        register(TYPE_GIF, "gif");
+        register(TYPE_BMP, "bmp");
+        register(TYPE_WEBP, "webp");
+        register(TYPE_MP4, "mp4", "m4a", "m4v", "mov");
+        register(TYPE_WEBM, "webm", "mkv");
+        register(TYPE_AVI, "avi");
+        register(TYPE_WAV, "wav");
+        register(TYPE_MP3, "mp3");
+    }
+
+    private static void register(String type, String... extensions) {
+        for (String extension : extensions) {
+            EXTENSION_TYPES.computeIfAbsent(extension, k -> new HashSet<>()).add(type);
+        }
+    }
+
     /**
      * 验证文件大小
      * @param size 文件大小（字节）
@@ -70,4 +138,149 @@ public class FileValidationUtils {
     public static String getSafeFilename(String originalFilename) {
         return originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
     }
+
+    /**
+     * 根据文件头魔数识别文件内容类型
+     * @param header 文件头
+     * @param length 文件头有效长度
+     * @return 内容类型，无法识别时返回null
+     */
+    public static String detectType(byte[] header, int length) {
+        if (startsWith(header, length, 0, 0x25, 0x50, 0x44, 0x46)) {
+            return TYPE_PDF;
+        }
+        if (startsWith(header, length, 0, 0x50, 0x4B, 0x03, 0x04) || startsWith(header, length, 0, 0x50, 0x4B, 0x05, 0x06)) {
+            return TYPE_ZIP;
+        }
+        if (startsWith(header, length, 0, 0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1)) {
+            return TYPE_OLE;
+        }
+        if (startsWith(header, length, 0, 0x52, 0x61, 0x72, 0x21, 0x1A, 0x07)) {
+            return TYPE_RAR;
+        }
+        if (startsWith(header, length, 0, 0x37, 0x7A, 0xBC, 0xAF, 0x27, 0x1C)) {
+            return TYPE_7Z;
+        }
+        if (startsWith(header, length, 0, 0x1F, 0x8B)) {
+            return TYPE_GZIP;
+        }
+        if (startsWith(header, length, 0, 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return TYPE_PNG;
+        }
+        if (startsWith(header, length, 0, 0xFF, 0xD8, 0xFF)) {
+            return TYPE_JPEG;
+        }
+        if (startsWithAscii(header, length, 0, "GIF87a") || startsWithAscii(header, length, 0, "GIF89a")) {
+            return TYPE_GIF;
+        }
+        if (startsWithAscii(header, length, 0, "RIFF")) {
+            if (startsWithAscii(header, length, 8, "WEBP")) {
+                return TYPE_WEBP;
+            }
+            if (startsWithAscii(header, length, 8, "AVI ")) {
+                return TYPE_AVI;
+            }
+            if (startsWithAscii(header, length, 8, "WAVE")) {
+                return TYPE_WAV;
+            }
+        }
+        if (startsWithAscii(header, length, 4, "ftyp")) {
+            return TYPE_MP4;
+        }
+        if (startsWith(header, length, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+            return TYPE_WEBM;
+        }
+        if (startsWithAscii(header, length, 0, "ID3") || isMp3Frame(header, length)) {
+            return TYPE_MP3;
+        }
+        if (startsWith(header, length, 0, 0x7F, 0x45, 0x4C, 0x46)) {
+            return TYPE_ELF;
+        }
+        if (startsWithAscii(header, length, 0, "MZ") && isPortableExecutable(header, length)) {
+            return TYPE_EXE;
+        }
+        // BM 之后的 4 个保留字节为 0，避免把以 "BM" 开头的文本识别为位图
+        if (startsWithAscii(header, length, 0, "BM") && startsWith(header, length, 6, 0x00, 0x00, 0x00, 0x00)) {
+            return TYPE_BMP;
+        }
+        return null;
+    }
+
+    /**
+     * 无 ID3 标签的 MP3：帧同步后只接受 Layer III 且版本位有效的帧头，
+     * 排除 UTF-16LE 文本的 BOM（FF FE）等同样以 FF 开头的内容
+     */
+    private static boolean isMp3Frame(byte[] header, int length) {
+        if (length < 2 || (header[0] & 0xFF) != 0xFF || (header[1] & 0xE0) != 0xE0) {
+            return false;
+        }
+        int version = (header[1] >> 3) & 0x03;
+        int layer = (header[1] >> 1) & 0x03;
+        return version != 0x01 && layer == 0x01;
+    }
+
+    /**
+     * MZ 开头的文件只有在 e_lfanew 指向 "PE\0\0" 签名时才视为 Windows 可执行文件；
+     * 偏移超出嗅探范围但仍在合理区间时无法核实，按可执行文件处理
+     */
+    private static boolean isPortableExecutable(byte[] header, int length) {
+        if (length < PE_OFFSET_FIELD + 4) {
+            return false;
+        }
+        long offset = (header[PE_OFFSET_FIELD] & 0xFFL)
+            | (header[PE_OFFSET_FIELD + 1] & 0xFFL) << 8
+            | (header[PE_OFFSET_FIELD + 2] & 0xFFL) << 16
+            | (header[PE_OFFSET_FIELD + 3] & 0xFFL) << 24;
+        if (offset < PE_OFFSET_FIELD + 4 || offset >= MAX_PE_OFFSET) {
+            return false;
+        }
+        if (offset + 4 > length) {
+            return true;
+        }
+        return startsWith(header, length, (int) offset, 0x50, 0x45, 0x00, 0x00);
+    }
+
+    /**
+     * 检查识别出的内容类型与扩展名是否矛盾：可执行文件一律拒绝；
+     * 扩展名已登记且识别出的类型不在其允许范围内时拒绝。
+     * 无扩展名、未登记的扩展名或无法识别的内容不在这里拒绝，扩展名白名单由 file.upload.allowed-types 控制
+     * @param extension 文件扩展名，可以为空
+     * @param detectedType 识别出的内容类型，无法识别时为null
+     * @return 是否一致
+     */
+    public static boolean matchesExtension(String extension, String detectedType) {
+        if (TYPE_EXE.equals(detectedType) || TYPE_ELF.equals(detectedType)) {
+            return false;
+        }
+        if (extension == null || detectedType == null) {
+            return true;
+        }
+        Set<String> expected = EXTENSION_TYPES.get(extension.toLowerCase());
+        return expected == null || expected.contains(detectedType);
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, int... signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithAscii(byte[] header, int length, int offset, String signature) {
+        byte[] bytes = signature.getBytes(StandardCharsets.US_ASCII);
+        if (length < offset + bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (header[offset + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
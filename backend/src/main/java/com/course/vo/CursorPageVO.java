@@ -0,0 +1,20 @@
+package com.course.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageVO<T> {
+    private List<T> records;
+    /** 下一页游标，没有更多数据时为 null */
+    private String nextCursor;
+    private boolean hasMore;
+}
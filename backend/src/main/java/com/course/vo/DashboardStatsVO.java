@@ -0,0 +1,22 @@
+package com.course.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 仪表盘统计数据
+ */
+@Data
+public class DashboardStatsVO {
+    /** 指标 -> 总数 */
+    private Map<String, Long> totals;
+    /** 月份标签 yyyy-MM，从早到晚 */
+    private List<String> months;
+    /** 指标 -> 与 months 对应的每月新增数 */
+    private Map<String, List<Long>> monthly;
+    /** 快照最后更新时间 */
+    private LocalDateTime updateTime;
+}
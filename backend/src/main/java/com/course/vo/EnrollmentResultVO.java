@@ -0,0 +1,19 @@
+package com.course.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单门课程的批量选课结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentResultVO {
+    private Long courseId;
+    /** 新增的选课记录数 */
+    private Integer added;
+    /** 已在课程中而跳过的学生数 */
+    private Integer skipped;
+}
@@ -0,0 +1,29 @@
+package com.course.vo;
+
+import lombok.Data;
+
+/**
+ * 文档文本提取统计
+ */
+@Data
+public class ExtractionStatsVO {
+    /** 数据库中待提取的资源数 */
+    private Long pendingCount;
+    private Long doneCount;
+    private Long failedCount;
+    private Long skippedCount;
+    /** 本实例线程池中排队的任务数 */
+    private Integer queuedTasks;
+    private Integer activeWorkers;
+    /** 以下为本实例启动以来的累计值 */
+    private Long completed;
+    private Long failed;
+    private Long skipped;
+    private Long truncated;
+    /** 其中因超时被取消的文件数 */
+    private Long timedOut;
+    private Long rejected;
+    private Long extractedChars;
+    /** 平均每个文件的提取耗时（毫秒） */
+    private Double averageMillis;
+}
@@ -0,0 +1,17 @@
+package com.course.vo;
+
+import lombok.Data;
+
+/**
+ * 登录限流统计（本实例启动以来）
+ */
+@Data
+public class LoginRateLimitStatsVO {
+    private Long allowed;
+    private Long rejectedByIp;
+    private Long rejectedByUsername;
+    /** 当前跟踪的 IP 数 */
+    private Long trackedIps;
+    /** 当前跟踪的用户名数 */
+    private Long trackedUsernames;
+}
@@ -0,0 +1,17 @@
+package com.course.vo;
+
+import lombok.Data;
+
+/**
+ * 已有文件迁移到内容寻址存储的结果
+ */
+@Data
+public class StorageMigrationVO {
+    private int scanned;
+    private int migrated;
+    /** 迁移时发现内容已存在、直接复用的文件数 */
+    private int deduplicated;
+    private int missing;
+    private int failed;
+    private long savedBytes;
+}
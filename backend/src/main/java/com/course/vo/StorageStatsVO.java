@@ -0,0 +1,20 @@
+package com.course.vo;
+
+import lombok.Data;
+
+/**
+ * 内容寻址存储去重统计
+ */
+@Data
+public class StorageStatsVO {
+    private String storageMode;
+    private Long blobCount;
+    private Long referenceCount;
+    /** 实际占用的磁盘字节数 */
+    private Long storedBytes;
+    /** 不去重时需要占用的字节数 */
+    private Long logicalBytes;
+    private Long savedBytes;
+    /** 去重比 = logicalBytes / storedBytes */
+    private Double dedupRatio;
+}
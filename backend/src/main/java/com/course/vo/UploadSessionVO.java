@@ -0,0 +1,25 @@
+package com.course.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 分片上传会话状态
+ */
+@Data
+public class UploadSessionVO {
+    private String sessionId;
+    private String fileName;
+    private Long fileSize;
+    private Integer chunkSize;
+    private Integer totalChunks;
+    /** 已接收的分片序号，客户端只需补传缺失的分片 */
+    private List<Integer> uploadedChunks;
+    private String status;
+    /** 会话在该时间之后不再活跃将被清理 */
+    private LocalDateTime expireTime;
+    /** 合并完成后的文件访问地址 */
+    private String fileUrl;
+}
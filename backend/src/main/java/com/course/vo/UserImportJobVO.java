@@ -0,0 +1,24 @@
+package com.course.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户批量导入任务状态
+ */
+@Data
+public class UserImportJobVO {
+    private String jobId;
+    private String fileName;
+    /** PENDING、RUNNING、COMPLETED、FAILED */
+    private String status;
+    /** 已处理的数据行数（不含表头） */
+    private Long processedRows;
+    private Long importedRows;
+    private Long failedRows;
+    /** 任务失败的原因 */
+    private String message;
+    private LocalDateTime createTime;
+    private LocalDateTime finishTime;
+}
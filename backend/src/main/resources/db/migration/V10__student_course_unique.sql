@@ -0,0 +1,8 @@
+-- 选课记录按 (学生, 课程) 唯一，批量选课依赖该约束去重
+DELETE sc FROM student_course sc
+JOIN student_course keep
+  ON keep.student_id = sc.student_id AND keep.course_id = sc.course_id AND keep.id < sc.id;
+
+ALTER TABLE student_course
+    ADD UNIQUE KEY uk_sc_student_course (student_id, course_id),
+    DROP INDEX idx_sc_student_course;
@@ -0,0 +1,2 @@
+-- 密码改为带 {id} 前缀的 BCrypt 哈希（约 68 个字符），放宽列长度
+ALTER TABLE user MODIFY password VARCHAR(255) NOT NULL;
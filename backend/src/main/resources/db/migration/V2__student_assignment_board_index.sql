@@ -0,0 +1,6 @@
+-- 学生作业面板按 (作业, 学生) 取最新提交记录
+CREATE INDEX idx_hs_assignment_student_submit
+    ON homework_submission (assignment_id, student_id, submit_time);
+
+CREATE INDEX idx_sc_student_course
+    ON student_course (student_id, course_id);
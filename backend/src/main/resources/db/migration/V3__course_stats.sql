@@ -0,0 +1,19 @@
+-- 课程统计表：由写操作增量维护，定时任务对账
+CREATE TABLE IF NOT EXISTS course_stats (
+    course_id      BIGINT   NOT NULL PRIMARY KEY,
+    student_count  INT      NOT NULL DEFAULT 0,
+    resource_count INT      NOT NULL DEFAULT 0,
+    homework_count INT      NOT NULL DEFAULT 0,
+    update_time    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_resource_course ON resource (course_id);
+CREATE INDEX idx_assignment_course_status ON assignment (course_id, status);
+
+INSERT INTO course_stats (course_id, student_count, resource_count, homework_count, update_time)
+SELECT c.id,
+       (SELECT COUNT(DISTINCT sc.student_id) FROM student_course sc WHERE sc.course_id = c.id),
+       (SELECT COUNT(1) FROM resource r WHERE r.course_id = c.id),
+       (SELECT COUNT(1) FROM assignment a WHERE a.course_id = c.id AND a.status = 'active'),
+       NOW()
+FROM course c;
@@ -0,0 +1,9 @@
+-- 内容寻址存储：每个 SHA-256 摘要只保存一份文件，按引用计数回收
+CREATE TABLE IF NOT EXISTS file_blob (
+    digest      CHAR(64)     NOT NULL PRIMARY KEY,
+    file_path   VARCHAR(500) NOT NULL,
+    file_size   BIGINT       NOT NULL DEFAULT 0,
+    ref_count   INT          NOT NULL DEFAULT 0,
+    create_time DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
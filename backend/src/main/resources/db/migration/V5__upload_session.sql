@@ -0,0 +1,23 @@
+-- 分片上传会话
+CREATE TABLE IF NOT EXISTS upload_session (
+    id           VARCHAR(32)  NOT NULL PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    file_name    VARCHAR(255) NOT NULL,
+    file_size    BIGINT       NOT NULL,
+    chunk_size   INT          NOT NULL,
+    total_chunks INT          NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    part_path    VARCHAR(500) NOT NULL,
+    create_time  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_upload_session_status_update (status, update_time)
+);
+
+-- 已接收的分片
+CREATE TABLE IF NOT EXISTS upload_chunk (
+    session_id  VARCHAR(32) NOT NULL,
+    chunk_index INT         NOT NULL,
+    chunk_size  INT         NOT NULL,
+    create_time DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, chunk_index)
+);
@@ -0,0 +1,9 @@
+-- 缓存失效消息（多实例部署时通过数据库轮询广播本地缓存失效）
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    origin      VARCHAR(64)  NOT NULL,
+    cache_name  VARCHAR(64)  NOT NULL,
+    cache_key   VARCHAR(255) NULL,
+    create_time DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX idx_cache_invalidation_create_time (create_time)
+);
@@ -0,0 +1,4 @@
+-- 资源列表按 (create_time, id) 倒序游标分页
+CREATE INDEX idx_resource_status_create ON resource (status, create_time, id);
+CREATE INDEX idx_resource_course_create ON resource (course_id, status, create_time, id);
+CREATE INDEX idx_resource_uploader_create ON resource (uploader_user_id, status, create_time, id);
@@ -0,0 +1,12 @@
+-- 资源文件中提取的文本，用于全文搜索
+CREATE TABLE IF NOT EXISTS resource_content (
+    resource_id   BIGINT       NOT NULL PRIMARY KEY,
+    content       MEDIUMTEXT   NULL,
+    status        VARCHAR(20)  NOT NULL,
+    char_count    INT          NOT NULL DEFAULT 0,
+    truncated     TINYINT(1)   NOT NULL DEFAULT 0,
+    error_message VARCHAR(500) NULL,
+    create_time   DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time   DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_resource_content_status (status, resource_id)
+);
@@ -0,0 +1,19 @@
+-- 仪表盘统计快照：按指标和创建月份累计条数，写操作增量维护，定时任务对账
+-- month 为 yyyy-MM，创建时间为空的记录归入 0000-00，只计入总数
+CREATE TABLE IF NOT EXISTS dashboard_stats (
+    metric      VARCHAR(32) NOT NULL,
+    month       CHAR(7)     NOT NULL,
+    item_count  BIGINT      NOT NULL DEFAULT 0,
+    update_time DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (metric, month)
+);
+
+INSERT INTO dashboard_stats (metric, month, item_count, update_time)
+SELECT 'courses', IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00'), COUNT(1), NOW()
+FROM course GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00')
+UNION ALL
+SELECT 'resources', IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00'), COUNT(1), NOW()
+FROM resource GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00')
+UNION ALL
+SELECT 'assignments', IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00'), COUNT(1), NOW()
+FROM assignment GROUP BY IFNULL(DATE_FORMAT(create_time, '%Y-%m'), '0000-00');
@@ -0,0 +1,265 @@
+package com.course.benchmark;
+
+import com.course.CourseResourceSharingApplication;
+import com.course.entity.User;
+import com.course.security.JwtTokenUtil;
+import com.course.security.UserDetailsImpl;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 隔离舱负载检查：上传占满时普通 GET 接口的延迟
+ * <p>
+ * 以 test 配置（H2 内存库）启动完整应用和真实的 Tomcat，容器线程数调小到 {@value #TOMCAT_THREADS}。
+ * 大量客户端以较慢的速度持续上传文件（模拟网速慢的学生），占住读取请求体的容器线程；
+ * 同时另几个客户端反复请求 GET /courses/all，统计延迟分位数。
+ * 上传被拒绝（503 或连接被关闭）的客户端等待 1 秒后重试。
+ * 先后在关闭、开启隔离舱两种情况下运行，并各自先测一段没有上传时的延迟作为基线。
+ * <p>
+ * 不是 JMH 基准，也不被 surefire 执行，按 package-info 中的方式编译后直接运行 main 方法。
+ */
+public class BulkheadLoadCheck {
+
+    private static final int TOMCAT_THREADS = 40;
+    private static final int UPLOAD_CLIENTS = 120;
+    private static final int UPLOAD_MAX_CONCURRENT = 10;
+    private static final int GET_CLIENTS = 4;
+    private static final int UPLOAD_BYTES = 256 * 1024;
+    private static final int UPLOAD_SLICE_BYTES = 16 * 1024;
+    private static final long UPLOAD_SLICE_INTERVAL_MILLIS = 100;
+    private static final long BASELINE_MILLIS = 5_000;
+    private static final long SATURATED_MILLIS = 15_000;
+    private static final int READ_TIMEOUT_MILLIS = 10_000;
+    private static final long REJECTED_BACKOFF_MILLIS = 1_000;
+    private static final String BOUNDARY = "load-check-boundary";
+
+    public static void main(String[] args) throws Exception {
+        List<String> report = new ArrayList<>();
+        for (boolean bulkheadEnabled : new boolean[]{false, true}) {
+            report.addAll(run(bulkheadEnabled));
+        }
+        System.out.println();
+        System.out.println(String.format("%-9s %-10s %8s %8s %8s %8s %8s  %s",
+            "bulkhead", "phase", "requests", "p50(ms)", "p99(ms)", "max(ms)", "errors", "uploads"));
+        report.forEach(System.out::println);
+    }
+
+    private static List<String> run(boolean bulkheadEnabled) throws Exception {
+        Path uploadDir = Files.createTempDirectory("bulkhead-load-check");
+        String mode = bulkheadEnabled ? "on" : "off";
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext)
+            new SpringApplicationBuilder(CourseResourceSharingApplication.class)
+                .profiles("test")
+                // 以命令行参数传入，优先级高于 application-test.yml
+                .run(
+                    "--server.port=0",
+                    "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                    "--spring.datasource.url=jdbc:h2:mem:bulkhead_" + mode
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,MONTH;DB_CLOSE_DELAY=-1",
+                    "--app.file-upload-dir=" + uploadDir,
+                    "--file.upload.base-path=" + uploadDir,
+                    "--app.bulkhead.enabled=" + bulkheadEnabled,
+                    "--app.bulkhead.compartments.upload.max-concurrent=" + UPLOAD_MAX_CONCURRENT,
+                    "--app.bulkhead.compartments.upload.max-waiting=0",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.course=WARN",
+                    "--logging.file.name=target/logs/bulkhead-load-check.log");
+        try {
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort()
+                + context.getEnvironment().getProperty("server.servlet.context-path", "");
+            String token = seedUserToken(context);
+
+            List<String> rows = new ArrayList<>();
+            rows.add(format(mode, "baseline", measureGets(baseUrl, token, BASELINE_MILLIS), "-"));
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            Map<String, AtomicLong> uploadResults = new ConcurrentHashMap<>();
+            List<Thread> uploaders = new ArrayList<>();
+            for (int i = 0; i < UPLOAD_CLIENTS; i++) {
+                Thread uploader = new Thread(() -> {
+                    while (running.get()) {
+                        String result = upload(baseUrl, token);
+                        uploadResults.computeIfAbsent(result, key -> new AtomicLong()).incrementAndGet();
+                        if (!"200".equals(result)) {
+                            // 被拒绝后按 Retry-After 等待再重试，与前端的处理一致
+                            sleepQuietly(REJECTED_BACKOFF_MILLIS);
+                        }
+                    }
+                }, "load-check-upload-" + i);
+                uploader.setDaemon(true);
+                uploader.start();
+                uploaders.add(uploader);
+            }
+            Thread.sleep(2_000);
+            LatencySample saturated = measureGets(baseUrl, token, SATURATED_MILLIS);
+            running.set(false);
+            for (Thread uploader : uploaders) {
+                uploader.join(READ_TIMEOUT_MILLIS);
+            }
+            rows.add(format(mode, "uploading", saturated, uploadResults.toString()));
+            return rows;
+        } finally {
+            context.close();
+            FileSystemUtils.deleteRecursively(uploadDir);
+        }
+    }
+
+    private static String seedUserToken(ServletWebServerApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO `user` (username, password, role, real_name, enabled) "
+            + "VALUES ('load', '{noop}x', 'STUDENT', '负载', TRUE)");
+        User user = new User();
+        user.setId(jdbcTemplate.queryForObject("SELECT id FROM `user` WHERE username = 'load'", Long.class));
+        user.setUsername("load");
+        user.setRole("STUDENT");
+        user.setEnabled(true);
+        return context.getBean(JwtTokenUtil.class).generateToken(new UserDetailsImpl(user));
+    }
+
+    private static LatencySample measureGets(String baseUrl, String token, long durationMillis)
+            throws InterruptedException {
+        LatencySample sample = new LatencySample();
+        long deadline = System.currentTimeMillis() + durationMillis;
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < GET_CLIENTS; i++) {
+            Thread client = new Thread(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    long start = System.nanoTime();
+                    boolean ok = get(baseUrl + "/courses/all", token);
+                    sample.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), ok);
+                }
+            }, "load-check-get-" + i);
+            client.start();
+            clients.add(client);
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        return sample;
+    }
+
+    private static boolean get(String url, String token) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+            connection.setConnectTimeout(READ_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            return status == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 以 multipart 分块发送，每 {@value #UPLOAD_SLICE_INTERVAL_MILLIS} ms 写一片
+     * @return HTTP 状态码，连接出错时为异常类名
+     */
+    private static String upload(String baseUrl, String token) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/file/upload/stream").openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setChunkedStreamingMode(UPLOAD_SLICE_BYTES);
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+            connection.setConnectTimeout(READ_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"load.txt\"\r\n"
+                    + "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                byte[] slice = new byte[UPLOAD_SLICE_BYTES];
+                for (int sent = 0; sent < UPLOAD_BYTES; sent += slice.length) {
+                    // 每片内容不同，避免按内容去重后不再写盘
+                    slice[0] = (byte) System.nanoTime();
+                    slice[1] = (byte) Thread.currentThread().getId();
+                    out.write(slice);
+                    out.flush();
+                    Thread.sleep(UPLOAD_SLICE_INTERVAL_MILLIS);
+                }
+                out.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            drain(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            return String.valueOf(status);
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        try (InputStream body = in) {
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) >= 0) {
+                // 读完响应体，连接才能复用
+            }
+        }
+    }
+
+    private static String format(String mode, String phase, LatencySample sample, String uploads) {
+        return String.format("%-9s %-10s %8d %8d %8d %8d %8d  %s", mode, phase, sample.count(),
+            sample.percentile(0.50), sample.percentile(0.99), sample.percentile(1.0), sample.errors.get(), uploads);
+    }
+
+    private static final class LatencySample {
+        private final List<Long> millis = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicLong errors = new AtomicLong();
+
+        void record(long elapsedMillis, boolean ok) {
+            millis.add(elapsedMillis);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        int count() {
+            return millis.size();
+        }
+
+        long percentile(double quantile) {
+            List<Long> sorted;
+            synchronized (millis) {
+                sorted = new ArrayList<>(millis);
+            }
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.course.benchmark;
+
+import com.course.security.JwtAuthenticationFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 过滤器排除路径匹配的开销
+ * <p>
+ * compiledPatterns 调用当前的 shouldNotFilter（启动时编译的 PathPattern）；
+ * regexPerRequest 复现改造前的实现：每个请求对每条规则执行 String.matches，每次都重新编译正则。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtExcludePathBenchmark {
+
+    /**
+     * 命中首条规则、命中末尾通配规则、不命中任何规则
+     */
+    @Param({"/auth/login", "/files/2024/05/01/report.pdf", "/api/courses/42/resources"})
+    private String path;
+
+    private ExposedFilter filter;
+
+    @Setup
+    public void setUp() {
+        JwtFixtures.quietLogging();
+        filter = new ExposedFilter();
+    }
+
+    /**
+     * 只构造请求对象，作为其余两项的基线
+     */
+    @Benchmark
+    public Object requestOnly() {
+        return new MockHttpServletRequest("GET", path);
+    }
+
+    @Benchmark
+    public boolean compiledPatterns() {
+        return filter.excluded(new MockHttpServletRequest("GET", path));
+    }
+
+    @Benchmark
+    public boolean regexPerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/public/")) {
+            return true;
+        }
+        return JwtFixtures.EXCLUDE_PATHS.stream()
+            .anyMatch(excludePath -> uri.startsWith(excludePath) || uri.matches(excludePath.replace("**", ".*")));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtExcludePathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static class ExposedFilter extends JwtAuthenticationFilter {
+
+        ExposedFilter() {
+            super(JwtFixtures.tokenUtil(), JwtFixtures.userDetailsService(), new ObjectMapper(),
+                JwtFixtures.userStateCache(), JwtFixtures.EXCLUDE_PATHS);
+        }
+
+        boolean excluded(HttpServletRequest request) {
+            return shouldNotFilter(request);
+        }
+    }
+}
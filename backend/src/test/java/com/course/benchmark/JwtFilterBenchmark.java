@@ -0,0 +1,129 @@
+package com.course.benchmark;
+
+import com.course.security.JwtAuthenticationFilter;
+import com.course.security.JwtTokenUtil;
+import com.course.security.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 过滤器每个请求的开销
+ * <p>
+ * claimsToken 为当前的快速路径（一次解析 + 用户状态缓存命中）；legacyToken 为不含用户声明的旧令牌；
+ * previousPipeline 按改造前的实现复现：每次解析都重建密钥和解析器、共解析三次、加载两次用户。
+ * 用户加载由内存桩代替，生产环境中每次加载还要额外加上一次数据库或缓存查询。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private UserDetailsService userDetailsService;
+    private String claimsToken;
+    private String legacyToken;
+
+    @Setup
+    public void setUp() {
+        JwtFixtures.quietLogging();
+        JwtTokenUtil tokenUtil = JwtFixtures.tokenUtil();
+        filter = JwtFixtures.filter(tokenUtil);
+        userDetailsService = JwtFixtures.userDetailsService();
+        claimsToken = tokenUtil.generateToken(new UserDetailsImpl(JwtFixtures.user()));
+        legacyToken = tokenUtil.generateToken(org.springframework.security.core.userdetails.User
+            .withUsername("alice").password("x").authorities("STUDENT").build());
+    }
+
+    @Benchmark
+    public Object claimsToken() throws ServletException, IOException {
+        return filter(claimsToken);
+    }
+
+    @Benchmark
+    public Object legacyToken() throws ServletException, IOException {
+        return filter(legacyToken);
+    }
+
+    @Benchmark
+    public Object previousPipeline() {
+        MockHttpServletRequest request = request(claimsToken);
+        String username = parseUncached(claimsToken).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valid = username.equals(parseUncached(claimsToken).getSubject())
+            && !parseUncached(claimsToken).getExpiration().before(new Date());
+        if (valid) {
+            UserDetails reloaded = userDetailsService.loadUserByUsername(username);
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                reloaded, null, Collections.singletonList(new SimpleGrantedAuthority(
+                    "ROLE_" + reloaded.getAuthorities().iterator().next().getAuthority())));
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        Object result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return userDetails == null ? null : result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private Object filter(String token) throws ServletException, IOException {
+        filter.doFilter(request(token), new MockHttpServletResponse(), NOOP_CHAIN);
+        Object result = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return result;
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    /**
+     * 改造前 JwtTokenUtil 的解析方式：每次调用都重新构建签名密钥和解析器
+     */
+    private static Claims parseUncached(String token) {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(JwtFixtures.SECRET.getBytes(StandardCharsets.UTF_8)))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+}
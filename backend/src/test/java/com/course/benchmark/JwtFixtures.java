@@ -0,0 +1,74 @@
+package com.course.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.course.entity.User;
+import com.course.mapper.UserMapper;
+import com.course.security.JwtAuthenticationFilter;
+import com.course.security.JwtTokenUtil;
+import com.course.security.UserDetailsImpl;
+import com.course.security.UserStateCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JWT 相关基准共用的对象：与 application.yml 相同的排除路径，用户查询由内存桩代替数据库
+ */
+final class JwtFixtures {
+
+    static final String SECRET = "benchmark-secret-key-for-course-resource-sharing-platform";
+
+    static final List<String> EXCLUDE_PATHS = Arrays.asList(
+        "/auth/login", "/auth/register", "/auth/refresh", "/public/**",
+        "/swagger-ui/**", "/v3/api-docs/**", "/files/**", "/error");
+
+    private JwtFixtures() {
+    }
+
+    /**
+     * 没有 Spring 上下文时 logback 默认输出 DEBUG，这里与生产环境一样只保留 INFO
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+    }
+
+    static JwtTokenUtil tokenUtil() {
+        JwtTokenUtil tokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(tokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenUtil, "expiration", 3_600_000L);
+        tokenUtil.init();
+        return tokenUtil;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setRole("STUDENT");
+        user.setEnabled(true);
+        return user;
+    }
+
+    static UserDetailsService userDetailsService() {
+        return username -> new UserDetailsImpl(user());
+    }
+
+    static UserStateCache userStateCache() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.selectById(1L)).thenReturn(user());
+        return new UserStateCache(userMapper, 60_000, 10_000);
+    }
+
+    static JwtAuthenticationFilter filter(JwtTokenUtil tokenUtil) {
+        return new JwtAuthenticationFilter(tokenUtil, userDetailsService(), new ObjectMapper(),
+            userStateCache(), EXCLUDE_PATHS);
+    }
+}
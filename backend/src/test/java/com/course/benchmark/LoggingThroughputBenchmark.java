@@ -0,0 +1,124 @@
+package com.course.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.course.common.logging.SamplingFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 日志吞吐：业务线程每秒能处理多少个“请求”的日志
+ * <p>
+ * 每个请求输出一行 INFO 业务日志和一条 MyBatis 语句的三行 DEBUG 日志，写入文件。
+ * sync 由业务线程直接写文件，async 与 logback-spring.xml 相同，经过不阻塞的异步队列，
+ * 队列满时丢弃日志，因此 async 的吞吐是业务线程一侧的上限，不代表全部写入了文件；
+ * sampleRate 为 1 时不采样，为 10 时与默认配置相同，语句日志每 10 条保留一条。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LoggingThroughputBenchmark {
+
+    @Param({"sync", "async"})
+    private String output;
+
+    @Param({"1", "10"})
+    private int sampleRate;
+
+    private LoggerContext context;
+    private Path directory;
+    private Logger business;
+    private Logger statement;
+    private long requestId;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        context = new LoggerContext();
+
+        SamplingFilter filter = new SamplingFilter();
+        filter.addPrefix("com.course.mapper");
+        filter.setRate(sampleRate);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(directory.resolve("application.log").toString());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if ("async".equals(output)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+
+        business = context.getLogger("com.course.service.impl.ResourceServiceImpl");
+        statement = context.getLogger("com.course.mapper.ResourceMapper.selectById");
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() throws IOException {
+        context.stop();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public void request() {
+        long id = ++requestId;
+        business.info("获取资源详情, ID: {}", id);
+        statement.debug("==>  Preparing: SELECT id, name, file_name, course_id FROM resource WHERE id = ?");
+        statement.debug("==> Parameters: " + id + "(Long)");
+        statement.debug("<==      Total: 1");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LoggingThroughputBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.course.benchmark;
+
+import com.course.config.PasswordHashingProperties;
+import com.course.security.AdaptivePasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个强度下单核每秒可完成的登录密码校验次数
+ * <p>
+ * 单线程运行，吞吐即单核的登录/秒。direct 直接调用 BCrypt，pooled 经过编码器的哈希线程池，
+ * 两者之差是线程池切换的开销；legacyPlaintext 是旧明文记录在升级前的校验。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder bcrypt;
+    private String bcryptHash;
+    private AdaptivePasswordEncoder pooled;
+    private String pooledHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtFixtures.quietLogging();
+        bcrypt = new BCryptPasswordEncoder(strength);
+        bcryptHash = bcrypt.encode(PASSWORD);
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setWorkers(1);
+        pooled = new AdaptivePasswordEncoder(properties);
+        pooledHash = pooled.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pooled.destroy();
+    }
+
+    @Benchmark
+    public boolean direct() {
+        return bcrypt.matches(PASSWORD, bcryptHash);
+    }
+
+    @Benchmark
+    public boolean pooled() {
+        return pooled.matches(PASSWORD, pooledHash);
+    }
+
+    @Benchmark
+    public boolean legacyPlaintext() {
+        return pooled.matches(PASSWORD, PASSWORD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PasswordHashBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.course.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 进程 CPU 时间分析器：每轮迭代结束时报告每次操作消耗的 CPU 时间和 CPU 利用率
+ * <p>
+ * 统计的是整个被测 JVM 的 CPU 时间，包括容器线程、客户端线程以及 JIT、GC 线程，
+ * 适合比较同一进程内发送端和接收端都相同、只有发送方式不同的几种实现。
+ * 通过 {@code addProfiler(ProcessCpuProfiler.class)} 启用，沙箱中没有 perf 时代替 perfnorm。
+ */
+public class ProcessCpuProfiler implements InternalProfiler {
+
+    private long startCpuNanos;
+    private long startWallNanos;
+
+    @Override
+    public String getDescription() {
+        return "process CPU time per operation";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        startWallNanos = System.nanoTime();
+        startCpuNanos = processCpuNanos();
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams,
+                                                       IterationResult result) {
+        long cpuNanos = processCpuNanos() - startCpuNanos;
+        long wallNanos = System.nanoTime() - startWallNanos;
+        long ops = result.getMetadata().getAllOps();
+        return Arrays.asList(
+            new ScalarResult("cpu.time.norm", ops == 0 ? Double.NaN : cpuNanos / 1_000_000.0 / ops,
+                "ms/op", AggregationPolicy.AVG),
+            new ScalarResult("cpu.util", wallNanos == 0 ? Double.NaN : (double) cpuNanos / wallNanos,
+                "cores", AggregationPolicy.AVG));
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+}
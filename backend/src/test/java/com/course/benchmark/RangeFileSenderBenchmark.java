@@ -0,0 +1,312 @@
+package com.course.benchmark;
+
+import com.course.service.support.RangeFileSender;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下载发送的吞吐与 CPU 开销
+ * <p>
+ * http 开头的基准在同一进程中启动真实的 Tomcat（NIO 连接器，默认开启 sendfile），经本机回环地址完整下载文件，对比：
+ * <ul>
+ *     <li>httpLegacyResponseEntity：改造前 ResourceController 返回 {@code ResponseEntity<FileSystemResource>} 的写法</li>
+ *     <li>httpBufferedCopy：{@link RangeFileSender} 关闭 sendfile，经缓冲区复制写出</li>
+ *     <li>httpSendfile：{@link RangeFileSender} 按默认阈值交给 Tomcat sendfile 发送</li>
+ * </ul>
+ * 其余两个基准不经过网络，输出流丢弃数据，只比较缓冲区复制与经 {@link Channels#newChannel} 包装输出流后调用 transferTo 的写法。
+ * <p>
+ * main 方法同时启用 gc 分析器和 {@link ProcessCpuProfiler}，cpu.time.norm 为每次下载消耗的进程 CPU 时间（含客户端读取）。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeFileSenderBenchmark {
+
+    private static final String ETAG = "\"bench\"";
+    private static final String DOWNLOAD_NAME = "a.bin";
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+
+    @Param({"1048576", "52428800", "104857600"})
+    private int fileSize;
+
+    private Path file;
+    private RangeFileSender sender;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JwtFixtures.quietLogging();
+        file = Files.createTempFile("range-sender", ".bin");
+        byte[] block = new byte[1024 * 1024];
+        new Random(42).nextBytes(block);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (int written = 0; written < fileSize; written += block.length) {
+                channel.write(ByteBuffer.wrap(block, 0, Math.min(block.length, fileSize - written)));
+            }
+        }
+        sender = newSender(Long.MAX_VALUE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long httpLegacyResponseEntity(HttpServer server) throws IOException {
+        return server.download("/legacy", file, fileSize);
+    }
+
+    @Benchmark
+    public long httpBufferedCopy(HttpServer server) throws IOException {
+        return server.download("/copy", file, fileSize);
+    }
+
+    @Benchmark
+    public long httpSendfile(HttpServer server) throws IOException {
+        return server.download("/sendfile", file, fileSize);
+    }
+
+    @Benchmark
+    public boolean bufferedCopy(Blackhole blackhole) throws IOException {
+        DiscardingResponse response = new DiscardingResponse(blackhole);
+        return sender.send(new MockHttpServletRequest("GET", "/"), response, file, DOWNLOAD_NAME, ETAG);
+    }
+
+    @Benchmark
+    public long channelTransferTo(Blackhole blackhole) throws IOException {
+        DiscardingResponse response = new DiscardingResponse(blackhole);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            long remaining = fileSize;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            return position;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RangeFileSenderBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .addProfiler(ProcessCpuProfiler.class)
+            .build()).run();
+    }
+
+    private static RangeFileSender newSender(long sendfileThreshold) {
+        RangeFileSender sender = new RangeFileSender();
+        ReflectionTestUtils.setField(sender, "sendfileThreshold", sendfileThreshold);
+        return sender;
+    }
+
+    /**
+     * 内嵌 Tomcat 与 Spring MVC，每轮基准启动一次
+     */
+    @State(Scope.Benchmark)
+    public static class HttpServer {
+
+        private Path baseDir;
+        private Tomcat tomcat;
+        private String baseUrl;
+        private final byte[] buffer = new byte[64 * 1024];
+
+        @Setup(Level.Trial)
+        public void start() throws IOException, LifecycleException {
+            baseDir = Files.createTempDirectory("range-sender-tomcat");
+            tomcat = new Tomcat();
+            tomcat.setBaseDir(baseDir.toString());
+            Connector connector = new Connector(Http11NioProtocol.class.getName());
+            connector.setPort(0);
+            tomcat.setConnector(connector);
+
+            Context context = tomcat.addContext("", baseDir.toString());
+            AnnotationConfigWebApplicationContext webContext = new AnnotationConfigWebApplicationContext();
+            webContext.register(DownloadConfig.class);
+            Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(webContext)).setLoadOnStartup(1);
+            context.addServletMappingDecoded("/", "dispatcher");
+            tomcat.start();
+            baseUrl = "http://localhost:" + connector.getLocalPort();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() throws LifecycleException {
+            tomcat.stop();
+            tomcat.destroy();
+            FileSystemUtils.deleteRecursively(baseDir.toFile());
+        }
+
+        /**
+         * 完整读取响应体，长度不符时报错，避免把失败的请求计入吞吐
+         */
+        long download(String endpoint, Path file, long expectedSize) throws IOException {
+            URL url = new URL(baseUrl + endpoint + "?path="
+                + URLEncoder.encode(file.toString(), StandardCharsets.UTF_8.name()));
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            long total = 0;
+            try (InputStream in = connection.getInputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    total += read;
+                }
+            }
+            if (total != expectedSize) {
+                throw new IllegalStateException(endpoint + " 返回了 " + total + " 字节，期望 " + expectedSize);
+            }
+            if ("/sendfile".equals(endpoint) && !DownloadController.sendfileSupported) {
+                throw new IllegalStateException("连接器未开启 sendfile");
+            }
+            return total;
+        }
+    }
+
+    /**
+     * 不加 {@code @Configuration}、{@code @RestController} 等组件注解，避免被 LoadCheck 启动的完整应用扫描到
+     */
+    @EnableWebMvc
+    public static class DownloadConfig {
+
+        @Bean
+        public DownloadController downloadController() {
+            return new DownloadController();
+        }
+    }
+
+    @RequestMapping
+    public static class DownloadController {
+
+        private static volatile boolean sendfileSupported;
+
+        private final RangeFileSender copySender = newSender(Long.MAX_VALUE);
+        private final RangeFileSender sendfileSender = newSender(SENDFILE_THRESHOLD);
+
+        /**
+         * 改造前 ResourceController.downloadResource 的写法
+         */
+        @GetMapping("/legacy")
+        public ResponseEntity<org.springframework.core.io.Resource> legacy(@RequestParam("path") String path)
+                throws UnsupportedEncodingException {
+            String encodedFileName = URLEncoder.encode(DOWNLOAD_NAME, StandardCharsets.UTF_8.toString())
+                .replaceAll("\\+", "%20");
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"" + encodedFileName + "\"; filename*=UTF-8''" + encodedFileName)
+                .header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.CONTENT_DISPOSITION)
+                .body(new FileSystemResource(path));
+        }
+
+        @GetMapping("/copy")
+        public void copy(@RequestParam("path") String path, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            copySender.send(request, response, Paths.get(path), DOWNLOAD_NAME, ETAG);
+        }
+
+        @GetMapping("/sendfile")
+        public void sendfile(@RequestParam("path") String path, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+            sendfileSupported = Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR));
+            sendfileSender.send(request, response, Paths.get(path), DOWNLOAD_NAME, ETAG);
+        }
+    }
+
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream out;
+
+        DiscardingResponse(Blackhole blackhole) {
+            this.out = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    blackhole.consume(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    blackhole.consume(b[off + len - 1]);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.course.benchmark;
+
+import com.course.service.support.ResourceSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 资源搜索索引的查询耗时
+ * <p>
+ * 随机生成的资源按近似 Zipf 分布取词。对比索引取第一页、翻到结果窗口末尾的一页，
+ * 以及原先 LIKE '%关键词%' 查询在内存中的等价做法（逐条做子串匹配），后者不含数据库往返，只是下限。
+ * <p>
+ * 每组参数建索引时输出构建耗时和索引保留的堆内存（建索引前后各做一次 GC，取已用堆之差，是估算值）。
+ * 一百万条文档时索引和子串扫描用的名称列表合计约需 1GB 堆，fork 的 JVM 以 -Xmx3g 运行。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ResourceSearchIndexBenchmark {
+
+    private static final int VOCABULARY = 5000;
+    private static final int TERMS_PER_DOC = 30;
+    private static final int PAGE_SIZE = 20;
+    private static final int LAST_WINDOW_OFFSET = 1000 - PAGE_SIZE;
+
+    @Param({"10000", "100000", "1000000"})
+    private int documents;
+
+    /**
+     * common 命中大量文档，rare 只命中少量文档
+     */
+    @Param({"common", "rare"})
+    private String query;
+
+    private ResourceSearchIndex index;
+    private List<String> names;
+    private List<String> queryTerms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        index = new ResourceSearchIndex();
+        for (int id = 1; id <= documents; id++) {
+            Map<String, Integer> termFreqs = new HashMap<>();
+            for (int i = 0; i < TERMS_PER_DOC; i++) {
+                termFreqs.merge(word(zipf(random)), 1, Integer::sum);
+            }
+            index.upsert(id, id % 50, termFreqs);
+        }
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long retainedBytes = usedHeapAfterGc() - heapBefore;
+        // 输出只用 ASCII，fork 的 JVM 在非 UTF-8 的终端下中文会变成问号
+        System.out.printf("%nindex build: documents=%d, time=%d ms, retained heap=%.1f MB (%.0f B/doc)%n",
+            documents, buildMillis, retainedBytes / 1024.0 / 1024.0, (double) retainedBytes / documents);
+
+        // 用相同的种子重新生成名称，与索引中的词一致
+        random = new Random(42);
+        names = new ArrayList<>(documents);
+        for (int id = 1; id <= documents; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < TERMS_PER_DOC; i++) {
+                name.append(word(zipf(random))).append(' ');
+            }
+            names.add(name.toString());
+        }
+        queryTerms = "common".equals(query)
+            ? Arrays.asList(word(1), word(2))
+            : Arrays.asList(word(VOCABULARY - 1), word(VOCABULARY - 2));
+    }
+
+    @Benchmark
+    public ResourceSearchIndex.TopHits indexFirstPage() {
+        return index.search(queryTerms, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ResourceSearchIndex.TopHits indexLastWindowPage() {
+        return index.search(queryTerms, null, LAST_WINDOW_OFFSET, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int substringScan() {
+        String keyword = queryTerms.get(0) + " ";
+        int matches = 0;
+        for (String name : names) {
+            if (name.contains(keyword)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static int zipf(Random random) {
+        // 取值 1..VOCABULARY，小的取值出现得多
+        return Math.min(VOCABULARY, (int) Math.floor(Math.pow(VOCABULARY, random.nextDouble())));
+    }
+
+    private static String word(int rank) {
+        return "w" + rank;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResourceSearchIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.course.benchmark;
+
+import com.course.config.PasswordHashingProperties;
+import com.course.security.AdaptivePasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 用户导入的密码哈希：导入批次耗时和同时进行的登录校验耗时
+ * <p>
+ * 每组一个线程哈希一批导入密码，另一个线程不停校验登录密码。对比原先的 parallelStream（公共 ForkJoin 池）
+ * 和现在的导入哈希线程池（2 个线程，与 app.user-import.hash-workers 默认值一致），两者都经过同一个编码器线程池。
+ * BCrypt 强度固定为 6 以缩短单次运行时间，只比较相对值。
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class UserImportHashBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int IMPORT_HASH_WORKERS = 2;
+
+    private AdaptivePasswordEncoder encoder;
+    private ExecutorService importHashExecutor;
+    private List<String> passwords;
+    private String loginHash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtFixtures.quietLogging();
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(6);
+        encoder = new AdaptivePasswordEncoder(properties);
+        importHashExecutor = Executors.newFixedThreadPool(IMPORT_HASH_WORKERS);
+        passwords = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            passwords.add("password-" + i);
+        }
+        loginHash = encoder.encode("login-password");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        importHashExecutor.shutdownNow();
+        encoder.destroy();
+    }
+
+    @Benchmark
+    @Group("parallelStream")
+    @GroupThreads(1)
+    public List<String> importBatchParallelStream() {
+        return passwords.parallelStream().map(encoder::encode).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Group("parallelStream")
+    @GroupThreads(1)
+    public boolean loginDuringParallelStream() {
+        return encoder.matches("login-password", loginHash);
+    }
+
+    @Benchmark
+    @Group("importExecutor")
+    @GroupThreads(1)
+    public List<String> importBatchExecutor() throws InterruptedException, ExecutionException {
+        List<Future<String>> futures = new ArrayList<>(passwords.size());
+        for (String password : passwords) {
+            futures.add(importHashExecutor.submit(() -> encoder.encode(password)));
+        }
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            hashes.add(future.get());
+        }
+        return hashes;
+    }
+
+    @Benchmark
+    @Group("importExecutor")
+    @GroupThreads(1)
+    public boolean loginDuringImportExecutor() {
+        return encoder.matches("login-password", loginHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UserImportHashBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,215 @@
+package com.course.benchmark;
+
+import com.course.CourseResourceSharingApplication;
+import com.course.service.UserImportService;
+import com.course.vo.UserImportJobVO;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 用户导入负载检查：生成的大表格经 UserImportService 导入嵌入式数据库时的吞吐和堆内存峰值
+ * <p>
+ * 以 test 配置（H2 内存库）启动完整应用，分别生成 {@value #DEFAULT_ROWS} 行（可由第一个参数指定）的 CSV 和 xlsx，
+ * xlsx 与 Excel 保存的文件一样使用共享字符串表。每种格式导入前清空用户表并做 GC，记录已用堆作为基线，
+ * 导入期间每 {@value #SAMPLE_INTERVAL_MILLIS} ms 采样一次已用堆，报告峰值与基线之差。
+ * <p>
+ * 测试表结构中 user.username 没有索引，每批排重查询 findExistingUsernames 都要扫描整张用户表，
+ * 随已导入行数线性变慢。因此先按现有表结构导入一遍，再建一个用户名索引导入一遍，分别报告。
+ * <p>
+ * BCrypt 强度设为允许的最小值 4，尽量减小密码哈希的占比；但强度 4 单次哈希仍约 1.5 ms，CPU 核数少时仍是主要耗时。
+ * 生产强度下总耗时约为 行数 × 单次哈希耗时 / min(app.user-import.hash-workers, CPU 核数)。
+ * 不是 JMH 基准，按 package-info 中的方式编译后直接运行 main 方法。
+ */
+public class UserImportLoadCheck {
+
+    private static final int DEFAULT_ROWS = 100_000;
+    private static final long SAMPLE_INTERVAL_MILLIS = 20;
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final String HEADER = "用户名,密码,角色,姓名,邮箱,手机号,班级";
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        Path dir = Files.createTempDirectory("user-import-load-check");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CourseResourceSharingApplication.class)
+            .profiles("test")
+            // 以命令行参数传入，优先级高于 application-test.yml
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:user_import_load"
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,MONTH;DB_CLOSE_DELAY=-1",
+                "--app.password.strength=4",
+                "--app.user-import.max-rows=" + Math.max(rows, 200_000),
+                "--logging.level.root=WARN",
+                "--logging.level.com.course=WARN",
+                "--logging.file.name=target/logs/user-import-load-check.log");
+        try {
+            Map<String, Path> files = new LinkedHashMap<>();
+            files.put("csv", writeCsv(dir.resolve("users.csv"), rows));
+            files.put("xlsx", writeXlsx(dir.resolve("users.xlsx"), rows));
+
+            List<String> report = new ArrayList<>();
+            for (boolean indexed : new boolean[]{false, true}) {
+                if (indexed) {
+                    context.getBean(JdbcTemplate.class)
+                        .execute("CREATE INDEX idx_load_check_username ON `user` (username)");
+                }
+                for (Map.Entry<String, Path> entry : files.entrySet()) {
+                    report.add(String.format("%-8s ", indexed ? "username" : "none")
+                        + run(context, entry.getKey(), entry.getValue()));
+                }
+            }
+            System.out.println();
+            System.out.println(String.format("%-8s %-6s %9s %9s %8s %8s %10s %12s %12s  %s",
+                "index", "format", "file(MB)", "imported", "failed", "time(s)", "rows/s", "baseline(MB)", "peak(+MB)", "status"));
+            report.forEach(System.out::println);
+        } finally {
+            context.close();
+            FileSystemUtils.deleteRecursively(dir);
+        }
+    }
+
+    private static String run(ConfigurableApplicationContext context, String format, Path file) throws Exception {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UserImportService importService = context.getBean(UserImportService.class);
+        jdbcTemplate.execute("DELETE FROM `user`");
+        MockMultipartFile upload = new MockMultipartFile("file", file.getFileName().toString(),
+            "application/octet-stream", Files.readAllBytes(file));
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                sleepQuietly(SAMPLE_INTERVAL_MILLIS);
+            }
+        }, "load-check-heap-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        long start = System.nanoTime();
+        UserImportJobVO job = importService.startImport(upload);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!"COMPLETED".equals(job.getStatus()) && !"FAILED".equals(job.getStatus())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            job = importService.getJob(job.getJobId());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampling.set(false);
+        sampler.join();
+
+        long imported = job.getImportedRows() == null ? 0 : job.getImportedRows();
+        return String.format("%-6s %9.1f %9d %8d %8.1f %10.0f %12.1f %12.1f  %s", format,
+            Files.size(file) / 1024.0 / 1024.0, imported, job.getFailedRows(), seconds, imported / seconds,
+            baseline / 1024.0 / 1024.0, (peak.get() - baseline) / 1024.0 / 1024.0,
+            job.getStatus() + (job.getMessage() == null ? "" : " " + job.getMessage()));
+    }
+
+    private static Path writeCsv(Path file, int rows) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (int i = 0; i < rows; i++) {
+                out.write(String.join(",", row(i)));
+                out.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * 最小的 xlsx：第一个工作表加共享字符串表，每个单元格都引用共享字符串
+     */
+    private static Path writeXlsx(Path file, int rows) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+            Writer strings = writer(zip);
+            strings.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+            int columns = HEADER.split(",").length;
+            writeSharedStrings(strings, HEADER.split(","));
+            for (int i = 0; i < rows; i++) {
+                writeSharedStrings(strings, row(i));
+            }
+            strings.write("</sst>");
+            strings.flush();
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            Writer sheet = writer(zip);
+            sheet.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+            int index = 0;
+            for (int r = 1; r <= rows + 1; r++) {
+                sheet.write("<row r=\"" + r + "\">");
+                for (int c = 0; c < columns; c++) {
+                    sheet.write("<c r=\"" + (char) ('A' + c) + r + "\" t=\"s\"><v>" + index++ + "</v></c>");
+                }
+                sheet.write("</row>");
+            }
+            sheet.write("</sheetData></worksheet>");
+            sheet.flush();
+            zip.closeEntry();
+        }
+        return file;
+    }
+
+    private static void writeSharedStrings(Writer out, String[] values) throws IOException {
+        for (String value : values) {
+            out.write("<si><t>" + value + "</t></si>");
+        }
+    }
+
+    /**
+     * 学生和教师交替，每 1000 行有一行缺少班级，走校验失败的分支
+     */
+    private static String[] row(int i) {
+        boolean student = i % 2 == 0;
+        String classname = student && i % 1000 != 0 ? "班级" + (i % 40) : "";
+        return new String[]{
+            "imp" + i, "pass-" + i, student ? "STUDENT" : "TEACHER", "用户" + i,
+            "imp" + i + "@example.com", String.valueOf(13_800_000_000L + i), classname
+        };
+    }
+
+    private static Writer writer(OutputStream out) {
+        // 不关闭，关闭会连带关闭 zip 流
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
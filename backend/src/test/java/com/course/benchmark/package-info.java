@@ -0,0 +1,14 @@
+/**
+ * JMH 微基准测试
+ * <p>
+ * 类名以 Benchmark 结尾，不会被 surefire 当作单元测试执行。JMH 会 fork 新的 JVM，
+ * 需要完整的 classpath，因此不使用 exec:java，而是按如下方式运行（在 backend 目录下）：
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test.cp
+ * java -cp target/test-classes:target/classes:$(cat target/test.cp) com.course.benchmark.RangeFileSenderBenchmark
+ * </pre>
+ * 每个基准类都带有 main 方法，只运行该类中的基准。
+ * <p>
+ * 以 LoadCheck 结尾的类不是 JMH 基准，而是启动完整应用做端到端的负载检查，同样直接运行 main 方法。
+ */
+package com.course.benchmark;
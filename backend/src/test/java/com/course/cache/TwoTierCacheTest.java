@@ -0,0 +1,65 @@
+package com.course.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 两级缓存不缓存 null：“不存在”的查询结果每次都回源
+ */
+class TwoTierCacheTest {
+
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCache local = new CaffeineCache("test", Caffeine.newBuilder().build(), false);
+        cache = new TwoTierCache(local, new NoOpSharedCacheStore(), new LoopbackCacheInvalidationBus(), "node", null);
+    }
+
+    @Test
+    void nullLoaderResultIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get("missing", () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("missing"));
+        assertEquals("found", cache.get("missing", () -> {
+            loads.incrementAndGet();
+            return "found";
+        }));
+
+        assertEquals(2, loads.get());
+        assertEquals("found", cache.get("missing", String.class));
+    }
+
+    @Test
+    void putNullIsIgnored() {
+        cache.put("key", null);
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void loaderFailureIsWrapped() {
+        IllegalStateException cause = new IllegalStateException("db down");
+
+        Cache.ValueRetrievalException e = assertThrows(Cache.ValueRetrievalException.class,
+            () -> cache.get("key", () -> {
+                throw cause;
+            }));
+        assertSame(cause, e.getCause());
+        assertNull(cache.get("key"));
+    }
+}
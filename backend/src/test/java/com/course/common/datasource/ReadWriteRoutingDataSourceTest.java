@@ -0,0 +1,165 @@
+package com.course.common.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 读写分离路由：两个 H2 库分别充当主库和从库，每个库的 node 表记录自己的名称
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private StubLagHealthChecker healthChecker;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("routing_primary", "primary");
+        replica = database("routing_replica", "replica");
+        healthChecker = new StubLagHealthChecker(replica);
+        healthChecker.check();
+        routingDataSource = new ReadWriteRoutingDataSource(primary, replica, healthChecker);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readsPrimaryUnlessReplicaIsRequested() {
+        assertThat(currentNode()).isEqualTo("primary");
+        assertThat(inTransaction(true, this::currentNode)).isEqualTo("primary");
+        assertThat(inTransaction(false, this::currentNode)).isEqualTo("primary");
+    }
+
+    @Test
+    void readReplicaMethodsReadReplicaOutsideReadWriteTransactions() {
+        assertThat(onReplica(this::currentNode)).isEqualTo("replica");
+        assertThat(onReplica(() -> inTransaction(true, this::currentNode))).isEqualTo("replica");
+        assertThat(onReplica(() -> inTransaction(false, this::currentNode))).isEqualTo("primary");
+        assertThat(inTransaction(false, () -> onReplica(this::currentNode))).isEqualTo("primary");
+        assertThat(routingDataSource.getReplicaConnections()).isEqualTo(2);
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        healthChecker.replicationLag = 30;
+        healthChecker.check();
+
+        assertThat(healthChecker.isAvailable()).isFalse();
+        assertThat(healthChecker.getLagSeconds()).isEqualTo(30);
+        assertThat(onReplica(this::currentNode)).isEqualTo("primary");
+        assertThat(routingDataSource.getFallbackConnections()).isEqualTo(1);
+
+        healthChecker.replicationLag = 1;
+        healthChecker.check();
+        assertThat(onReplica(this::currentNode)).isEqualTo("replica");
+    }
+
+    @Test
+    void explicitCredentialsUsePrimary() throws Exception {
+        try (Connection connection = routingDataSource.getConnection("sa", "")) {
+            assertThat(new JdbcTemplate(new SingleConnectionDataSource(connection, true)).queryForObject(
+                "SELECT name FROM node", String.class)).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void annotatedMethodsEnableReplicaRouting() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new NodeQueries(jdbcTemplate));
+        factory.addAspect(new ReadReplicaAspect());
+        NodeQueries queries = factory.getProxy();
+
+        assertThat(queries.fromReplica()).isEqualTo("replica");
+        assertThat(queries.fromPrimary()).isEqualTo("primary");
+        assertThat(ReplicaRoutingContext.isReplicaPreferred()).isFalse();
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        return template.execute(status -> action.get());
+    }
+
+    private static <T> T onReplica(Supplier<T> action) {
+        ReplicaRoutingContext.enter();
+        try {
+            return action.get();
+        } finally {
+            ReplicaRoutingContext.exit();
+        }
+    }
+
+    private static JdbcDataSource database(String name, String node) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        dataSource.setPassword("");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(16))");
+        template.update("INSERT INTO node (name) VALUES (?)", node);
+        return dataSource;
+    }
+
+    /**
+     * H2 没有复制状态，由测试直接指定复制延迟
+     */
+    private static class StubLagHealthChecker extends ReplicaHealthChecker {
+
+        private volatile long replicationLag;
+
+        StubLagHealthChecker(DataSource replica) {
+            super(replica, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        }
+
+        @Override
+        protected long readLagSeconds(Connection connection) {
+            return replicationLag;
+        }
+    }
+
+    public static class NodeQueries {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        public NodeQueries(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @ReadReplica
+        public String fromReplica() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        public String fromPrimary() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+}
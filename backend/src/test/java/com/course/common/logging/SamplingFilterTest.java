@@ -0,0 +1,84 @@
+package com.course.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 日志采样：按日志分类分别计数，MyBatis 一条语句的各行一起保留或丢弃
+ */
+class SamplingFilterTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        SamplingFilter filter = new SamplingFilter();
+        filter.addPrefix("com.course.mapper");
+        filter.setRate(3);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void keepsStatementLinesTogether() {
+        Logger statement = context.getLogger("com.course.mapper.UserMapper.selectById");
+        for (int i = 0; i < 6; i++) {
+            statement.debug("==>  Preparing: SELECT * FROM user WHERE id = ?");
+            statement.debug("==> Parameters: " + i + "(Long)");
+            statement.debug("<==      Total: 1");
+        }
+
+        assertThat(messages()).containsExactly(
+            "==>  Preparing: SELECT * FROM user WHERE id = ?", "==> Parameters: 0(Long)", "<==      Total: 1",
+            "==>  Preparing: SELECT * FROM user WHERE id = ?", "==> Parameters: 3(Long)", "<==      Total: 1");
+    }
+
+    @Test
+    void countsEachLoggerSeparately() {
+        Logger frequent = context.getLogger("com.course.mapper.ResourceMapper.selectById");
+        Logger rare = context.getLogger("com.course.mapper.CourseMapper.selectById");
+        for (int i = 0; i < 5; i++) {
+            frequent.debug("==>  Preparing: SELECT * FROM resource WHERE id = ?");
+        }
+        rare.debug("==>  Preparing: SELECT * FROM course WHERE id = ?");
+
+        assertThat(appender.list).extracting(ILoggingEvent::getLoggerName)
+            .containsExactly(frequent.getName(), frequent.getName(), rare.getName());
+    }
+
+    @Test
+    void leavesOtherLoggersAndLevelsAlone() {
+        Logger mapper = context.getLogger("com.course.mapper.UserMapper.selectById");
+        Logger service = context.getLogger("com.course.service.impl.UserServiceImpl");
+        for (int i = 0; i < 3; i++) {
+            mapper.warn("slow statement");
+            service.debug("loading user");
+        }
+
+        assertThat(appender.list).hasSize(6);
+    }
+
+    private List<String> messages() {
+        return appender.list.stream().map(ILoggingEvent::getFormattedMessage).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,159 @@
+package com.course.metrics;
+
+import com.course.entity.User;
+import com.course.security.UserDetailsImpl;
+import com.course.support.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * 热点接口的语句预算：按 X-Statement-Count 响应头检查整个请求（含认证）执行的语句数，
+ * 语句数不随返回的行数增长
+ */
+class StatementBudgetEndpointTest extends IntegrationTest {
+
+    /**
+     * 资源分页：一条按键集分页的查询，上传者和课程名称在同一条语句中关联
+     */
+    private static final int RESOURCE_PAGE_BUDGET = 2;
+
+    /**
+     * 学生课程列表：一条选课关联课程的查询
+     */
+    private static final int STUDENT_COURSES_BUDGET = 2;
+
+    /**
+     * 学生作业面板：一条查询返回作业、课程、教师和该学生的最新提交
+     */
+    private static final int STUDENT_BOARD_BUDGET = 1;
+
+    /**
+     * 按学生查询作业：选课、作业各一条，课程名称和教师姓名各批量查询一次
+     */
+    private static final int ASSIGNMENTS_BY_STUDENT_BUDGET = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void resourcePageStaysWithinBudget() throws Exception {
+        long teacher = insertUser("teacher", "TEACHER", "王老师", null);
+        long student = insertUser("s1", "STUDENT", "张三", "1班");
+        seedResources(teacher, 0, 2);
+        MockHttpServletResponse small = perform(get("/resource/page").param("size", "20"), student);
+
+        seedResources(teacher, 2, 20);
+        MockHttpServletResponse large = perform(get("/resource/page").param("size", "20"), student);
+
+        assertThat(rows(large, "$.data.records")).hasSize(20);
+        assertThat(statementCount(large)).isEqualTo(statementCount(small)).isLessThanOrEqualTo(RESOURCE_PAGE_BUDGET);
+    }
+
+    @Test
+    void studentCoursesStayWithinBudget() throws Exception {
+        long student = insertUser("s1", "STUDENT", "张三", "1班");
+        enrollInNewCourses(student, 0, 2);
+        MockHttpServletResponse small = perform(get("/courses/student/" + student), student);
+
+        enrollInNewCourses(student, 2, 20);
+        MockHttpServletResponse large = perform(get("/courses/student/" + student), student);
+
+        assertThat(rows(large, "$.data")).hasSize(20);
+        assertThat(statementCount(large)).isEqualTo(statementCount(small)).isLessThanOrEqualTo(STUDENT_COURSES_BUDGET);
+    }
+
+    @Test
+    void studentAssignmentBoardStaysWithinBudget() throws Exception {
+        long student = insertUser("s1", "STUDENT", "张三", "1班");
+        assignInNewCourses(student, 0, 2);
+        MockHttpServletResponse small = perform(get("/api/assignments/student/" + student), student);
+
+        assignInNewCourses(student, 2, 20);
+        MockHttpServletResponse large = perform(get("/api/assignments/student/" + student), student);
+
+        assertThat(rows(large, "$.data")).hasSize(20);
+        assertThat(statementCount(large)).isEqualTo(statementCount(small)).isLessThanOrEqualTo(STUDENT_BOARD_BUDGET);
+    }
+
+    @Test
+    void assignmentsByStudentStayWithinBudget() throws Exception {
+        long student = insertUser("s1", "STUDENT", "张三", "1班");
+        assignInNewCourses(student, 0, 2);
+        MockHttpServletResponse small = perform(get("/assignments").param("studentId", String.valueOf(student)), student);
+
+        assignInNewCourses(student, 2, 20);
+        MockHttpServletResponse large = perform(get("/assignments").param("studentId", String.valueOf(student)), student);
+
+        assertThat(rows(large, "$.data")).hasSize(20);
+        assertThat(statementCount(large)).isEqualTo(statementCount(small))
+            .isLessThanOrEqualTo(ASSIGNMENTS_BY_STUDENT_BUDGET);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request, long studentId) throws Exception {
+        User user = new User();
+        user.setId(studentId);
+        user.setUsername("s1");
+        user.setRole("STUDENT");
+        UserDetailsImpl principal = new UserDetailsImpl(user);
+        // 与 JwtAuthenticationFilter 一致，角色带 ROLE_ 前缀
+        MockHttpServletResponse response = mockMvc.perform(request.with(authentication(
+                new UsernamePasswordAuthenticationToken(principal, null,
+                    AuthorityUtils.createAuthorityList("ROLE_" + user.getRole())))))
+            .andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        return response;
+    }
+
+    private static int statementCount(MockHttpServletResponse response) {
+        String header = response.getHeader(StatementStatsResponseAdvice.STATEMENT_COUNT_HEADER);
+        assertThat(header).isNotNull();
+        return Integer.parseInt(header);
+    }
+
+    private static List<?> rows(MockHttpServletResponse response, String path) throws Exception {
+        return JsonPath.read(response.getContentAsString(), path);
+    }
+
+    private void seedResources(long teacher, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long uploader = insertUser("t-" + i, "TEACHER", "教师" + i, null);
+            long course = insertCourse("course-" + i, teacher);
+            insertResource("r-" + i, course, uploader);
+        }
+    }
+
+    private void enrollInNewCourses(long student, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long teacher = insertUser("t-" + i, "TEACHER", "教师" + i, null);
+            enroll(student, insertCourse("course-" + i, teacher));
+        }
+    }
+
+    /**
+     * 每门新课程由不同的教师开设并布置一份作业，学生选修后提交其中的一半
+     */
+    private void assignInNewCourses(long student, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long teacher = insertUser("t-" + i, "TEACHER", "教师" + i, null);
+            long course = insertCourse("course-" + i, teacher);
+            enroll(student, course);
+            long assignment = insertAssignment("a-" + i, course, teacher);
+            if (i % 2 == 0) {
+                jdbcTemplate.update("INSERT INTO homework_submission (assignment_id, student_id, status, submit_time) "
+                    + "VALUES (?, ?, 'SUBMITTED', CURRENT_TIMESTAMP)", assignment, student);
+            }
+        }
+    }
+}
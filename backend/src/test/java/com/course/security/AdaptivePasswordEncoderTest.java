@@ -0,0 +1,46 @@
+package com.course.security;
+
+import com.course.config.PasswordHashingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 自适应密码编码器：新密码为 BCrypt，旧的明文记录可以校验并在登录后升级
+ */
+class AdaptivePasswordEncoderTest {
+
+    private AdaptivePasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(4);
+        encoder = new AdaptivePasswordEncoder(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encodesWithBcrypt() {
+        String encoded = encoder.encode("secret");
+
+        assertTrue(encoded.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("wrong", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void matchesLegacyPlaintextAndAsksForUpgrade() {
+        assertTrue(encoder.matches("secret", "secret"));
+        assertFalse(encoder.matches("wrong", "secret"));
+        assertTrue(encoder.upgradeEncoding("secret"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.course.security;
+
+import com.course.config.LoginRateLimitProperties;
+import com.course.support.IntegrationTest;
+import com.course.support.StatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 登录限流：被拒绝的请求不访问数据库；X-Forwarded-For 只信任代理追加的部分
+ */
+class LoginRateLimitTest extends IntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LoginRateLimitProperties properties;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    private LoginRateLimitProperties.Bucket originalUsernameLimit;
+
+    @BeforeEach
+    void enableRateLimit() {
+        originalUsernameLimit = properties.getUsername();
+        properties.setEnabled(true);
+        properties.setUsername(new LoginRateLimitProperties.Bucket(3, 1));
+    }
+
+    @AfterEach
+    void restoreRateLimit() {
+        properties.setEnabled(false);
+        properties.setUsername(originalUsernameLimit);
+        properties.setTrustedProxies(0);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotReachTheDatabase() throws Exception {
+        insertUser("victim", "STUDENT", "张三", "1班");
+
+        int allowedStatements = 0;
+        int rejected = 0;
+        for (int i = 0; i < 200; i++) {
+            int[] status = new int[1];
+            List<String> statements = StatementCounter.record(() -> status[0] = attemptLogin("victim", "10.0.0.1", null));
+            if (status[0] == 429) {
+                rejected++;
+                assertThat(statements).isEmpty();
+            } else {
+                allowedStatements += statements.size();
+            }
+        }
+
+        // 数据库语句只来自放行的 3 次尝试，攻击请求再多也不增加数据库负载
+        assertThat(rejected).isEqualTo(197);
+        assertThat(allowedStatements).isPositive();
+    }
+
+    @Test
+    void usesRightMostForwardedAddressAddedByTrustedProxy() {
+        properties.setTrustedProxies(1);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.168.1.10");
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.7");
+
+        assertThat(loginRateLimiter.clientIp(request)).isEqualTo("203.0.113.7");
+
+        properties.setTrustedProxies(2);
+        assertThat(loginRateLimiter.clientIp(request)).isEqualTo("1.2.3.4");
+
+        properties.setTrustedProxies(0);
+        assertThat(loginRateLimiter.clientIp(request)).isEqualTo("192.168.1.10");
+    }
+
+    @Test
+    void spoofedForwardedForDoesNotEscapeTheIpLimit() throws Exception {
+        properties.setTrustedProxies(1);
+        LoginRateLimitProperties.Bucket originalIpLimit = properties.getIp();
+        properties.setIp(new LoginRateLimitProperties.Bucket(5, 1));
+        try {
+            int rejected = 0;
+            for (int i = 0; i < 20; i++) {
+                // 每次伪造不同的左侧地址、尝试不同的账号，代理追加的真实地址不变
+                if (attemptLogin("user" + i, "10.0.0.9", "10.9." + i + ".1, 198.51.100.20") == 429) {
+                    rejected++;
+                }
+            }
+            assertThat(rejected).isEqualTo(15);
+        } finally {
+            properties.setIp(originalIpLimit);
+        }
+    }
+
+    private int attemptLogin(String username, String remoteAddr, String forwardedFor) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"wrong\"}")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    if (forwardedFor != null) {
+                        request.addHeader("X-Forwarded-For", forwardedFor);
+                    }
+                    return request;
+                }))
+            .andReturn().getResponse().getStatus();
+    }
+}
@@ -0,0 +1,71 @@
+package com.course.service;
+
+import com.course.dto.AssignmentDTO;
+import com.course.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 修改作业的课程或状态时，课程统计中的作业数随之调整
+ */
+class AssignmentHomeworkCountTest extends IntegrationTest {
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    private long teacher;
+    private long courseA;
+    private long courseB;
+
+    @BeforeEach
+    void setUp() {
+        teacher = insertUser("teacher", "TEACHER", "教师", null);
+        courseA = insertCourse("A", teacher);
+        courseB = insertCourse("B", teacher);
+        loginAs(teacher, "teacher", "TEACHER");
+    }
+
+    @Test
+    void movingAndTogglingAssignmentAdjustsBothCourses() {
+        assignmentService.createAssignment(dto(courseA, "active"));
+        long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM assignment", Long.class);
+        assertThat(homeworkCount(courseA)).isEqualTo(1);
+
+        assignmentService.updateAssignment(id, dto(courseB, "active"));
+        assertThat(homeworkCount(courseA)).isZero();
+        assertThat(homeworkCount(courseB)).isEqualTo(1);
+
+        assignmentService.updateAssignment(id, dto(courseB, "inactive"));
+        assertThat(homeworkCount(courseB)).isZero();
+
+        assignmentService.updateAssignment(id, dto(courseA, "active"));
+        assertThat(homeworkCount(courseA)).isEqualTo(1);
+        assertThat(homeworkCount(courseB)).isZero();
+
+        // 内容修改不影响计数
+        assignmentService.updateAssignment(id, dto(courseA, "active"));
+        assertThat(homeworkCount(courseA)).isEqualTo(1);
+    }
+
+    private AssignmentDTO dto(long courseId, String status) {
+        AssignmentDTO dto = new AssignmentDTO();
+        dto.setTitle("作业");
+        dto.setDescription("描述");
+        dto.setCourseId(courseId);
+        dto.setTeacherId(teacher);
+        dto.setDeadline(LocalDateTime.now().plusDays(7));
+        dto.setStatus(status);
+        return dto;
+    }
+
+    private int homeworkCount(long courseId) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MAX(homework_count), 0) FROM course_stats WHERE course_id = ?", Integer.class, courseId);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,96 @@
+package com.course.service;
+
+import com.course.entity.Assignment;
+import com.course.support.IntegrationTest;
+import com.course.support.StatementCounter;
+import com.course.vo.AssignmentVO;
+import com.course.vo.ResourceVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量名称填充：查询语句数不随结果行数增长
+ */
+class BatchEnrichmentQueryCountTest extends IntegrationTest {
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Test
+    void studentAssignmentsUseConstantStatements() throws Exception {
+        long student = insertUser("s1", "STUDENT", "学生一", "class-1");
+        seedAssignments(student, 2, 1);
+        List<String> small = StatementCounter.record(() -> assignmentService.getAssignmentsByStudentId(student));
+
+        seedAssignments(student, 8, 5);
+        AtomicReference<List<Assignment>> result = new AtomicReference<>();
+        List<String> large = StatementCounter.record(() -> {
+            result.set(assignmentService.getAssignmentsByStudentId(student));
+            return null;
+        });
+
+        assertThat(result.get()).hasSize(2 + 40);
+        assertThat(result.get()).allSatisfy(assignment -> {
+            assertThat(assignment.getCourseName()).isNotNull();
+            assertThat(assignment.getTeacherName()).isNotNull();
+        });
+        // 选课、作业、课程名称、教师姓名各一条
+        assertThat(large).hasSize(4).isEqualTo(small);
+    }
+
+    @Test
+    void dashboardRecentListsUseConstantStatements() throws Exception {
+        long teacher = insertUser("t1", "TEACHER", "教师一", null);
+        long course = insertCourse("course-0", teacher);
+        insertAssignment("a-0", course, teacher);
+        insertResource("r-0", course, teacher);
+        List<String> small = StatementCounter.record(() -> {
+            dashboardService.getRecentAssignments();
+            return dashboardService.getRecentResources();
+        });
+
+        for (int i = 1; i < 10; i++) {
+            long otherTeacher = insertUser("t-" + i, "TEACHER", "教师" + i, null);
+            long otherCourse = insertCourse("course-" + i, otherTeacher);
+            insertAssignment("a-" + i, otherCourse, otherTeacher);
+            insertResource("r-" + i, otherCourse, otherTeacher);
+        }
+        AtomicReference<List<AssignmentVO>> assignments = new AtomicReference<>();
+        AtomicReference<List<ResourceVO>> resources = new AtomicReference<>();
+        List<String> large = StatementCounter.record(() -> {
+            assignments.set(dashboardService.getRecentAssignments());
+            resources.set(dashboardService.getRecentResources());
+            return null;
+        });
+
+        assertThat(assignments.get()).hasSize(10).allSatisfy(vo -> assertThat(vo.getCourseName()).isNotNull());
+        assertThat(resources.get()).hasSize(10);
+        assertThat(large).isEqualTo(small);
+    }
+
+    /**
+     * 新建若干课程（每门课一个教师），学生选修并在每门课下建作业
+     */
+    private void seedAssignments(long student, int courses, int assignmentsPerCourse) {
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < courses; i++) {
+            long teacher = insertUser("teacher-" + System.nanoTime(), "TEACHER", "教师", null);
+            long course = insertCourse("course-" + System.nanoTime(), teacher);
+            enroll(student, course);
+            courseIds.add(course);
+            for (int j = 0; j < assignmentsPerCourse; j++) {
+                insertAssignment("assignment-" + i + "-" + j, course, teacher);
+            }
+        }
+        assertThat(courseIds).hasSize(courses);
+    }
+}
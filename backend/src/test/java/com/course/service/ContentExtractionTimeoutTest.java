@@ -0,0 +1,109 @@
+package com.course.service;
+
+import com.course.config.MetricsConfig;
+import com.course.entity.Resource;
+import com.course.entity.ResourceContent;
+import com.course.mapper.ResourceContentMapper;
+import com.course.mapper.ResourceMapper;
+import com.course.service.impl.ContentExtractionServiceImpl;
+import com.course.service.support.extract.BoundedTextWriter;
+import com.course.service.support.extract.ExtractionProgress;
+import com.course.service.support.extract.TextExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文档文本提取：超时后取消解析并保留已提取的文本
+ */
+class ContentExtractionTimeoutTest {
+
+    private ResourceMapper resourceMapper;
+    private ResourceContentMapper resourceContentMapper;
+    private ExtractionProgress progress;
+    private ContentExtractionServiceImpl service;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("extract", ".txt");
+        resourceMapper = mock(ResourceMapper.class);
+        resourceContentMapper = mock(ResourceContentMapper.class);
+        progress = new ExtractionProgress();
+        service = new ContentExtractionServiceImpl(resourceMapper, resourceContentMapper,
+            mock(ResourceSearchService.class), progress, Collections.singletonList(new StallingExtractor()));
+        ReflectionTestUtils.setField(service, "workers", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10);
+        ReflectionTestUtils.setField(service, "maxFileSize", 1024L);
+        ReflectionTestUtils.setField(service, "maxChars", 1000);
+        ReflectionTestUtils.setField(service, "timeoutMillis", 200L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void cancelsStalledParserAndKeepsPartialText() {
+        Resource resource = new Resource();
+        resource.setId(1L);
+        resource.setFileName("notes.txt");
+        resource.setFilePath(file.toString());
+        when(resourceMapper.selectById(1L)).thenReturn(resource);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().extractionMetrics(progress).bindTo(registry);
+
+        long start = System.currentTimeMillis();
+        service.submit(1L);
+
+        ArgumentCaptor<ResourceContent> saved = ArgumentCaptor.forClass(ResourceContent.class);
+        verify(resourceContentMapper, timeout(5000)).saveResult(saved.capture());
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertEquals(ResourceContent.STATUS_DONE, saved.getValue().getStatus());
+        assertEquals("partial text", saved.getValue().getContent());
+        assertTrue(saved.getValue().getTruncated());
+        assertEquals(1.0, registry.get("app.extraction.truncated").tag("reason", "timeout").functionCounter().count());
+        assertEquals(1.0, registry.get("app.extraction.tasks").tag("result", "completed").functionCounter().count());
+    }
+
+    /**
+     * 写出一段文本后阻塞，只有被中断才返回
+     */
+    private static class StallingExtractor implements TextExtractor {
+
+        @Override
+        public Set<String> getExtensions() {
+            return Collections.singleton("txt");
+        }
+
+        @Override
+        public void extract(Path file, BoundedTextWriter output) throws IOException {
+            output.write("partial text");
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.course.service;
+
+import com.course.entity.StudentCourse;
+import com.course.mapper.StudentCourseMapper;
+import com.course.support.IntegrationTest;
+import com.course.vo.EnrollmentResultVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 按班级批量选课：新增人数以实际插入的行数为准
+ */
+class EnrollClassesTest extends IntegrationTest {
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentCourseMapper studentCourseMapper;
+
+    @Test
+    void countsOnlyInsertedEnrollments() {
+        long teacherId = insertUser("teacher", "TEACHER", "王老师", null);
+        long courseId = insertCourse("线性代数", teacherId);
+        long first = insertUser("s1", "STUDENT", "张三", "1班");
+        insertUser("s2", "STUDENT", "李四", "1班");
+        insertUser("s3", "STUDENT", "王五", "1班");
+        enroll(first, courseId);
+
+        List<EnrollmentResultVO> results = courseService.enrollClasses(
+            Collections.singletonList(courseId), Collections.singletonList("1班"));
+
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getAdded());
+        assertEquals(1, results.get(0).getSkipped());
+        assertEquals(2, jdbcTemplate.queryForObject(
+            "SELECT student_count FROM course_stats WHERE course_id = ?", Integer.class, courseId));
+        assertEquals(3, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM student_course WHERE course_id = ?", Integer.class, courseId));
+    }
+
+    @Test
+    void batchInsertReportsSkippedRowsAsUnaffected() {
+        long teacherId = insertUser("teacher", "TEACHER", "王老师", null);
+        long courseId = insertCourse("线性代数", teacherId);
+        long first = insertUser("s1", "STUDENT", "张三", "1班");
+        long second = insertUser("s2", "STUDENT", "李四", "1班");
+        enroll(first, courseId);
+
+        int inserted = studentCourseMapper.insertBatchIgnoreExisting(
+            Arrays.asList(enrollment(first, courseId), enrollment(second, courseId)));
+
+        assertEquals(1, inserted);
+    }
+
+    private StudentCourse enrollment(long studentId, long courseId) {
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setStudentId(studentId);
+        studentCourse.setCourseId(courseId);
+        return studentCourse;
+    }
+}
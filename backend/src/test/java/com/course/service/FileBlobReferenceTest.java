@@ -0,0 +1,153 @@
+package com.course.service;
+
+import com.course.entity.HomeworkSubmission;
+import com.course.service.support.InspectingInputStream;
+import com.course.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内容寻址存储的引用回收：附件被替换、提交被删除、上传事务回滚、并发上传同一内容
+ */
+@TestPropertySource(properties = {
+    "file.upload.storage-mode=cas",
+    "file.upload.base-path=target/cas-test-uploads"
+})
+class FileBlobReferenceTest extends IntegrationTest {
+
+    @Autowired
+    private FileBlobService fileBlobService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private HomeworkSubmissionService homeworkSubmissionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void replacingAttachmentReleasesPreviousBlob() throws IOException {
+        String first = store("first attachment");
+        String second = store("second attachment");
+        HomeworkSubmission submission = submission(fileService.getFileUrl(first));
+
+        submission.setAttachmentUrl(fileService.getFileUrl(second));
+        homeworkSubmissionService.updateSubmission(submission);
+
+        assertFalse(Files.exists(Paths.get(first)));
+        assertEquals(0, blobRows(first));
+        assertEquals(1, refCount(second));
+    }
+
+    @Test
+    void deletingSubmissionReleasesAttachment() throws IOException {
+        String path = store("deleted attachment");
+        String shared = store("shared attachment");
+        store("shared attachment");
+        HomeworkSubmission first = submission(fileService.getFileUrl(path));
+        HomeworkSubmission second = submission(fileService.getFileUrl(shared));
+
+        homeworkSubmissionService.deleteSubmission(first.getId());
+        homeworkSubmissionService.deleteSubmission(second.getId());
+
+        assertFalse(Files.exists(Paths.get(path)));
+        // 同一内容的另一次上传仍持有引用
+        assertTrue(Files.exists(Paths.get(shared)));
+        assertEquals(1, refCount(shared));
+    }
+
+    @Test
+    void rolledBackUploadRemovesNewBlob() throws IOException {
+        String existing = store("kept content");
+        String[] created = new String[2];
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                created[0] = store("rolled back content");
+                created[1] = store("kept content");
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            throw new IllegalStateException("模拟保存记录失败");
+        }));
+
+        assertFalse(Files.exists(Paths.get(created[0])));
+        assertEquals(0, blobRows(created[0]));
+        // 已有的文件被复用，回滚只撤销新增的引用
+        assertEquals(existing, created[1]);
+        assertTrue(Files.exists(Paths.get(existing)));
+        assertEquals(1, refCount(existing));
+    }
+
+    @Test
+    void uploadWaitsForUncommittedBlobAndKeepsItAfterRollback() throws Exception {
+        CompletableFuture<String> concurrent = new CompletableFuture<>();
+        String[] created = new String[1];
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                created[0] = store("contended content");
+                Thread other = new Thread(() -> {
+                    try {
+                        concurrent.complete(store("contended content"));
+                    } catch (Throwable e) {
+                        concurrent.completeExceptionally(e);
+                    }
+                });
+                other.start();
+                Thread.sleep(300);
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            // 同一摘要的上传在引用记录的行锁上等待本事务结束
+            assertFalse(concurrent.isDone());
+            throw new IllegalStateException("模拟保存记录失败");
+        }));
+
+        String reused = concurrent.get(5, TimeUnit.SECONDS);
+        assertEquals(created[0], reused);
+        assertTrue(Files.exists(Paths.get(reused)));
+        assertEquals(1, refCount(reused));
+    }
+
+    private String store(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return fileBlobService.store(new InspectingInputStream(new ByteArrayInputStream(bytes), bytes.length, "txt"));
+    }
+
+    private HomeworkSubmission submission(String attachmentUrl) {
+        HomeworkSubmission submission = new HomeworkSubmission();
+        submission.setAssignmentId(1L);
+        submission.setStudentId(1L);
+        submission.setAttachmentUrl(attachmentUrl);
+        homeworkSubmissionService.saveSubmission(submission);
+        return submission;
+    }
+
+    private int refCount(String path) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM file_blob WHERE digest = ?", Integer.class,
+            Paths.get(path).getFileName().toString());
+    }
+
+    private int blobRows(String path) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(1) FROM file_blob WHERE digest = ?", Integer.class,
+            Paths.get(path).getFileName().toString());
+    }
+}
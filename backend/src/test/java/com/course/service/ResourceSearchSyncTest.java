@@ -0,0 +1,66 @@
+package com.course.service;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.course.cache.CacheInvalidationBus;
+import com.course.cache.CacheInvalidationMessage;
+import com.course.entity.Resource;
+import com.course.support.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 搜索索引的跨实例同步和分页
+ */
+class ResourceSearchSyncTest extends IntegrationTest {
+
+    private static final String INDEX_CHANNEL = "resource-search-index";
+
+    @Autowired
+    private ResourceSearchService resourceSearchService;
+
+    @Autowired
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Test
+    void appliesIndexUpdatesPublishedByOtherNodes() {
+        long teacherId = insertUser("teacher", "TEACHER", "王老师", null);
+        long courseId = insertCourse("线性代数", teacherId);
+        resourceSearchService.rebuild();
+
+        // 模拟另一个实例直接写库后广播资源ID
+        long resourceId = insertResource("algebra handout", courseId, teacherId);
+        assertThat(resourceSearchService.search("algebra", null, 1, 20).getTotal()).isZero();
+
+        cacheInvalidationBus.publish(new CacheInvalidationMessage("other-node", INDEX_CHANNEL, String.valueOf(resourceId)));
+        IPage<Resource> found = resourceSearchService.search("algebra", null, 1, 20);
+        assertThat(found.getTotal()).isEqualTo(1);
+        assertThat(found.getRecords()).extracting(Resource::getId).containsExactly(resourceId);
+
+        jdbcTemplate.update("UPDATE resource SET status = 0 WHERE id = ?", resourceId);
+        cacheInvalidationBus.publish(new CacheInvalidationMessage("other-node", INDEX_CHANNEL, String.valueOf(resourceId)));
+        assertThat(resourceSearchService.search("algebra", null, 1, 20).getTotal()).isZero();
+    }
+
+    @Test
+    void pagesThroughAllHits() {
+        long teacherId = insertUser("teacher", "TEACHER", "王老师", null);
+        long courseId = insertCourse("线性代数", teacherId);
+        for (int i = 0; i < 25; i++) {
+            insertResource("matrix notes " + i, courseId, teacherId);
+        }
+        resourceSearchService.rebuild();
+
+        IPage<Resource> second = resourceSearchService.search("matrix", courseId, 2, 10);
+        IPage<Resource> third = resourceSearchService.search("matrix", courseId, 3, 10);
+
+        assertThat(second.getTotal()).isEqualTo(25);
+        assertThat(second.getRecords()).hasSize(10);
+        assertThat(third.getRecords()).hasSize(5);
+        assertThat(third.getRecords()).extracting(Resource::getId)
+            .doesNotContainAnyElementsOf(second.getRecords().stream().map(Resource::getId).collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.course.service;
+
+import com.course.entity.User;
+import com.course.mapper.UserMapper;
+import com.course.security.PasswordHashingBusyException;
+import com.course.service.impl.UserImportServiceImpl;
+import com.course.vo.UserImportJobVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户导入：密码编码器繁忙时单行重试，仍失败的行记入错误报告，其余行照常导入
+ */
+class UserImportHashingTest {
+
+    private final List<User> inserted = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger flakyAttempts = new AtomicInteger();
+    private UserImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        UserMapper userMapper = mock(UserMapper.class);
+        when(userMapper.findExistingUsernames(any())).thenReturn(Collections.emptyList());
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            inserted.addAll(users);
+            return users.size();
+        }).when(userMapper).insertBatch(anyList());
+
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+            String raw = invocation.getArgument(0).toString();
+            if ("always-busy".equals(raw)) {
+                throw new PasswordHashingBusyException("密码校验请求过多");
+            }
+            if ("busy-once".equals(raw) && flakyAttempts.getAndIncrement() == 0) {
+                throw new PasswordHashingBusyException("密码校验请求过多");
+            }
+            return "{bcrypt}" + raw;
+        });
+
+        service = new UserImportServiceImpl(userMapper, passwordEncoder);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxRows", 1000L);
+        ReflectionTestUtils.setField(service, "hashWorkers", 2);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void busyEncoderFailsOnlyTheAffectedRow() throws Exception {
+        String csv = "username,password,role,realName,classname\n"
+            + "alice01,secret,STUDENT,Alice,1班\n"
+            + "bob0001,busy-once,STUDENT,Bob,1班\n"
+            + "carol01,always-busy,STUDENT,Carol,1班\n";
+        UserImportJobVO job = service.startImport(new MockMultipartFile("file", "users.csv", "text/csv",
+            csv.getBytes(StandardCharsets.UTF_8)));
+
+        UserImportJobVO finished = awaitFinished(job.getJobId());
+
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(2, finished.getImportedRows());
+        assertEquals(1, finished.getFailedRows());
+        assertEquals(2, inserted.size());
+        assertTrue(inserted.stream().allMatch(user -> user.getPassword().startsWith("{bcrypt}")));
+        String report = new String(Files.readAllBytes(service.getReport(job.getJobId())), StandardCharsets.UTF_8);
+        assertTrue(report.contains("4,carol01,密码处理繁忙"), report);
+    }
+
+    private UserImportJobVO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            UserImportJobVO job = service.getJob(jobId);
+            if ("COMPLETED".equals(job.getStatus()) || "FAILED".equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("导入任务未在时限内完成");
+    }
+}
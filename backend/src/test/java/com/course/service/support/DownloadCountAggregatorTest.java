@@ -0,0 +1,69 @@
+package com.course.service.support;
+
+import com.course.mapper.ResourceMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 下载次数聚合器：写回后计数表不应保留已清零的资源
+ */
+class DownloadCountAggregatorTest {
+
+    private ResourceMapper resourceMapper;
+    private DownloadCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        resourceMapper = mock(ResourceMapper.class);
+        aggregator = new DownloadCountAggregator(resourceMapper, mock(CacheInvalidator.class));
+        ReflectionTestUtils.setField(aggregator, "batchSize", 2);
+    }
+
+    @Test
+    void flushRemovesDrainedEntries() {
+        for (long id = 1; id <= 5; id++) {
+            aggregator.increment(id);
+            aggregator.increment(id);
+        }
+
+        assertEquals(5, aggregator.flush());
+        assertTrue(pendingCounts().isEmpty());
+        assertEquals(0, aggregator.getPending(1L));
+        assertEquals(0, aggregator.flush());
+    }
+
+    @Test
+    void downloadsDuringFlushSurviveIt() {
+        aggregator.increment(1L);
+        aggregator.increment(2L);
+        // 写库期间又产生一次下载
+        doAnswer(invocation -> {
+            aggregator.increment(1L);
+            return 2;
+        }).when(resourceMapper).addDownloadCounts(anyMap());
+        when(resourceMapper.findCourseIdsByIds(any())).thenReturn(Collections.emptyList());
+
+        aggregator.flush();
+
+        assertEquals(1, pendingCounts().size());
+        assertEquals(1, aggregator.getPending(1L));
+        assertEquals(0, aggregator.getPending(2L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> pendingCounts() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(aggregator, "pendingCounts");
+    }
+}
@@ -0,0 +1,92 @@
+package com.course.support;
+
+import com.course.entity.User;
+import com.course.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * 集成测试基类：完整应用上下文 + H2 内存库（见 application-test.yml 和 schema-h2.sql）
+ * <p>
+ * 每个测试开始前清空业务表和缓存；各子类共享同一个应用上下文。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(StatementCounter.class)
+public abstract class IntegrationTest {
+
+    private static final String[] TABLES = {
+        "homework_submission", "assignment", "student_course", "course_selection", "resource_content",
+        "resource", "course_stats", "dashboard_stats", "course", "`user`", "file_blob", "upload_chunk",
+        "upload_session", "cache_invalidation"
+    };
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void resetDatabase() {
+        for (String table : TABLES) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * 以指定用户身份执行后续的服务调用
+     */
+    protected void loginAs(long userId, String username, String role) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(username);
+        user.setRole(role);
+        UserDetailsImpl principal = new UserDetailsImpl(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    protected long insertUser(String username, String role, String realName, String classname) {
+        jdbcTemplate.update("INSERT INTO `user` (username, password, role, real_name, classname, enabled) "
+            + "VALUES (?, '{noop}x', ?, ?, ?, TRUE)", username, role, realName, classname);
+        return jdbcTemplate.queryForObject("SELECT id FROM `user` WHERE username = ?", Long.class, username);
+    }
+
+    protected long insertCourse(String name, long teacherId) {
+        jdbcTemplate.update("INSERT INTO course (name, teacher_id) VALUES (?, ?)", name, teacherId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM course", Long.class);
+    }
+
+    protected void enroll(long studentId, long courseId) {
+        jdbcTemplate.update("INSERT INTO student_course (student_id, course_id) VALUES (?, ?)", studentId, courseId);
+    }
+
+    protected long insertAssignment(String title, long courseId, long teacherId) {
+        jdbcTemplate.update("INSERT INTO assignment (title, course_id, teacher_id, status, deadline) "
+            + "VALUES (?, ?, ?, 'active', DATEADD('DAY', 7, CURRENT_TIMESTAMP))", title, courseId, teacherId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM assignment", Long.class);
+    }
+
+    protected long insertResource(String name, long courseId, long uploaderId) {
+        jdbcTemplate.update("INSERT INTO resource (name, file_name, file_path, file_size, course_id, uploader_user_id, "
+            + "type, status) VALUES (?, ?, ?, 1, ?, ?, 'txt', 1)", name, name + ".txt", "/tmp/" + name, courseId, uploaderId);
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM resource", Long.class);
+    }
+}
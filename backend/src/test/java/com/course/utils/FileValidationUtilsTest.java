@@ -0,0 +1,109 @@
+package com.course.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileValidationUtilsTest {
+
+    @Test
+    void textStartingWithMzIsNotExecutable() {
+        byte[] text = ascii("MZ notes: the Mozambique report is attached below, see the appendix for details.");
+
+        assertNull(detect(text));
+        assertTrue(FileValidationUtils.matchesExtension("txt", detect(text)));
+    }
+
+    @Test
+    void portableExecutableIsRejected() {
+        byte[] exe = new byte[256];
+        exe[0] = 'M';
+        exe[1] = 'Z';
+        exe[0x3C] = (byte) 0x80;
+        exe[0x80] = 'P';
+        exe[0x81] = 'E';
+
+        assertEquals(FileValidationUtils.TYPE_EXE, detect(exe));
+        assertFalse(FileValidationUtils.matchesExtension("txt", detect(exe)));
+        assertFalse(FileValidationUtils.matchesExtension("pdf", detect(exe)));
+    }
+
+    @Test
+    void mzWithPeOffsetOutsideHeaderIsStillRejected() {
+        byte[] exe = new byte[128];
+        exe[0] = 'M';
+        exe[1] = 'Z';
+        exe[0x3C] = 0x00;
+        exe[0x3D] = 0x08;
+
+        assertEquals(FileValidationUtils.TYPE_EXE, detect(exe));
+    }
+
+    @Test
+    void utf16TextIsNotMp3() {
+        byte[] utf16 = {(byte) 0xFF, (byte) 0xFE, 'h', 0, 'i', 0};
+
+        assertNull(detect(utf16));
+        assertTrue(FileValidationUtils.matchesExtension("txt", detect(utf16)));
+        // 没有识别出内容类型，不与 mp3 的文件头矛盾，由允许的扩展名配置决定
+        assertTrue(FileValidationUtils.matchesExtension("mp3", detect(utf16)));
+    }
+
+    @Test
+    void mp3FrameWithoutId3IsDetected() {
+        byte[] mp3 = {(byte) 0xFF, (byte) 0xFB, (byte) 0x90, 0x64, 0, 0, 0, 0};
+
+        assertEquals(FileValidationUtils.TYPE_MP3, detect(mp3));
+        assertTrue(FileValidationUtils.matchesExtension("mp3", detect(mp3)));
+    }
+
+    @Test
+    void textStartingWithBmIsNotBitmap() {
+        assertNull(detect(ascii("BMW quarterly numbers")));
+    }
+
+    @Test
+    void signatureContradictingKnownExtensionIsDenied() {
+        byte[] zip = {0x50, 0x4B, 0x03, 0x04, 0x14, 0, 0, 0};
+        byte[] png = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+
+        assertTrue(FileValidationUtils.matchesExtension("docx", detect(zip)));
+        assertFalse(FileValidationUtils.matchesExtension("pdf", detect(zip)));
+        assertFalse(FileValidationUtils.matchesExtension("JPG", detect(png)));
+    }
+
+    @Test
+    void unlistedOrMissingExtensionIsLeftToAllowedTypes() {
+        byte[] zip = {0x50, 0x4B, 0x03, 0x04, 0x14, 0, 0, 0};
+        byte[] html = ascii("<!DOCTYPE html><html><body>lecture notes</body></html>");
+        byte[] svg = ascii("<svg xmlns=\"http://www.w3.org/2000/svg\"></svg>");
+
+        assertTrue(FileValidationUtils.matchesExtension("jar", detect(zip)));
+        assertTrue(FileValidationUtils.matchesExtension("ppsx", detect(zip)));
+        assertTrue(FileValidationUtils.matchesExtension("html", detect(html)));
+        assertTrue(FileValidationUtils.matchesExtension("svg", detect(svg)));
+        assertTrue(FileValidationUtils.matchesExtension("flac", null));
+        assertTrue(FileValidationUtils.matchesExtension(null, detect(html)));
+    }
+
+    @Test
+    void executableIsDeniedWhateverTheExtension() {
+        byte[] elf = {0x7F, 0x45, 0x4C, 0x46, 0x02, 0x01, 0x01, 0};
+
+        assertFalse(FileValidationUtils.matchesExtension("css", detect(elf)));
+        assertFalse(FileValidationUtils.matchesExtension(null, detect(elf)));
+    }
+
+    private static String detect(byte[] header) {
+        return FileValidationUtils.detectType(header, header.length);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,155 @@
+-- 测试用 H2 表结构（MySQL 兼容模式），与线上库的基础表结构和 db/migration 中的迁移保持一致
+CREATE TABLE IF NOT EXISTS `user` (
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    username        VARCHAR(64)  NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    role            VARCHAR(20)  NOT NULL DEFAULT 'USER',
+    real_name       VARCHAR(64),
+    email           VARCHAR(128),
+    phone           VARCHAR(32),
+    classname       VARCHAR(64),
+    avatar          VARCHAR(255),
+    enabled         BOOLEAN      NOT NULL DEFAULT TRUE,
+    last_login_time DATETIME,
+    create_time     DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    update_time     DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS course (
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(128) NOT NULL,
+    description VARCHAR(1000),
+    teacher_id  BIGINT,
+    create_time DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS student_course (
+    id          BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    student_id  BIGINT   NOT NULL,
+    course_id   BIGINT   NOT NULL,
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_sc_student_course UNIQUE (student_id, course_id)
+);
+
+CREATE TABLE IF NOT EXISTS course_selection (
+    id          BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    student_id  BIGINT   NOT NULL,
+    course_id   BIGINT   NOT NULL,
+    select_time DATETIME,
+    status      INT,
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS assignment (
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(2000),
+    course_id   BIGINT,
+    teacher_id  BIGINT,
+    deadline    DATETIME,
+    status      VARCHAR(20)  DEFAULT 'active',
+    create_time DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS homework_submission (
+    id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    assignment_id   BIGINT       NOT NULL,
+    student_id      BIGINT       NOT NULL,
+    student_name    VARCHAR(64),
+    content         VARCHAR(4000),
+    attachment_url  VARCHAR(500),
+    attachment_name VARCHAR(255),
+    attachment_size BIGINT,
+    status          VARCHAR(20),
+    score           INT,
+    comment         VARCHAR(1000),
+    feedback        VARCHAR(1000),
+    submit_time     DATETIME,
+    grade_time      DATETIME,
+    create_time     DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    update_time     DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS resource (
+    id               BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    description      VARCHAR(2000),
+    file_path        VARCHAR(500),
+    file_name        VARCHAR(255),
+    file_size        BIGINT,
+    uploader_user_id BIGINT,
+    course_id        BIGINT,
+    download_count   INT          DEFAULT 0,
+    type             VARCHAR(64),
+    status           INT          DEFAULT 1,
+    create_time      DATETIME     DEFAULT CURRENT_TIMESTAMP,
+    update_time      DATETIME     DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS course_stats (
+    course_id      BIGINT   NOT NULL PRIMARY KEY,
+    student_count  INT      NOT NULL DEFAULT 0,
+    resource_count INT      NOT NULL DEFAULT 0,
+    homework_count INT      NOT NULL DEFAULT 0,
+    update_time    DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS file_blob (
+    digest      CHAR(64)     NOT NULL PRIMARY KEY,
+    file_path   VARCHAR(500) NOT NULL,
+    file_size   BIGINT       NOT NULL DEFAULT 0,
+    ref_count   INT          NOT NULL DEFAULT 0,
+    create_time DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS upload_session (
+    id           VARCHAR(32)  NOT NULL PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    file_name    VARCHAR(255) NOT NULL,
+    file_size    BIGINT       NOT NULL,
+    chunk_size   INT          NOT NULL,
+    total_chunks INT          NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    part_path    VARCHAR(500) NOT NULL,
+    create_time  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time  DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS upload_chunk (
+    session_id  VARCHAR(32) NOT NULL,
+    chunk_index INT         NOT NULL,
+    chunk_size  INT         NOT NULL,
+    create_time DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (session_id, chunk_index)
+);
+
+CREATE TABLE IF NOT EXISTS cache_invalidation (
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    origin      VARCHAR(64)  NOT NULL,
+    cache_name  VARCHAR(64)  NOT NULL,
+    cache_key   VARCHAR(255),
+    create_time TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+CREATE TABLE IF NOT EXISTS resource_content (
+    resource_id   BIGINT       NOT NULL PRIMARY KEY,
+    content       CLOB,
+    status        VARCHAR(20)  NOT NULL,
+    char_count    INT          NOT NULL DEFAULT 0,
+    truncated     BOOLEAN      NOT NULL DEFAULT FALSE,
+    error_message VARCHAR(500),
+    create_time   DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    update_time   DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS dashboard_stats (
+    metric      VARCHAR(32) NOT NULL,
+    month       CHAR(7)     NOT NULL,
+    item_count  BIGINT      NOT NULL DEFAULT 0,
+    update_time DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (metric, month)
+);